@@ -0,0 +1,72 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running an algorithm given as notation: parsing, the cache, and applying compiled moves
+ *  or the compiled permutation, compared with chained {@link Cube} calls.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlgorithmBenchmark {
+    /**
+     * T permutation.
+     */
+    static final String NOTATION = "R U R' U' R' F R2 U' R' U' R U R' F'";
+
+    Cube cube;
+    Algorithm algorithm;
+    CubePermutation permutation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cube = Cube.fromResource("/cube2/base.txt");
+        algorithm = Algorithm.parse(NOTATION);
+        permutation = algorithm.permutation();
+    }
+
+    @Benchmark
+    public Algorithm parse() {
+        return Algorithm.parse(NOTATION);
+    }
+
+    @Benchmark
+    public Algorithm cached() {
+        return Algorithm.of(NOTATION);
+    }
+
+    @Benchmark
+    public Cube apply() {
+        return algorithm.apply(cube);
+    }
+
+    /**
+     * The algorithm as one sticker permutation; compare with a single move in {@link CubeBenchmark}.
+     */
+    @Benchmark
+    public Cube permutation() {
+        return permutation.apply(cube);
+    }
+
+    @Benchmark
+    public Cube chained() {
+        return cube.R().U()._R().U_()._R().F().R2().U_()._R().U_().R().U()._R()._F();
+    }
+}
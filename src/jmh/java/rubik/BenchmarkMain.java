@@ -0,0 +1,21 @@
+package rubik;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar.
+ * Same as {@link org.openjdk.jmh.Main}, but attaches the GC profiler unless
+ *  a profiler is given on the command line, so every run reports allocations per op.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        boolean hasProfiler = Arrays.asList(args).contains("-prof");
+        if (!hasProfiler) {
+            var withGc = Arrays.copyOf(args, args.length + 2);
+            withGc[args.length]     = "-prof";
+            withGc[args.length + 1] = "gc";
+            args = withGc;
+        }
+        org.openjdk.jmh.Main.main(args);
+    }
+}
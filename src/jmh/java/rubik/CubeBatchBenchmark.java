@@ -0,0 +1,72 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One move or comparison on every state of a batch, per state; {@code perState} turns the
+ *  same states one at a time with {@link MoveEngine}. Build with {@code -P jmh,vector} for
+ *  {@code equivalent} to use the Vector API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class CubeBatchBenchmark {
+    static final int N = 1 << 16;
+
+    CubeBatch batch;
+    int[][] states;
+    Cube target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var cubes = new Scrambler().stream(N, 24).collect(Collectors.toList());
+        batch = CubeBatch.of(cubes);
+        states = new int[N][];
+        for (int i = 0; i < N; i++) states[i] = MoveEngine.state(cubes.get(i));
+        target = cubes.get(N / 2);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public CubeBatch apply() {
+        batch.apply(Move.R.index());
+        return batch;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public int[][] perState() {
+        for (int[] state: states) MoveEngine.apply(state, Move.R.index());
+        return states;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public BitSet equivalent() {
+        return batch.equivalent(target);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public BitSet equivalentScalar() {
+        return batch.equivalentScalar(target);
+    }
+}
@@ -0,0 +1,192 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the public {@link Cube} operations.
+ * Run with the GC profiler (the default of {@link BenchmarkMain}) to also get allocations per op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeBenchmark {
+    Cube cube, scrambled;
+
+    @State(Scope.Thread)
+    public static class Sequence {
+        @Param({"16", "256"})
+        int length;
+
+        int[] moves;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            var rnd = new Random(42);
+            moves = new int[length];
+            for (int i = 0; i < length; i++)
+                moves[i] = rnd.nextInt(Move.COUNT);
+        }
+    }
+
+    /**
+     * Two cubes to compare: equivalent ones are compared on every cell, different ones
+     *  may stop at the first cell.
+     */
+    @State(Scope.Thread)
+    public static class Pair {
+        @Param({"equivalent", "different"})
+        String pair;
+
+        Cube cube, pattern, rotated;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            cube    = Cube.fromResource(pair.equals("equivalent") ? "/equiv/base.txt" : "/cube2/base.txt");
+            pattern = Cube.fromResource("/equiv/equiv.txt");
+            rotated = pattern.x().y();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cube = Cube.fromResource("/cube2/base.txt");
+        scrambled = Cube.fromResource("/cube1/base.txt").R().U2()._F().L().B2()._D();
+    }
+
+    /**
+     * Same order as {@link Move}; a plain switch, so the lambdas in Move are not measured.
+     */
+    static Cube turn(Cube cube, int move) {
+        switch (move) {
+            case  0: return cube.U();
+            case  1: return cube.U_();
+            case  2: return cube.U2();
+            case  3: return cube.L();
+            case  4: return cube._L();
+            case  5: return cube.L2();
+            case  6: return cube.R();
+            case  7: return cube._R();
+            case  8: return cube.R2();
+            case  9: return cube.D();
+            case 10: return cube._D();
+            case 11: return cube.D2();
+            case 12: return cube.F();
+            case 13: return cube._F();
+            case 14: return cube.F2();
+            case 15: return cube.B();
+            case 16: return cube._B();
+            case 17: return cube.B2();
+            default: throw new IllegalArgumentException("Invalid move: " + move);
+        }
+    }
+
+    @Benchmark public Cube U()  { return cube.U();  }
+    @Benchmark public Cube U_() { return cube.U_(); }
+    @Benchmark public Cube U2() { return cube.U2(); }
+    @Benchmark public Cube L()  { return cube.L();  }
+    @Benchmark public Cube _L() { return cube._L(); }
+    @Benchmark public Cube L2() { return cube.L2(); }
+    @Benchmark public Cube R()  { return cube.R();  }
+    @Benchmark public Cube _R() { return cube._R(); }
+    @Benchmark public Cube R2() { return cube.R2(); }
+    @Benchmark public Cube D()  { return cube.D();  }
+    @Benchmark public Cube _D() { return cube._D(); }
+    @Benchmark public Cube D2() { return cube.D2(); }
+    @Benchmark public Cube F()  { return cube.F();  }
+    @Benchmark public Cube _F() { return cube._F(); }
+    @Benchmark public Cube F2() { return cube.F2(); }
+    @Benchmark public Cube B()  { return cube.B();  }
+    @Benchmark public Cube _B() { return cube._B(); }
+    @Benchmark public Cube B2() { return cube.B2(); }
+
+    @Benchmark
+    public Cube randomSequence(Sequence sequence) {
+        var c = cube;
+        for (int move: sequence.moves)
+            c = turn(c, move);
+        return c;
+    }
+
+    @Benchmark
+    public Cube fromResource() throws IOException {
+        return Cube.fromResource("/cube2/base.txt");
+    }
+
+    @Benchmark
+    public Cube validate() {
+        cube.validate();
+        return cube;
+    }
+
+    /**
+     * Colors, then pieces; cube2 has a twisted corner, so a scrambled cube1 is checked.
+     */
+    @Benchmark
+    public Cube validateSolvable() {
+        scrambled.validateSolvable();
+        return scrambled;
+    }
+
+    @Benchmark
+    public boolean equivalent(Pair p) {
+        return Cube.equivalent(p.cube, p.pattern);
+    }
+
+    /**
+     * The cell by cell loop {@link Cube#equivalent(Cube, Cube)} used before comparing faces bit-parallel.
+     */
+    @Benchmark
+    public boolean equivalentByCell(Pair p) {
+        return Cube.faceEquivalentByCell(p.cube.top,    p.pattern.top)
+            && Cube.faceEquivalentByCell(p.cube.left,   p.pattern.left)
+            && Cube.faceEquivalentByCell(p.cube.front,  p.pattern.front)
+            && Cube.faceEquivalentByCell(p.cube.right,  p.pattern.right)
+            && Cube.faceEquivalentByCell(p.cube.back,   p.pattern.back)
+            && Cube.faceEquivalentByCell(p.cube.bottom, p.pattern.bottom);
+    }
+
+    @Benchmark
+    public boolean equivalentByFace(Pair p) {
+        return Cube.faceEquivalent(p.cube.top,    p.pattern.top)
+            && Cube.faceEquivalent(p.cube.left,   p.pattern.left)
+            && Cube.faceEquivalent(p.cube.front,  p.pattern.front)
+            && Cube.faceEquivalent(p.cube.right,  p.pattern.right)
+            && Cube.faceEquivalent(p.cube.back,   p.pattern.back)
+            && Cube.faceEquivalent(p.cube.bottom, p.pattern.bottom);
+    }
+
+    /**
+     * The pattern in another orientation: one rotation has matching centers.
+     */
+    @Benchmark
+    public boolean equivalentUpToRotation(Pair p) {
+        return Cube.equivalentUpToRotation(p.cube, p.rotated);
+    }
+
+    @Benchmark public Cube x() { return cube.x(); }
+    @Benchmark public Cube y() { return cube.y(); }
+    @Benchmark public Cube z() { return cube.z(); }
+
+    @Benchmark
+    public String toStringCube() {
+        return cube.toString();
+    }
+}
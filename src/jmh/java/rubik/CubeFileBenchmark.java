@@ -0,0 +1,62 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanning a mapped binary file of cubes; one op is the whole file.
+ * Compare with {@link CubeParserBenchmark}, the same number of cubes as text.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeFileBenchmark {
+    Path path;
+    CubeFile file;
+    int[] faces = new int[Cube.N_FACES];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = Files.createTempFile("cubes", ".bin");
+        var cube = Cube.fromResource("/cube2/base.txt");
+        try (var writer = new CubeFile.Writer(path)) {
+            for (int i = 0; i < CubeParserBenchmark.CUBES; i++)
+                writer.add(cube);
+        }
+        file = CubeFile.open(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        file.close();
+        Files.delete(path);
+    }
+
+    @Benchmark
+    public int scan() {
+        int acc = 0;
+        for (long i = 0; i < file.count(); i++) {
+            file.read(i, faces);
+            acc ^= faces[Cube.FRONT];
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,77 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cubes of a million matching a pattern that fixes {@code stickers} stickers of one of them,
+ *  the others being wildcards: with the index, and by comparing every cube; build with
+ *  {@code -P jmh,vector} for {@code batchScan} to use the Vector API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g", "--add-modules=jdk.incubator.vector" })
+@State(Scope.Benchmark)
+public class CubeIndexBenchmark {
+    static final int N = 1 << 20;
+
+    @Param({ "4", "20" })
+    int stickers;
+
+    List<Cube> cubes;
+    CubeIndex index;
+    CubeBatch batch;
+    Cube pattern;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cubes = new Scrambler().stream(N, 25).collect(Collectors.toList());
+        index = new CubeIndex(N);
+        for (var cube: cubes) index.add(cube);
+        batch = CubeBatch.of(cubes);
+
+        int[] faces = cubes.get(N / 2).faces();
+        var rnd = new SplittableRandom(3);
+        var keep = new BitSet();
+        while (keep.cardinality() < stickers) keep.set(rnd.nextInt(StickerProgram.N_STICKERS));
+        for (int sticker = 0; sticker < StickerProgram.N_STICKERS; sticker++)
+            if (!keep.get(sticker)) faces[sticker / 9] |= 0b111 << StickerProgram.offset(sticker);
+        pattern = Cube.fromFaces(faces);
+    }
+
+    @Benchmark
+    public BitSet query() {
+        return index.query(pattern);
+    }
+
+    @Benchmark
+    public BitSet batchScan() {
+        return batch.equivalent(pattern);
+    }
+
+    @Benchmark
+    public BitSet scan() {
+        var found = new BitSet();
+        for (int i = 0; i < N; i++)
+            if (Cube.equivalent(cubes.get(i), pattern)) found.set(i);
+        return found;
+    }
+}
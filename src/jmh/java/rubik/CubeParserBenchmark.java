@@ -0,0 +1,58 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a buffer of many cubes in the text format; one op is the whole buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeParserBenchmark {
+    static final int CUBES = 10_000;
+
+    ByteBuffer input;
+    int[] faces = new int[Cube.N_FACES];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        byte[] one;
+        try (var in = CubeParserBenchmark.class.getResourceAsStream("/cube2/base.txt")) {
+            one = in.readAllBytes();
+        }
+        input = ByteBuffer.allocate(one.length * CUBES);
+        for (int i = 0; i < CUBES; i++)
+            input.put(one);
+        input.flip();
+    }
+
+    @Benchmark
+    public long cubes() {
+        return CubeParser.stream(input).count();
+    }
+
+    @Benchmark
+    public int faces() throws IOException {
+        var parser = CubeParser.of(input);
+        int n = 0;
+        while (parser.read(faces) == CubeParser.N_CELLS) n++;
+        return n;
+    }
+}
@@ -0,0 +1,62 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling a set with the states of a random walk: {@link CubeStateSet} against a boxed HashSet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CubeStateSetBenchmark {
+    @Param({"1000000"})
+    int size;
+
+    int[][] states;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var rnd = new Random(42);
+        int[] state = MoveEngine.state(Cube.fromResource("/cube2/base.txt"));
+        states = new int[size][];
+        for (int i = 0; i < size; i++) {
+            MoveEngine.apply(state, rnd.nextInt(Move.COUNT));
+            states[i] = state.clone();
+        }
+    }
+
+    @Benchmark
+    public int cubeStateSet() {
+        var set = new CubeStateSet(size);
+        for (int[] state: states)
+            set.add(state);
+        return set.size();
+    }
+
+    @Benchmark
+    public int hashSet() {
+        var set = new HashSet<Cube>(size * 2);
+        for (int[] state: states)
+            set.add(MoveEngine.cube(state));
+        return set.size();
+    }
+}
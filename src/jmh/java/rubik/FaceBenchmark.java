@@ -0,0 +1,35 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The bit-twiddling helpers the turns are made of, measured one by one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FaceBenchmark {
+    int face  = Cube.makeFace(1, 2, 3, 4, 5, 6, 7, 1, 2);
+    int other = Cube.makeFace(6, 5, 4, 3, 2, 1, 6, 5, 4);
+
+    @Benchmark public int replaceRow() { return Cube.replaceRow(face, 1, Cube.row(other, 1)); }
+    @Benchmark public int replaceCol() { return Cube.replaceCol(face, 3, Cube.col(other, 3)); }
+    @Benchmark public int shiftCol()   { return Cube.shiftCol(3, 1, Cube.col(other, 3)); }
+    @Benchmark public int reverseCol() { return Cube.reverseCol(Cube.col(other, 1)); }
+    @Benchmark public int cwFace()     { return Cube.cwFace(face); }
+    @Benchmark public int ccwFace()    { return Cube.ccwFace(face); }
+    @Benchmark public int rotateFace() { return Cube.rotateFace(face); }
+}
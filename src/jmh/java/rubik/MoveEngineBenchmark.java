@@ -0,0 +1,47 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns in place; compare with {@link CubeBenchmark#randomSequence} and
+ *  {@link MutableCubeBenchmark#randomSequence}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveEngineBenchmark {
+    int[] state;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        state = MoveEngine.state(Cube.fromResource("/cube2/base.txt"));
+    }
+
+    @Benchmark
+    public int[] singleMove() {
+        MoveEngine.apply(state, Move.F.index());
+        return state;
+    }
+
+    @Benchmark
+    public int[] randomSequence(CubeBenchmark.Sequence sequence) {
+        MoveEngine.apply(state, sequence.moves);
+        return state;
+    }
+}
@@ -0,0 +1,68 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-place turns, with and without keeping the hash; compare with
+ *  {@link CubeBenchmark#randomSequence}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutableCubeBenchmark {
+    MutableCube cube;
+    HashedMutableCube hashed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cube = new MutableCube(Cube.fromResource("/cube2/base.txt"));
+        hashed = new HashedMutableCube(Cube.fromResource("/cube2/base.txt"));
+    }
+
+    @Benchmark
+    public MutableCube applyUndo() {
+        return cube.apply(Move.R.index()).undo(Move.R.index());
+    }
+
+    @Benchmark
+    public MutableCube randomSequence(CubeBenchmark.Sequence sequence) {
+        return cube.apply(sequence.moves);
+    }
+
+    /**
+     * Hash of the faces, 18 row lookups; compare with {@link #applyUndo()}.
+     */
+    @Benchmark
+    public long hash() {
+        return cube.hash();
+    }
+
+    /**
+     * {@link #applyUndo()}, keeping the hash up to date.
+     */
+    @Benchmark
+    public HashedMutableCube hashedApplyUndo() {
+        return hashed.apply(Move.R.index()).undo(Move.R.index());
+    }
+
+    @Benchmark
+    public HashedMutableCube hashedRandomSequence(CubeBenchmark.Sequence sequence) {
+        return hashed.apply(sequence.moves);
+    }
+}
@@ -0,0 +1,60 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns of cubes of several sizes; compare the 3x3 with {@link CubeBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NCubeBenchmark {
+    @Param({"2", "3", "4", "5", "7"})
+    int n;
+
+    NCube cube;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cube = NCube.solved(n).apply("R U F' L2 D B");
+    }
+
+    @Benchmark
+    public NCube R() {
+        return cube.turn('R', 1, 1);
+    }
+
+    @Benchmark
+    public NCube F() {
+        return cube.turn('F', 1, 1);
+    }
+
+    /**
+     * The layer next to R: rows of four faces, no face rotation.
+     */
+    @Benchmark
+    public NCube innerR() {
+        return cube.turn('R', 2, 1);
+    }
+
+    @Benchmark
+    public boolean equivalent() {
+        return NCube.equivalent(cube, cube);
+    }
+}
@@ -0,0 +1,46 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optimal 2x2 solutions by table descent, from stickers; the table is built once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PocketCubeSolverBenchmark {
+    PocketCubeSolver solver;
+    NCube cube;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        solver = PocketCubeSolver.build();
+        // a scramble of 11 moves
+        cube = NCube.solved(2).apply("F U' F2 D' B U R' F' L D' F'");
+    }
+
+    @Benchmark
+    public Algorithm solve() {
+        return solver.solve(cube);
+    }
+
+    @Benchmark
+    public int index() {
+        return PocketCubeSolver.index(cube);
+    }
+}
@@ -0,0 +1,52 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uniformly random cubes, compared with 25 random moves, which are not uniform.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScramblerBenchmark {
+    Scrambler scrambler;
+    SplittableRandom rnd;
+    Cube solved;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        scrambler = new Scrambler();
+        rnd = new SplittableRandom(18);
+        solved = Cube.fromResource("/cube1/base.txt");
+    }
+
+    @Benchmark
+    public Cube next() {
+        return scrambler.next(rnd);
+    }
+
+    @Benchmark
+    public Cube randomMoves() {
+        var cube = solved;
+        for (int i = 0; i < 25; i++)
+            cube = Move.of(rnd.nextInt(Move.COUNT)).apply(cube);
+        return cube;
+    }
+}
@@ -0,0 +1,46 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One symmetry applied to a cube, and the canonical representative, which tries all 48.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SymmetryBenchmark {
+    Cube cube;
+    Symmetry symmetry;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        cube = Algorithm.parse(AlgorithmBenchmark.NOTATION).apply(Cube.fromResource("/cube1/base.txt"));
+        symmetry = Symmetry.of(Symmetry.ROTATIONS + 5);
+    }
+
+    @Benchmark
+    public Cube apply() {
+        return symmetry.apply(cube);
+    }
+
+    @Benchmark
+    public Symmetry.Canonical canonical() {
+        return Symmetry.canonical(cube);
+    }
+}
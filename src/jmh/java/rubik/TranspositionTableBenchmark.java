@@ -0,0 +1,58 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes and stores of random hashes in a table shared by all benchmark threads; run with
+ *  {@code -t} to measure contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranspositionTableBenchmark {
+    @Param({"64"})
+    int megabytes;
+
+    TranspositionTable table;
+
+    @State(Scope.Thread)
+    public static class Hashes {
+        final SplittableRandom rnd = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new TranspositionTable(megabytes);
+        var rnd = new SplittableRandom(42);
+        for (int i = 0; i < table.capacity() / 2; i++)
+            table.store(rnd.nextLong(), rnd.nextInt(20), rnd.nextInt(20), TranspositionTable.NO_MOVE);
+    }
+
+    @Benchmark
+    public long probe(Hashes hashes) {
+        return table.probe(hashes.rnd.nextLong());
+    }
+
+    @Benchmark
+    public boolean store(Hashes hashes) {
+        long hash = hashes.rnd.nextLong();
+        return table.store(hash, (int) hash & 0xf, 1, TranspositionTable.NO_MOVE);
+    }
+}
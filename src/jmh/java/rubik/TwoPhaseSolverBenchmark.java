@@ -0,0 +1,61 @@
+package rubik;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to solve random scrambles; tables are built in the setup, see
+ *  {@link TwoPhaseSolver#tableBuildMillis()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TwoPhaseSolverBenchmark {
+    private static final int SCRAMBLES = 64;
+
+    @Param({"22", "21"})
+    int maxLength;
+
+    TwoPhaseSolver solver;
+    Cube[] scrambles;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        solver = new TwoPhaseSolver();
+        var solved = Cube.fromResource("/cube1/base.txt");
+        var rnd = new Random(1);
+        scrambles = new Cube[SCRAMBLES];
+        for (int i = 0; i < SCRAMBLES; i++) {
+            var cube = new MutableCube(solved);
+            for (int k = 0; k < 30; k++)
+                cube.apply(rnd.nextInt(Move.COUNT));
+            scrambles[i] = cube.toCube();
+        }
+    }
+
+    @Benchmark
+    public Optional<int[]> solve() {
+        var cube = scrambles[next++ & (SCRAMBLES - 1)];
+        return solver.solve(cube, maxLength, Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,216 @@
+package rubik;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A sequence of moves in Singmaster notation, such as {@code R U R' U2}, compiled to move indices.
+ *
+ * A move is a face letter, {@code U L F R B D}, optionally followed by {@code '} for a
+ *  counter-clockwise turn or {@code 2} for a half turn; {@code 2'} is also a half turn.
+ * Moves may be separated by spaces or commas, or not at all.
+ * Applying an algorithm turns one {@link MoveEngine} state, so it allocates the result only,
+ *  not a cube per move.
+ *
+ * Instances are immutable. {@link #of(String)} keeps recently used algorithms in a shared
+ *  cache, for callers that run the same algorithms over and over. Hits read a concurrent map
+ *  without locking; misses insert under a lock and evict with the clock algorithm, an
+ *  approximation of LRU: an algorithm used since the clock hand last passed it is kept.
+ */
+public final class Algorithm {
+    /**
+     * Algorithms kept by {@link #of(String)}.
+     */
+    public static final int CACHE_SIZE = 4096;
+
+    /*
+     * Face letters in the order of the move groups of Move: move = 3 * group + suffix.
+     */
+    private static final String FACES = "ULRDFB";
+    private static final String[] SUFFIXES = { "", "'", "2" };
+
+    private static final ConcurrentHashMap<String, Cached> CACHE = new ConcurrentHashMap<>(2 * CACHE_SIZE);
+
+    /*
+     * The notations in the cache, in the order the clock hand visits them; guarded by CLOCK.
+     */
+    private static final String[] CLOCK = new String[CACHE_SIZE];
+    private static int hand;
+
+    private static final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    private final int[] moves;
+
+    private Algorithm(int[] moves) {
+        this.moves = moves;
+    }
+
+    public static Algorithm of(int... moves) {
+        for (int move: moves)
+            if (move < 0 || move >= Move.COUNT) throw new IllegalArgumentException("Invalid move: " + move);
+        return new Algorithm(moves.clone());
+    }
+
+    /**
+     * The compiled algorithm, from the cache if it was compiled recently.
+     * @throws IllegalArgumentException if the notation is invalid.
+     */
+    public static Algorithm of(String notation) {
+        var cached = CACHE.get(notation);
+        if (cached != null) {
+            // a plain write, and only when needed: the mark is a hint for the clock
+            if (!cached.used) cached.used = true;
+            hits.increment();
+            return cached.algorithm;
+        }
+        misses.increment();
+        var algorithm = parse(notation);
+        synchronized (CLOCK) {
+            cached = CACHE.get(notation);
+            if (cached != null) return cached.algorithm;
+            while (CLOCK[hand] != null) {
+                var old = CACHE.get(CLOCK[hand]);
+                if (!old.used) {
+                    CACHE.remove(CLOCK[hand]);
+                    break;
+                }
+                old.used = false;
+                hand = (hand + 1) % CACHE_SIZE;
+            }
+            CACHE.put(notation, new Cached(algorithm));
+            CLOCK[hand] = notation;
+            hand = (hand + 1) % CACHE_SIZE;
+        }
+        return algorithm;
+    }
+
+    private static final class Cached {
+        final Algorithm algorithm;
+        boolean used;
+
+        Cached(Algorithm algorithm) {
+            this.algorithm = algorithm;
+        }
+    }
+
+    /**
+     * Compile without going through the cache.
+     * @throws IllegalArgumentException if the notation is invalid.
+     */
+    public static Algorithm parse(CharSequence notation) {
+        int[] moves = new int[notation.length()];
+        int n = 0;
+        for (int i = 0; i < notation.length(); ) {
+            char c = notation.charAt(i);
+            if (Character.isWhitespace(c) || c == ',') {
+                i++;
+                continue;
+            }
+            int group = FACES.indexOf(c);
+            if (group < 0) throw invalid(notation, i, "unknown move '" + c + "'");
+            i++;
+            int suffix = 0;
+            if (i < notation.length()) {
+                char s = notation.charAt(i);
+                if (s == '\'' || s == '’') {
+                    suffix = 1;
+                    i++;
+                } else if (s == '2') {
+                    suffix = 2;
+                    i++;
+                    if (i < notation.length() && (notation.charAt(i) == '\'' || notation.charAt(i) == '’')) i++;
+                }
+            }
+            moves[n++] = 3 * group + suffix;
+        }
+        return new Algorithm(Arrays.copyOf(moves, n));
+    }
+
+    private static IllegalArgumentException invalid(CharSequence notation, int at, String reason) {
+        return new IllegalArgumentException("Invalid notation at " + at + ", " + reason + ": " + notation);
+    }
+
+    /**
+     * Move indices, see {@link Move}.
+     */
+    public int[] moves() {
+        return moves.clone();
+    }
+
+    public int length() {
+        return moves.length;
+    }
+
+    public int move(int i) {
+        return moves[i];
+    }
+
+    public Algorithm inverse() {
+        int[] inverse = new int[moves.length];
+        for (int i = 0; i < moves.length; i++)
+            inverse[i] = Move.inverse(moves[moves.length - 1 - i]);
+        return new Algorithm(inverse);
+    }
+
+    public Cube apply(Cube cube) {
+        return MoveEngine.apply(cube, moves);
+    }
+
+    /**
+     * The whole algorithm as one sticker permutation, to apply many times at the cost of one move.
+     */
+    public CubePermutation permutation() {
+        return CubePermutation.ofMoves(moves);
+    }
+
+    /**
+     * Turn the cube in place.
+     */
+    public MutableCube apply(MutableCube cube) {
+        return cube.apply(moves);
+    }
+
+    /**
+     * Turn an engine state in place.
+     */
+    public void apply(int[] state) {
+        MoveEngine.apply(state, moves);
+    }
+
+    /**
+     * Lookups of {@link #of(String)} answered by the cache, since the start of the process.
+     */
+    public static long cacheHits() {
+        return hits.sum();
+    }
+
+    public static long cacheMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(moves, ((Algorithm) o).moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(moves);
+    }
+
+    /**
+     * The notation, moves separated by spaces.
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        for (int move: moves) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(FACES.charAt(move / 3)).append(SUFFIXES[move % 3]);
+        }
+        return sb.toString();
+    }
+}
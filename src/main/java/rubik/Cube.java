@@ -2,87 +2,40 @@ package rubik;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.Scanner;
 
 public class Cube {
-    final int top, left, front, right, back, bottom;
+    /*
+     * Index of each face in arrays of faces; same order as the constructor.
+     */
+    static final int TOP = 0, LEFT = 1, FRONT = 2, RIGHT = 3, BACK = 4, BOTTOM = 5;
+    static final int N_FACES = 6;
 
-    private static OptionalInt parseInt(String s) {
-        try {
-            return OptionalInt.of(Integer.parseInt(s));
-        } catch (NumberFormatException ex) {
-            return OptionalInt.empty();
-        }
-    }
+    final int top, left, front, right, back, bottom;
 
-    private static String slurp(String resourceName) throws IOException {
+    /**
+     * Read one cube from a classpath resource, see {@link CubeParser} for the format.
+     * @throws IllegalArgumentException if the resource does not hold exactly one cube.
+     */
+    public static Cube fromResource(String resourceName) throws IOException {
         var res = Cube.class.getResource(resourceName);
         if (res == null) throw new FileNotFoundException("Resource not found: " + resourceName);
-        var bytes = res.openStream().readAllBytes();
-        return new String(bytes, StandardCharsets.US_ASCII);
-    }
-
-    private static int[] intTokens(String resourceName) throws IOException {
-        var txt = slurp(resourceName);
-        var sc = new Scanner(txt);
-        var ints = new ArrayList<Integer>();
-
-        while (sc.hasNextLine()) {
-            var line = sc.nextLine();
-            // Discard comment from line, discard whole line if it is a comment.
-            int idx = line.indexOf('#');
-            if (idx >= 0) line = line.substring(0, idx);
-            if (line.isEmpty()) continue;
-            for (var piece: line.split("\s")) {
-                var op = parseInt(piece);
-                if (op.isPresent())
-                    ints.add(op.getAsInt());
-            }
-        }
-        int sz = ints.size();
-        int[] arr = new int[sz];
-        for (int i = 0; i < sz; i++)
-            arr[i] = ints.get(i);
-        return arr;
-    }
-
-    public static Cube fromResource(String resourceName) throws IOException {
-        final int nCells = 9 * 6;
-        final int[] arr = intTokens(resourceName);
-        if (arr.length != nCells) {
-            throw new IllegalArgumentException("Invalid input data, not enough cells." +
-                    " Expected " + nCells + ", got " + arr.length);
-        }
-
-        int top = makeFace(arr, 0);
 
-        // rows in each face
-        var L = new ArrayList<Integer>();
-        var F = new ArrayList<Integer>();
-        var R = new ArrayList<Integer>();
-        var B = new ArrayList<Integer>();
-
-        ArrayList<Integer>[] faces = new ArrayList[]{L, F, R, B};
-        int i = 9;
-        for (int row = 1; row <= 3; row++) {
-            for (var face: faces) {
-                for (int col = 1; col <= 3; col++) {
-                    face.add(arr[i++]);
-                }
+        final int nCells = CubeParser.N_CELLS;
+        int[] faces = new int[N_FACES];
+        try (var parser = CubeParser.of(res.openStream(), resourceName)) {
+            long cells = parser.read(faces);
+            if (cells == nCells) cells += parser.skipRemaining();
+            if (cells != nCells) {
+                throw new IllegalArgumentException("Invalid input data, not enough cells." +
+                        " Expected " + nCells + ", got " + cells);
             }
         }
-        int left   = makeFace(L)
-          , front  = makeFace(F)
-          , right  = makeFace(R)
-          , back   = makeFace(B)
-          , bottom = makeFace(arr, 9 * 5);
-        var cube = new Cube(top, left, front, right, back, bottom);
+        var cube = fromFaces(faces);
         cube.validate();
         return cube;
     }
@@ -96,6 +49,20 @@ public class Cube {
         this.bottom = bottom;
     }
 
+    /**
+     * Cube from faces in constructor order, as returned by {@link #faces()}.
+     */
+    static Cube fromFaces(int[] faces) {
+        return new Cube(faces[TOP], faces[LEFT], faces[FRONT], faces[RIGHT], faces[BACK], faces[BOTTOM]);
+    }
+
+    /**
+     * Faces in constructor order; indices are {@link #TOP}, {@link #LEFT}, ..., {@link #BOTTOM}.
+     */
+    int[] faces() {
+        return new int[] { top, left, front, right, back, bottom };
+    }
+
     public Cube U() {
         return new Cube(
             cwFace(top),
@@ -277,6 +244,131 @@ public class Cube {
             replaceRow(bottom, 3, row(rotateFace(top), 3)));
     }
 
+    /**
+     * Whole-cube rotation like {@code R}: front goes up.
+     */
+    public Cube x() {
+        return new Cube(front, ccwFace(left), bottom, cwFace(right), rotateFace(top), rotateFace(back));
+    }
+
+    /**
+     * Whole-cube rotation like {@code U}: front goes left.
+     */
+    public Cube y() {
+        return new Cube(cwFace(top), front, right, back, left, ccwFace(bottom));
+    }
+
+    /**
+     * Whole-cube rotation like {@code F}: top goes right.
+     */
+    public Cube z() {
+        return new Cube(cwFace(left), cwFace(bottom), cwFace(front), cwFace(top), ccwFace(back), cwFace(right));
+    }
+
+    /**
+     * Number of orientations of the whole cube; rotation 0 is the identity.
+     */
+    public static final int N_ROTATIONS = 24;
+
+    /*
+     * Rotation r takes face f from face ROTATION_SOURCE[r][f], turned clockwise
+     *  ROTATION_TURNS[r][f] times. Generated from x, y and z, breadth first.
+     */
+    private static final int[][] ROTATION_SOURCE = new int[N_ROTATIONS][], ROTATION_TURNS = new int[N_ROTATIONS][];
+
+    static {
+        int[][] generatorSource = {
+            { FRONT, LEFT, BOTTOM, RIGHT, TOP, BACK },      // x
+            { TOP, FRONT, RIGHT, BACK, LEFT, BOTTOM },      // y
+            { LEFT, BOTTOM, FRONT, TOP, BACK, RIGHT } };    // z
+        int[][] generatorTurns = {
+            { 0, 3, 0, 1, 2, 2 },
+            { 1, 0, 0, 0, 0, 3 },
+            { 1, 1, 1, 1, 3, 1 } };
+        ROTATION_SOURCE[0] = new int[] { TOP, LEFT, FRONT, RIGHT, BACK, BOTTOM };
+        ROTATION_TURNS[0] = new int[N_FACES];
+        int n = 1;
+        for (int r = 0; r < n; r++) {
+            for (int g = 0; g < generatorSource.length; g++) {
+                int[] source = new int[N_FACES], turns = new int[N_FACES];
+                for (int f = 0; f < N_FACES; f++) {
+                    int from = generatorSource[g][f];
+                    source[f] = ROTATION_SOURCE[r][from];
+                    turns[f] = (ROTATION_TURNS[r][from] + generatorTurns[g][f]) % 4;
+                }
+                boolean known = false;
+                for (int i = 0; i < n && !known; i++)
+                    known = Arrays.equals(ROTATION_SOURCE[i], source) && Arrays.equals(ROTATION_TURNS[i], turns);
+                if (!known) {
+                    ROTATION_SOURCE[n] = source;
+                    ROTATION_TURNS[n++] = turns;
+                }
+            }
+        }
+    }
+
+    /**
+     * The cube in one of its {@link #N_ROTATIONS} orientations.
+     */
+    public Cube rotate(int rotation) {
+        int[] faces = faces(), source = ROTATION_SOURCE[rotation], turns = ROTATION_TURNS[rotation];
+        return new Cube(
+            turnFace(faces[source[TOP]],    turns[TOP]),
+            turnFace(faces[source[LEFT]],   turns[LEFT]),
+            turnFace(faces[source[FRONT]],  turns[FRONT]),
+            turnFace(faces[source[RIGHT]],  turns[RIGHT]),
+            turnFace(faces[source[BACK]],   turns[BACK]),
+            turnFace(faces[source[BOTTOM]], turns[BOTTOM]));
+    }
+
+    /**
+     * Face turned clockwise {@code turns} times, 0 to 3.
+     */
+    static int turnFace(int face, int turns) {
+        switch (turns) {
+            case 0: return face;
+            case 1: return cwFace(face);
+            case 2: return rotateFace(face);
+            default: return ccwFace(face);
+        }
+    }
+
+    /**
+     * A rotation that makes {@code from} equivalent to {@code to}, see {@link #equivalent(Cube, Cube)}.
+     * Rotations whose centers do not match are skipped without turning any face.
+     * @return the rotation, for {@link #rotate(int)}, or empty if the cubes differ in every orientation.
+     */
+    public static OptionalInt rotationTo(Cube from, Cube to) {
+        int[] faces = from.faces(), target = to.faces();
+        int[] centers = new int[N_FACES], targetCenters = new int[N_FACES];
+        for (int f = 0; f < N_FACES; f++) {
+            centers[f] = at(faces[f], 2, 2);
+            targetCenters[f] = at(target[f], 2, 2);
+        }
+        long t0 = pack(to.top, to.left), t1 = pack(to.front, to.right), t2 = pack(to.back, to.bottom);
+        for (int r = 0; r < N_ROTATIONS; r++) {
+            int[] source = ROTATION_SOURCE[r];
+            boolean centersMatch = true;
+            for (int f = 0; f < N_FACES && centersMatch; f++) {
+                int a = centers[source[f]], b = targetCenters[f];
+                centersMatch = a == b || a == 7 || b == 7;
+            }
+            if (!centersMatch) continue;
+            var rotated = from.rotate(r);
+            if (packedEquivalent(pack(rotated.top, rotated.left), pack(rotated.front, rotated.right),
+                                 pack(rotated.back, rotated.bottom), t0, t1, t2))
+                return OptionalInt.of(r);
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Cubes are equivalent up to rotation if some orientation of one is equivalent to the other.
+     */
+    public static boolean equivalentUpToRotation(Cube cube1, Cube cube2) {
+        return rotationTo(cube1, cube2).isPresent();
+    }
+
     /**
      * New face with replaced row.
      */
@@ -494,16 +586,8 @@ public class Cube {
     }
 
     /**
-     * Make a face from cells, but fetch from a list
+     * The 9 cells of a face, row by row; the inverse of {@link #makeFace(int[], int)} from 0.
      */
-    static int makeFace(ArrayList<Integer> lst) {
-        int i = 0;
-        return makeFace(
-            lst.get(i++), lst.get(i++), lst.get(i++),
-            lst.get(i++), lst.get(i++), lst.get(i++),
-            lst.get(i++), lst.get(i++), lst.get(i++));
-    }
-
     static int[] faceToArray(int face) {
         int offset = 3 * 8;
         int mask = 0b111 << offset;
@@ -526,6 +610,42 @@ public class Cube {
      * Validate color count; useful for testing.
      */
     public void validate() {
+        var event = new Events.Validate();
+        event.begin();
+        try {
+            checkColors();
+            event.valid = true;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Validate colors, then check that the cube can be reached by turns: its pieces exist and
+     *  are all different, the twists and flips add up, and no two pieces are swapped.
+     * A cube with wildcards is a pattern rather than a state, and no turns solve it: a wildcard
+     *  never matches the center of its face.
+     * @throws InvalidCubeException with the first reason the cube can not be solved.
+     */
+    public void validateSolvable() {
+        validate();
+        if (hasWildcards()) throw new InvalidCubeException("Unsolvable cube: wildcards are not colors");
+        CubieCube.fromCube(this).checkSolvable();
+    }
+
+    /**
+     * Whether a cell is 7, all three bits set.
+     */
+    boolean hasWildcards() {
+        return (wildcards(top) | wildcards(left) | wildcards(front)
+              | wildcards(right) | wildcards(back) | wildcards(bottom)) != 0;
+    }
+
+    private static int wildcards(int face) {
+        return face & face >>> 1 & face >>> 2 & CELL_LOW_BITS;
+    }
+
+    private void checkColors() {
         int[] faces = { top, bottom, left, right, front, back };
         int[] count = new int[8];    // colors 1 to 6, 7s are wildcards; ignore zero
         for (int face: faces)
@@ -622,19 +742,109 @@ public class Cube {
             && this.bottom == that.bottom;
     }
 
+    @Override
+    public int hashCode() {
+        long h = hash64(pack(top, left), pack(front, right), pack(back, bottom));
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Two 27-bit faces in the low 54 bits of a long; the first face in the high bits.
+     * A cube is three such words: top and left, front and right, back and bottom.
+     */
+    static long pack(int face1, int face2) {
+        return (long) face1 << 27 | face2;
+    }
+
+    /**
+     * First face of a word made by {@link #pack(int, int)}.
+     */
+    static int unpackHigh(long word) {
+        return (int) (word >>> 27);
+    }
+
+    /**
+     * Second face of a word made by {@link #pack(int, int)}.
+     */
+    static int unpackLow(long word) {
+        return (int) word & 0x7ff_ffff;
+    }
+
+    /**
+     * 64-bit hash of the three packed words of a cube.
+     * Every input bit affects every output bit, so the low bits can be used as a table index.
+     */
+    static long hash64(long w0, long w1, long w2) {
+        long h = w0 * 0x9E37_79B9_7F4A_7C15L;
+        h = (Long.rotateLeft(h, 31) ^ w1) * 0xC2B2_AE3D_27D4_EB4FL;
+        h = (Long.rotateLeft(h, 29) ^ w2) * 0x1656_67B1_9E37_79F9L;
+        // Murmur3 finalizer
+        h ^= h >>> 33;
+        h *= 0xff51_afd7_ed55_8ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ce_b9fe_1a85_ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
     /**
      * Cubes are equivalent if cells have the same colors, considering wildcards.
      */
     public static boolean equivalent(Cube cube1, Cube cube2) {
-        return faceEquivalent(cube1.top,    cube2.top)
-            && faceEquivalent(cube1.left,   cube2.left)
-            && faceEquivalent(cube1.front,  cube2.front)
-            && faceEquivalent(cube1.right,  cube2.right)
-            && faceEquivalent(cube1.back,   cube2.back)
-            && faceEquivalent(cube1.bottom, cube2.bottom);
+        return packedEquivalent(pack(cube1.top, cube1.left), pack(cube1.front, cube1.right), pack(cube1.back, cube1.bottom),
+                                pack(cube2.top, cube2.left), pack(cube2.front, cube2.right), pack(cube2.back, cube2.bottom));
+    }
+
+    /**
+     * Lowest bit of each of the 9 cells of a face.
+     */
+    static final int CELL_LOW_BITS = 0b001_001_001__001_001_001__001_001_001;
+
+    /**
+     * Lowest bit of each of the 18 cells of a word made by {@link #pack(int, int)}.
+     */
+    static final long PACKED_CELL_LOW_BITS = pack(CELL_LOW_BITS, CELL_LOW_BITS);
+
+    /**
+     * Faces are compared on all cells at once: a cell is a wildcard if its three bits are set,
+     *  and differs from the other cell if any bit of their xor is set. Both are folded into
+     *  the lowest bit of the cell.
+     */
+    static boolean faceEquivalent(int face1, int face2) {
+        int wild = (face1 & face1 >>> 1 & face1 >>> 2) | (face2 & face2 >>> 1 & face2 >>> 2);
+        int x = face1 ^ face2;
+        int differ = x | x >>> 1 | x >>> 2;
+        return (differ & ~wild & CELL_LOW_BITS) == 0;
+    }
+
+    /**
+     * Same as {@link #faceEquivalent(int, int)} on the three packed words of two cubes,
+     *  see {@link #pack(int, int)}; the shifts never carry a bit into the lowest bit of a cell
+     *  of the other face.
+     */
+    static boolean packedEquivalent(long a0, long a1, long a2, long b0, long b1, long b2) {
+        return (mismatches(a0, b0) | mismatches(a1, b1) | mismatches(a2, b2)) == 0;
     }
 
-    private static boolean faceEquivalent(int face1, int face2) {
+    private static long mismatches(long word1, long word2) {
+        return mismatches(word1, word2, PACKED_CELL_LOW_BITS);
+    }
+
+    /**
+     * Lowest bit of each cell that differs, wildcards aside, in words of 3-bit cells.
+     * @param cellLowBits lowest bit of each cell to compare.
+     */
+    static long mismatches(long word1, long word2, long cellLowBits) {
+        long wild = (word1 & word1 >>> 1 & word1 >>> 2) | (word2 & word2 >>> 1 & word2 >>> 2);
+        long x = word1 ^ word2;
+        long differ = x | x >>> 1 | x >>> 2;
+        return differ & ~wild & cellLowBits;
+    }
+
+    /**
+     * Cell by cell comparison, the reference for {@link #faceEquivalent(int, int)}.
+     */
+    static boolean faceEquivalentByCell(int face1, int face2) {
         for (int r = 1; r <= 3; r++) {
             for (int c = 1; c <= 3; c++) {
                 int c1 = at(face1, r, c),
@@ -0,0 +1,249 @@
+package rubik;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+import static rubik.Cube.CELL_LOW_BITS;
+import static rubik.Cube.N_FACES;
+
+/**
+ * Many cube states, stored as six columns of faces, for applying the same moves to all of
+ *  them, such as when expanding a breadth-first frontier.
+ *
+ * Column {@code f} holds face {@code f} of every state, faces in the order of
+ *  {@link Cube#TOP}, ..., {@link Cube#BOTTOM}. A move computes each face it changes from
+ *  masked and rotated source columns, the shift groups of {@link StickerProgram}, with no
+ *  table lookups: one loop over the states per shift group, which the JIT compiles to SIMD
+ *  instructions, and as fast as the same loops written with the Vector API.
+ * The comparison of {@link #equivalent(Cube)} folds six faces into one bit per state, which
+ *  the JIT does not vectorize. Built with {@code mvn -P vector} and run with
+ *  {@code --add-modules jdk.incubator.vector}, it runs on SIMD lanes with
+ *  {@code CubeBatchVector}, in src/vector/java; the default build has no such class and
+ *  compares one state at a time.
+ */
+public final class CubeBatch {
+    /*
+     * CubeBatchVector.equivalent, or null when the class or the module is missing.
+     */
+    private static final MethodHandle VECTOR_EQUIVALENT = vectorEquivalent();
+
+    /**
+     * Whether the Vector API is used.
+     */
+    static final boolean VECTORIZED = VECTOR_EQUIVALENT != null;
+
+    /**
+     * How a move computes one face: the OR of {@code rotateLeft(column[src[k]] & mask[k], shift[k])}.
+     */
+    record FaceProgram(int face, int[] src, int[] mask, int[] shift) {}
+
+    /*
+     * Programs of the faces each move changes, by move index.
+     */
+    private static final FaceProgram[][] PROGRAMS = new FaceProgram[Move.COUNT][];
+
+    static {
+        for (int move = 0; move < Move.COUNT; move++) {
+            int[] perm = MoveEngine.permutation(move);
+            var programs = new FaceProgram[N_FACES];
+            int n = 0;
+            for (int dst = 0; dst < N_FACES; dst++) {
+                int[] src = new int[9], mask = new int[9], shift = new int[9];
+                int k = 0;
+                for (int s = 0; s < N_FACES; s++) {
+                    for (int[] group: StickerProgram.shiftGroups(perm, dst, s)) {
+                        src[k] = s;
+                        mask[k] = group[0];
+                        shift[k++] = group[1];
+                    }
+                }
+                if (k == 1 && src[0] == dst && shift[0] == 0) continue;   // unchanged
+                programs[n++] = new FaceProgram(dst, Arrays.copyOf(src, k), Arrays.copyOf(mask, k), Arrays.copyOf(shift, k));
+            }
+            PROGRAMS[move] = Arrays.copyOf(programs, n);
+        }
+    }
+
+    private static MethodHandle vectorEquivalent() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+        try {
+            var type = MethodType.methodType(int.class, int[][].class, int[].class, int.class, long[].class);
+            return MethodHandles.lookup().findStatic(Class.forName("rubik.CubeBatchVector"), "equivalent", type);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int[][] columns = new int[N_FACES][], spare = new int[N_FACES][];
+    private int size;
+
+    /**
+     * An empty batch with room for {@code capacity} states; it grows as needed.
+     */
+    public CubeBatch(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        for (int f = 0; f < N_FACES; f++) {
+            columns[f] = new int[capacity];
+            spare[f] = new int[capacity];
+        }
+    }
+
+    public static CubeBatch of(Collection<Cube> cubes) {
+        var batch = new CubeBatch(cubes.size());
+        for (var cube: cubes) batch.add(cube);
+        return batch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(Cube cube) {
+        add(cube.faces());
+    }
+
+    /**
+     * Add a state of {@link MoveEngine}.
+     */
+    public void add(int[] state) {
+        if (size == columns[0].length) {
+            int capacity = Math.max(16, 2 * size);
+            for (int f = 0; f < N_FACES; f++) {
+                columns[f] = Arrays.copyOf(columns[f], capacity);
+                spare[f] = new int[capacity];
+            }
+        }
+        for (int f = 0; f < N_FACES; f++) columns[f][size] = state[f];
+        size++;
+    }
+
+    public void set(int index, Cube cube) {
+        checkIndex(index);
+        int[] faces = cube.faces();
+        for (int f = 0; f < N_FACES; f++) columns[f][index] = faces[f];
+    }
+
+    public Cube get(int index) {
+        checkIndex(index);
+        return new Cube(columns[0][index], columns[1][index], columns[2][index],
+                        columns[3][index], columns[4][index], columns[5][index]);
+    }
+
+    /**
+     * Copy a state into an {@code int[6]} of {@link MoveEngine}.
+     */
+    public void get(int index, int[] state) {
+        checkIndex(index);
+        for (int f = 0; f < N_FACES; f++) state[f] = columns[f][index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " of " + size + " states");
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Turn every state.
+     * @param move index of the move, see {@link Move}.
+     */
+    public void apply(int move) {
+        if (move < 0 || move >= Move.COUNT) throw new IllegalArgumentException("Invalid move: " + move);
+        var programs = PROGRAMS[move];
+        for (var program: programs) apply(program, columns, spare[program.face()], size);
+        // The new faces were written to spare columns, which now take the place of the old ones.
+        for (var program: programs) {
+            int f = program.face();
+            int[] old = columns[f];
+            columns[f] = spare[f];
+            spare[f] = old;
+        }
+    }
+
+    /**
+     * Apply a sequence of moves to every state, in order.
+     */
+    public void apply(int[] moves) {
+        for (int move: moves) apply(move);
+    }
+
+    /**
+     * Compute one face of the states, one shift group at a time.
+     */
+    private static void apply(FaceProgram program, int[][] columns, int[] out, int size) {
+        int[] src = program.src(), mask = program.mask(), shift = program.shift();
+        int[] in = columns[src[0]];
+        int m = mask[0], s = shift[0];
+        for (int i = 0; i < size; i++) out[i] = Integer.rotateLeft(in[i] & m, s);
+        for (int k = 1; k < src.length; k++) {
+            int[] column = columns[src[k]];
+            int mk = mask[k], sk = shift[k];
+            for (int i = 0; i < size; i++) out[i] |= Integer.rotateLeft(column[i] & mk, sk);
+        }
+    }
+
+    /**
+     * The states equivalent to a cube, see {@link Cube#equivalent(Cube, Cube)}.
+     * @return the indices of the equivalent states.
+     */
+    public BitSet equivalent(Cube cube) {
+        return equivalent(cube, VECTORIZED);
+    }
+
+    /**
+     * {@link #equivalent(Cube)} one state at a time, for tests and benchmarks.
+     */
+    BitSet equivalentScalar(Cube cube) {
+        return equivalent(cube, false);
+    }
+
+    private BitSet equivalent(Cube cube, boolean vector) {
+        int[] target = cube.faces();
+        long[] words = new long[(size + 63) >>> 6];
+        int from = vector ? vectorEquivalent(target, words) : 0;
+        equivalent(columns, target, from, size, words);
+        return BitSet.valueOf(words);
+    }
+
+    private int vectorEquivalent(int[] target, long[] words) {
+        try {
+            return (int) VECTOR_EQUIVALENT.invokeExact(columns, target, size, words);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Set the bits of the equivalent states {@code from} to {@code to - 1}, compared on all
+     *  cells at once as in {@link Cube#faceEquivalent(int, int)}.
+     */
+    static void equivalent(int[][] columns, int[] target, int from, int to, long[] words) {
+        int[] targetWild = new int[N_FACES];
+        for (int f = 0; f < N_FACES; f++) targetWild[f] = wild(target[f]);
+        for (int i = from; i < to; i++) {
+            int mismatches = 0;
+            for (int f = 0; f < N_FACES; f++) {
+                int face = columns[f][i], x = face ^ target[f];
+                mismatches |= (x | x >>> 1 | x >>> 2) & ~(wild(face) | targetWild[f]);
+            }
+            if ((mismatches & CELL_LOW_BITS) == 0) words[i >>> 6] |= 1L << i;
+        }
+    }
+
+    /**
+     * Lowest bit of the wildcard cells of a face.
+     */
+    static int wild(int face) {
+        return face & face >>> 1 & face >>> 2;
+    }
+}
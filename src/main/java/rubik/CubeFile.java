@@ -0,0 +1,270 @@
+package rubik;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Binary files of cubes with random access.
+ *
+ * A cube is a record of {@link #RECORD_SIZE} bytes: the three words of {@link Cube#pack(int, int)},
+ *  top and left, front and right, back and bottom, each in 7 bytes, little endian.
+ * A file is a header of {@link #HEADER_SIZE} bytes, holding the number of records, followed
+ *  by the records.
+ *
+ * Files are memory-mapped in chunks of whole records, so record {@code i} is found in constant
+ *  time however large the file. {@link #open(Path)} maps read-only, {@link #create(Path, long)}
+ *  read-write for a known number of cubes; {@link Writer} appends when the number is not known.
+ * Reads and writes of distinct records may run from several threads.
+ */
+public final class CubeFile implements Closeable {
+    public static final int RECORD_SIZE = 21;
+    public static final int HEADER_SIZE = 32;
+
+    private static final int MAGIC = 0x52435542;    // "RCUB"
+    private static final int VERSION = 1;
+    private static final int WORD_SIZE = 7;
+
+    /*
+     * Records per mapped chunk, about 1 GB.
+     */
+    private static final int CHUNK_RECORDS = (1 << 30) / RECORD_SIZE;
+
+    private final FileChannel channel;
+    private final ByteBuffer[] chunks;
+    private final long count;
+
+    private CubeFile(FileChannel channel, long count, FileChannel.MapMode mode) throws IOException {
+        this.channel = channel;
+        this.count = count;
+        int nChunks = (int) ((count + CHUNK_RECORDS - 1) / CHUNK_RECORDS);
+        chunks = new ByteBuffer[nChunks];
+        for (int i = 0; i < nChunks; i++) {
+            long first = (long) i * CHUNK_RECORDS;
+            long records = Math.min(CHUNK_RECORDS, count - first);
+            chunks[i] = channel.map(mode, HEADER_SIZE + first * RECORD_SIZE, records * RECORD_SIZE)
+                               .order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Map an existing file read-only.
+     * @throws IOException if the file is not a cube file or its size does not match its header.
+     */
+    public static CubeFile open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long count = readHeader(channel, path);
+            return new CubeFile(channel, count, FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Create a file for {@code count} cubes and map it read-write, which extends it to its size.
+     * Records start zeroed, which is not a valid cube, until {@link #set(long, Cube)}.
+     */
+    public static CubeFile create(Path path, long count) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Invalid count: " + count);
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            writeHeader(channel, count);
+            return new CubeFile(channel, count, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static long readHeader(FileChannel channel, Path path) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {}
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC)
+            throw new IOException("Not a cube file: " + path);
+        int version = header.getInt(), recordSize = header.getInt();
+        header.getInt();
+        long count = header.getLong();
+        if (version != VERSION || recordSize != RECORD_SIZE)
+            throw new IOException("Unsupported cube file version " + version + ": " + path);
+        if (count < 0 || channel.size() != HEADER_SIZE + count * RECORD_SIZE)
+            throw new IOException("Cube file size does not match " + count + " cubes: " + path);
+        return count;
+    }
+
+    private static void writeHeader(FileChannel channel, long count) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0).putLong(count);
+        header.clear();
+        while (header.hasRemaining()) channel.write(header, header.position());
+    }
+
+    /**
+     * Store a cube as a record at {@code at}.
+     */
+    static void encode(Cube cube, ByteBuffer buffer, int at) {
+        putWord(buffer, at,                 Cube.pack(cube.top, cube.left));
+        putWord(buffer, at + WORD_SIZE,     Cube.pack(cube.front, cube.right));
+        putWord(buffer, at + 2 * WORD_SIZE, Cube.pack(cube.back, cube.bottom));
+    }
+
+    /**
+     * Store faces, in constructor order, as a record at {@code at}.
+     */
+    static void encode(int[] faces, ByteBuffer buffer, int at) {
+        putWord(buffer, at,                 Cube.pack(faces[Cube.TOP], faces[Cube.LEFT]));
+        putWord(buffer, at + WORD_SIZE,     Cube.pack(faces[Cube.FRONT], faces[Cube.RIGHT]));
+        putWord(buffer, at + 2 * WORD_SIZE, Cube.pack(faces[Cube.BACK], faces[Cube.BOTTOM]));
+    }
+
+    /**
+     * Read the faces of a record, in constructor order.
+     */
+    static void decode(ByteBuffer buffer, int at, int[] faces) {
+        long w0 = getWord(buffer, at)
+           , w1 = getWord(buffer, at + WORD_SIZE)
+           , w2 = getWord(buffer, at + 2 * WORD_SIZE);
+        faces[Cube.TOP]    = Cube.unpackHigh(w0);
+        faces[Cube.LEFT]   = Cube.unpackLow(w0);
+        faces[Cube.FRONT]  = Cube.unpackHigh(w1);
+        faces[Cube.RIGHT]  = Cube.unpackLow(w1);
+        faces[Cube.BACK]   = Cube.unpackHigh(w2);
+        faces[Cube.BOTTOM] = Cube.unpackLow(w2);
+    }
+
+    private static void putWord(ByteBuffer buffer, int at, long word) {
+        buffer.putInt(at, (int) word);
+        buffer.putShort(at + 4, (short) (word >>> 32));
+        buffer.put(at + 6, (byte) (word >>> 48));
+    }
+
+    private static long getWord(ByteBuffer buffer, int at) {
+        return (buffer.getInt(at) & 0xffff_ffffL)
+             | (buffer.getShort(at + 4) & 0xffffL) << 32
+             | (buffer.get(at + 6) & 0xffL) << 48;
+    }
+
+    private ByteBuffer chunk(long index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Invalid cube index: " + index);
+        return chunks[(int) (index / CHUNK_RECORDS)];
+    }
+
+    private static int offset(long index) {
+        return (int) (index % CHUNK_RECORDS) * RECORD_SIZE;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public Cube get(long index) {
+        int[] faces = new int[Cube.N_FACES];
+        read(index, faces);
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Read a cube into faces, in constructor order, without allocating.
+     */
+    public void read(long index, int[] faces) {
+        decode(chunk(index), offset(index), faces);
+    }
+
+    /**
+     * Read a cube into a mutable cube, without allocating.
+     */
+    public void read(long index, MutableCube cube) {
+        read(index, cube.faces);
+    }
+
+    /**
+     * @throws java.nio.ReadOnlyBufferException if the file was opened with {@link #open(Path)}.
+     */
+    public void set(long index, Cube cube) {
+        encode(cube, chunk(index), offset(index));
+    }
+
+    /**
+     * Store faces, in constructor order, without allocating.
+     */
+    void set(long index, int[] faces) {
+        encode(faces, chunk(index), offset(index));
+    }
+
+    /**
+     * All cubes in order; the stream can run in parallel.
+     */
+    public Stream<Cube> stream() {
+        return LongStream.range(0, count).mapToObj(this::get);
+    }
+
+    /**
+     * Flush written records to the file.
+     */
+    public void force() {
+        for (var chunk: chunks)
+            if (!chunk.isReadOnly())
+                ((MappedByteBuffer) chunk).force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Appends cubes to a new file through a buffer; the count in the header is written on close.
+     */
+    public static final class Writer implements Closeable {
+        private static final int BUFFER_RECORDS = 4096;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long count;
+
+        public Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                       StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+        }
+
+        public Writer add(Cube cube) throws IOException {
+            if (!buffer.hasRemaining()) flush();
+            encode(cube, buffer, buffer.position());
+            buffer.position(buffer.position() + RECORD_SIZE);
+            count++;
+            return this;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                writeHeader(channel, count);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package rubik;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static rubik.StickerProgram.N_STICKERS;
+
+/**
+ * Index of a collection of cubes, to find those equivalent to a pattern without comparing
+ *  every cube, see {@link Cube#equivalent(Cube, Cube)}.
+ *
+ * Cubes are numbered in the order they are added. For each sticker and each color 1 to 6,
+ *  a bitmap holds the cubes that have that color there, or a wildcard, which matches any
+ *  color. A query is the intersection of the bitmaps of the stickers the pattern does not
+ *  leave to a wildcard, rarest first, a block of words at a time, skipping the rest of a
+ *  block once it is empty.
+ * The bitmaps take 324 bits, about 41 bytes, per cube.
+ * Not thread-safe while cubes are added; queries may run from several threads.
+ */
+public final class CubeIndex {
+    private static final int COLORS = 6;
+
+    /*
+     * Words of a block of the intersection.
+     */
+    private static final int BLOCK = 256;
+
+    /*
+     * postings[sticker * COLORS + color - 1] is the bitmap of the cubes that match a color at
+     *  a sticker, and counts[...] the number of cubes in it.
+     */
+    private final long[][] postings = new long[N_STICKERS * COLORS][];
+    private final int[] counts = new int[N_STICKERS * COLORS];
+    private int size;
+
+    public CubeIndex() {
+        this(0);
+    }
+
+    /**
+     * An index that holds {@code expectedSize} cubes without growing.
+     */
+    public CubeIndex(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Invalid size: " + expectedSize);
+        int words = (expectedSize + 63) >>> 6;
+        for (int i = 0; i < postings.length; i++) postings[i] = new long[words];
+    }
+
+    /**
+     * Index the cubes of a file, numbered as in the file.
+     */
+    public static CubeIndex of(CubeFile file) {
+        if (file.count() > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many cubes: " + file.count());
+        var index = new CubeIndex((int) file.count());
+        int[] faces = new int[Cube.N_FACES];
+        for (long i = 0; i < file.count(); i++) {
+            file.read(i, faces);
+            index.add(faces);
+        }
+        return index;
+    }
+
+    /**
+     * Number of cubes.
+     */
+    public int size() {
+        return size;
+    }
+
+    public long memoryBytes() {
+        return (long) postings.length * postings[0].length * Long.BYTES;
+    }
+
+    /**
+     * Add a cube, numbered {@link #size()}.
+     * @throws Cube.InvalidCubeException if a sticker is not a color 1 to 6 or a wildcard.
+     */
+    public void add(Cube cube) {
+        add(cube.faces());
+    }
+
+    /**
+     * Add a state of {@link MoveEngine}.
+     */
+    public void add(int[] state) {
+        for (int sticker = 0; sticker < N_STICKERS; sticker++) {
+            int color = StickerProgram.color(state, sticker);
+            if (color < 1) throw new Cube.InvalidCubeException("Invalid color at sticker " + sticker + ": " + color);
+        }
+        if (size == postings[0].length << 6) {
+            int words = Math.max(16, 2 * postings[0].length);
+            for (int i = 0; i < postings.length; i++) postings[i] = Arrays.copyOf(postings[i], words);
+        }
+        int word = size >>> 6;
+        long bit = 1L << size;
+        for (int sticker = 0; sticker < N_STICKERS; sticker++) {
+            int color = StickerProgram.color(state, sticker);
+            if (color == 7) {
+                for (int c = 1; c <= COLORS; c++) set(sticker * COLORS + c - 1, word, bit);
+            } else {
+                set(sticker * COLORS + color - 1, word, bit);
+            }
+        }
+        size++;
+    }
+
+    private void set(int posting, int word, long bit) {
+        postings[posting][word] |= bit;
+        counts[posting]++;
+    }
+
+    /**
+     * The cubes equivalent to a pattern.
+     * @return the numbers of the cubes.
+     */
+    public BitSet query(Cube pattern) {
+        long[] words = new long[(size + 63) >>> 6];
+        intersect(pattern, words);
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Number of cubes equivalent to a pattern.
+     */
+    public int count(Cube pattern) {
+        long[] words = new long[(size + 63) >>> 6];
+        intersect(pattern, words);
+        int count = 0;
+        for (long word: words) count += Long.bitCount(word);
+        return count;
+    }
+
+    private void intersect(Cube pattern, long[] words) {
+        long[][] required = required(pattern);
+        if (required.length == 0) {
+            // Only wildcards: every cube matches.
+            Arrays.fill(words, -1L);
+            if ((size & 63) != 0) words[words.length - 1] = -1L >>> -size;
+            return;
+        }
+        for (int from = 0; from < words.length; from += BLOCK) {
+            int to = Math.min(words.length, from + BLOCK);
+            System.arraycopy(required[0], from, words, from, to - from);
+            for (int k = 1; k < required.length && !isEmpty(words, from, to); k++) {
+                long[] posting = required[k];
+                for (int i = from; i < to; i++) words[i] &= posting[i];
+            }
+        }
+    }
+
+    /**
+     * Bitmaps of the stickers of a pattern that are not wildcards, the smallest first.
+     */
+    private long[][] required(Cube pattern) {
+        int[] faces = pattern.faces();
+        long[] keys = new long[N_STICKERS];
+        int n = 0;
+        for (int sticker = 0; sticker < N_STICKERS; sticker++) {
+            int color = StickerProgram.color(faces, sticker);
+            if (color == 7) continue;
+            if (color < 1) throw new Cube.InvalidCubeException("Invalid color at sticker " + sticker + ": " + color);
+            int posting = sticker * COLORS + color - 1;
+            keys[n++] = (long) counts[posting] << 32 | posting;
+        }
+        Arrays.sort(keys, 0, n);
+        long[][] required = new long[n][];
+        for (int k = 0; k < n; k++) required[k] = postings[(int) keys[k]];
+        return required;
+    }
+
+    private static boolean isEmpty(long[] words, int from, int to) {
+        long any = 0;
+        for (int i = from; i < to; i++) any |= words[i];
+        return any == 0;
+    }
+}
@@ -0,0 +1,322 @@
+package rubik;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * Reads any number of cubes, one after the other, in the format of {@link Cube#fromResource(String)}:
+ *  the net of the cube, top face first, then the rows of the left, front, right and back
+ *  faces side by side, then the bottom face.
+ *
+ * The input is scanned byte by byte: runs of ASCII digits are cells, {@code #} starts a
+ *  comment up to the end of the line, and anything else separates cells, so the frame can be
+ *  drawn with ASCII or with UTF-8 box-drawing characters.
+ * Each cell goes straight into its packed face; nothing is boxed or copied into strings.
+ *
+ * Files are memory-mapped, in chunks of up to 1 GB; streams are read through a buffer.
+ * Not thread-safe.
+ */
+public final class CubeParser implements Iterator<Cube>, Closeable {
+    /**
+     * Cells of a cube in the input.
+     */
+    public static final int N_CELLS = 9 * N_FACES;
+
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final long MAP_SIZE = 1L << 30;
+
+    /*
+     * Face and bit offset of each cell, in input order.
+     */
+    private static final int[] CELL_FACE = new int[N_CELLS], CELL_OFFSET = new int[N_CELLS];
+
+    static {
+        int[] middle = { LEFT, FRONT, RIGHT, BACK };
+        for (int cell = 0; cell < N_CELLS; cell++) {
+            int face, pos;
+            if (cell < 9) {
+                face = TOP;
+                pos = cell;
+            } else if (cell < 45) {
+                int j = cell - 9, row = j / 12, col = j % 12;
+                face = middle[col / 3];
+                pos = 3 * row + col % 3;
+            } else {
+                face = BOTTOM;
+                pos = cell - 45;
+            }
+            CELL_FACE[cell] = face;
+            CELL_OFFSET[cell] = 3 * (8 - pos);
+        }
+    }
+
+    /**
+     * Where the bytes come from once the current buffer is used up.
+     */
+    private interface Source extends Closeable {
+        /**
+         * @return the next bytes, or null at the end of the input.
+         */
+        ByteBuffer next() throws IOException;
+    }
+
+    private final Source source;
+    private ByteBuffer buffer;
+    private Events.Parse event;
+
+    /*
+     * Scanner state, kept across buffers: the cell being read, -1 between cells.
+     */
+    private int value = -1;
+    private boolean inComment;
+
+    private final int[] faces = new int[N_FACES];
+    private boolean ready, ended;
+    private long cubes, cells;
+
+    /**
+     * @param name of the input, for the {@link Events.Parse} event committed on close.
+     */
+    private CubeParser(ByteBuffer buffer, Source source, String name) {
+        this.buffer = buffer;
+        this.source = source;
+        event = new Events.Parse();
+        event.begin();
+        event.source = name;
+    }
+
+    public static CubeParser of(ByteBuffer buffer) {
+        return new CubeParser(buffer.duplicate(), null, "buffer");
+    }
+
+    /**
+     * The stream is closed with the parser.
+     */
+    public static CubeParser of(InputStream in) {
+        return of(in, "stream");
+    }
+
+    static CubeParser of(InputStream in, String name) {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        return new CubeParser(ByteBuffer.allocate(0), new Source() {
+            @Override
+            public ByteBuffer next() throws IOException {
+                int n = in.read(bytes);
+                return n < 0 ? null : ByteBuffer.wrap(bytes, 0, n);
+            }
+
+            @Override
+            public void close() throws IOException {
+                in.close();
+            }
+        }, name);
+    }
+
+    public static CubeParser of(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new CubeParser(ByteBuffer.allocate(0), new Source() {
+            long position;
+
+            @Override
+            public ByteBuffer next() throws IOException {
+                long size = channel.size();
+                if (position >= size) return null;
+                long length = Math.min(MAP_SIZE, size - position);
+                var mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                position += length;
+                return mapped;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        }, path.toString());
+    }
+
+    /**
+     * Cubes of a file, read lazily; close the stream to close the file.
+     */
+    public static Stream<Cube> stream(Path path) throws IOException {
+        return of(path).stream();
+    }
+
+    public static Stream<Cube> stream(InputStream in) {
+        return of(in).stream();
+    }
+
+    public static Stream<Cube> stream(ByteBuffer buffer) {
+        return of(buffer).stream();
+    }
+
+    /**
+     * The remaining cubes; closing the stream closes the parser.
+     */
+    public Stream<Cube> stream() {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+            .onClose(() -> {
+                try {
+                    close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+    }
+
+    /**
+     * Read the cells of the next cube into packed faces, in constructor order.
+     * Cells are not validated.
+     * @return the number of cells read: {@link #N_CELLS}, or less at the end of the input.
+     * @throws Cube.InvalidCubeException if a cell does not fit in a face.
+     */
+    public int read(int[] faces) throws IOException {
+        for (int f = 0; f < N_FACES; f++) faces[f] = 0;
+        int cell = 0, value;
+        while (cell < N_CELLS && (value = nextCell()) >= 0) {
+            faces[CELL_FACE[cell]] |= value << CELL_OFFSET[cell];
+            cell++;
+        }
+        return cell;
+    }
+
+    /**
+     * Read up to {@code cells.length} cells, in input order, for nets of any size.
+     * @return the number of cells read, less than asked at the end of the input.
+     * @throws Cube.InvalidCubeException if a cell is not a color.
+     */
+    int readCells(byte[] cells) throws IOException {
+        int cell = 0, value;
+        while (cell < cells.length && (value = nextCell()) >= 0)
+            cells[cell++] = (byte) value;
+        return cell;
+    }
+
+    /**
+     * @return the value of the next cell, or -1 at the end of the input.
+     */
+    private int nextCell() throws IOException {
+        while (true) {
+            if (!buffer.hasRemaining() && !refill()) {
+                return value >= 0 ? endCell() : -1;
+            }
+            int b = buffer.get();
+            if (inComment) {
+                if (b == '\n') inComment = false;
+            } else if (b >= '0' && b <= '9') {
+                value = value < 0 ? b - '0' : Math.min(10 * value + b - '0', 1000);
+            } else {
+                if (b == '#') inComment = true;
+                if (value >= 0) return endCell();
+            }
+        }
+    }
+
+    private int endCell() {
+        int cell = value;
+        if (cell > 7) throw new Cube.InvalidCubeException("Invalid color: " + cell);
+        value = -1;
+        cells++;
+        return cell;
+    }
+
+    private boolean refill() throws IOException {
+        if (source == null) return false;
+        var next = source.next();
+        while (next != null && !next.hasRemaining())
+            next = source.next();
+        if (next == null) return false;
+        buffer = next;
+        return true;
+    }
+
+    /**
+     * Number of cells left in the input, reading it to the end.
+     */
+    long skipRemaining() throws IOException {
+        long cells = 0;
+        int n;
+        while ((n = read(faces)) > 0)
+            cells += n;
+        ready = false;
+        ended = true;
+        return cells;
+    }
+
+    /**
+     * @throws UncheckedIOException if reading fails.
+     * @throws IllegalArgumentException if the input ends in the middle of a cube.
+     */
+    @Override
+    public boolean hasNext() {
+        if (ready) return true;
+        if (ended) return false;
+        int n;
+        try {
+            n = read(faces);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (n == 0) {
+            ended = true;
+            return false;
+        }
+        if (n != N_CELLS)
+            throw new IllegalArgumentException("Invalid input data, not enough cells in cube " + (cubes + 1) +
+                    ". Expected " + N_CELLS + ", got " + n);
+        ready = true;
+        return true;
+    }
+
+    /**
+     * The next cube, validated.
+     * @throws Cube.InvalidCubeException if the cube has invalid colors.
+     */
+    @Override
+    public Cube next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        cubes++;
+        var cube = Cube.fromFaces(faces);
+        cube.validate();
+        return cube;
+    }
+
+    /**
+     * Number of cubes returned so far.
+     */
+    public long count() {
+        return cubes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (event != null && event.shouldCommit()) {
+            event.cubes = cubes;
+            event.cells = cells;
+            event.commit();
+        }
+        event = null;
+        if (source != null) source.close();
+    }
+}
@@ -0,0 +1,220 @@
+package rubik;
+
+import java.util.Arrays;
+
+/**
+ * A permutation of the 54 stickers: any sequence of moves reduced to where each sticker goes.
+ *
+ * Stickers are numbered as in {@link StickerProgram}; {@code perm[s]} is the sticker that
+ *  moves to {@code s}. Permutations are built from the moves of {@link Cube} and combined with
+ *  {@link #then(CubePermutation)}, {@link #inverse()} and {@link #power(long)}, so an algorithm
+ *  of any length becomes a single permutation.
+ * Applying one runs its compiled {@link StickerProgram}, a few masks and shifts per face, so it
+ *  costs about the same whatever the length of the algorithm it came from.
+ *
+ * Instances are immutable; the program, and the change of the hash, are computed on first use.
+ */
+public final class CubePermutation {
+    private static final int N = StickerProgram.N_STICKERS;
+
+    private static final CubePermutation IDENTITY;
+    private static final CubePermutation[] MOVES = new CubePermutation[Move.COUNT];
+
+    static {
+        int[] identity = new int[N];
+        for (int s = 0; s < N; s++) identity[s] = s;
+        IDENTITY = new CubePermutation(identity);
+        for (int m = 0; m < Move.COUNT; m++)
+            MOVES[m] = new CubePermutation(MoveEngine.permutation(m));
+    }
+
+    private final int[] perm;
+    private StickerProgram program;
+    private Zobrist.Delta delta;
+
+    private CubePermutation(int[] perm) {
+        this.perm = perm;
+    }
+
+    /**
+     * @param perm {@code perm[s]} is the sticker that moves to {@code s}.
+     * @throws IllegalArgumentException if it is not a permutation of the 54 stickers.
+     */
+    public static CubePermutation of(int[] perm) {
+        StickerProgram.checkPermutation(perm);
+        return new CubePermutation(perm.clone());
+    }
+
+    public static CubePermutation identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * @param move index of the move, see {@link Move}.
+     */
+    public static CubePermutation move(int move) {
+        return MOVES[move];
+    }
+
+    /**
+     * The moves, in order, as one permutation.
+     */
+    public static CubePermutation ofMoves(int... moves) {
+        var perm = IDENTITY;
+        for (int move: moves)
+            perm = perm.then(MOVES[move]);
+        return perm;
+    }
+
+    public static CubePermutation of(Algorithm algorithm) {
+        return ofMoves(algorithm.moves());
+    }
+
+    /**
+     * This permutation followed by {@code next}.
+     */
+    public CubePermutation then(CubePermutation next) {
+        int[] result = new int[N];
+        for (int s = 0; s < N; s++)
+            result[s] = perm[next.perm[s]];
+        return new CubePermutation(result);
+    }
+
+    public CubePermutation inverse() {
+        int[] result = new int[N];
+        for (int s = 0; s < N; s++)
+            result[perm[s]] = s;
+        return new CubePermutation(result);
+    }
+
+    /**
+     * This permutation applied {@code n} times, by repeated squaring; negative powers are
+     *  powers of the inverse.
+     */
+    public CubePermutation power(long n) {
+        var base = n < 0 ? inverse() : this;
+        n = Math.abs(n);
+        var result = IDENTITY;
+        while (n > 0) {
+            if ((n & 1) != 0) result = result.then(base);
+            base = base.then(base);
+            n >>>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Lengths of the cycles, longest first; fixed stickers are cycles of length one.
+     */
+    public int[] cycleLengths() {
+        var seen = new boolean[N];
+        int[] lengths = new int[N];
+        int n = 0;
+        for (int s = 0; s < N; s++) {
+            if (seen[s]) continue;
+            int length = 0;
+            for (int t = s; !seen[t]; t = perm[t]) {
+                seen[t] = true;
+                length++;
+            }
+            lengths[n++] = length;
+        }
+        int[] result = Arrays.copyOf(lengths, n);
+        Arrays.sort(result);
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = result[i];
+            result[i] = result[j];
+            result[j] = t;
+        }
+        return result;
+    }
+
+    /**
+     * Smallest positive number of repetitions giving the identity: the least common multiple
+     *  of the cycle lengths.
+     */
+    public long order() {
+        long order = 1;
+        for (int length: cycleLengths())
+            order = order / gcd(order, length) * length;
+        return order;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    public boolean isIdentity() {
+        return Arrays.equals(perm, IDENTITY.perm);
+    }
+
+    /**
+     * {@code perm[s]} is the sticker that moves to {@code s}.
+     */
+    public int[] toArray() {
+        return perm.clone();
+    }
+
+    StickerProgram program() {
+        var p = program;
+        if (p == null) program = p = StickerProgram.compile(perm);
+        return p;
+    }
+
+    /**
+     * Change of the hash, to update {@link HashedMutableCube#hash()}.
+     */
+    Zobrist.Delta delta() {
+        var d = delta;
+        if (d == null) delta = d = Zobrist.Delta.of(perm);
+        return d;
+    }
+
+    public Cube apply(Cube cube) {
+        return program().apply(cube);
+    }
+
+    /**
+     * Permute the stickers in place.
+     */
+    public MutableCube apply(MutableCube cube) {
+        program().apply(cube.faces);
+        return cube;
+    }
+
+    /**
+     * Permute the stickers in place, updating the hash.
+     */
+    public HashedMutableCube apply(HashedMutableCube cube) {
+        return cube.apply(program(), delta());
+    }
+
+    /**
+     * Permute the stickers of a {@link MoveEngine} state in place.
+     */
+    public void apply(int[] state) {
+        program().apply(state);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return Arrays.equals(perm, ((CubePermutation) o).perm);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(perm);
+    }
+
+    @Override
+    public String toString() {
+        return "CubePermutation" + Arrays.toString(perm);
+    }
+}
@@ -0,0 +1,114 @@
+package rubik;
+
+import java.util.Arrays;
+
+/**
+ * Map from cube states to {@code int}s, such as search depths.
+ * Same layout as {@link CubeStateSet} plus an {@code int[]} of values, 28 bytes per slot.
+ * Not thread-safe.
+ */
+public class CubeStateMap extends CubeStateTable {
+    private int[] values;
+    private int[] resizedValues;
+
+    public CubeStateMap() {
+        this(0);
+    }
+
+    /**
+     * A map that holds {@code expectedSize} states without growing.
+     */
+    public CubeStateMap(int expectedSize) {
+        super(expectedSize);
+        values = new int[capacity()];
+    }
+
+    /**
+     * Bytes needed by a map that holds {@code expectedSize} states without growing.
+     */
+    public static long memoryBytesFor(int expectedSize) {
+        return (3L * Long.BYTES + Integer.BYTES) * capacityFor(expectedSize);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    /**
+     * @return the previous value, or {@code missing} if the state was not in the map.
+     */
+    public int put(Cube cube, int value, int missing) {
+        return put(w0(cube), w1(cube), w2(cube), value, missing);
+    }
+
+    public int put(int[] state, int value, int missing) {
+        return put(w0(state), w1(state), w2(state), value, missing);
+    }
+
+    public int put(MutableCube cube, int value, int missing) {
+        return put(cube.faces, value, missing);
+    }
+
+    private int put(long w0, long w1, long w2, int value, int missing) {
+        int slot = find(w0, w1, w2);
+        if (slot >= 0) {
+            int old = values[slot];
+            values[slot] = value;
+            return old;
+        }
+        slot = insert(slot, w0, w1, w2);
+        values[slot] = value;
+        return missing;
+    }
+
+    /**
+     * @return the value, or {@code missing} if the state is not in the map.
+     */
+    public int get(Cube cube, int missing) {
+        return get(w0(cube), w1(cube), w2(cube), missing);
+    }
+
+    public int get(int[] state, int missing) {
+        return get(w0(state), w1(state), w2(state), missing);
+    }
+
+    public int get(MutableCube cube, int missing) {
+        return get(cube.faces, missing);
+    }
+
+    private int get(long w0, long w1, long w2, int missing) {
+        int slot = find(w0, w1, w2);
+        return slot >= 0 ? values[slot] : missing;
+    }
+
+    public boolean containsKey(Cube cube) {
+        return find(w0(cube), w1(cube), w2(cube)) >= 0;
+    }
+
+    public boolean containsKey(int[] state) {
+        return find(w0(state), w1(state), w2(state)) >= 0;
+    }
+
+    @Override
+    void beforeResize(int newCapacity) {
+        resizedValues = new int[newCapacity];
+    }
+
+    @Override
+    void moveValue(int oldSlot, int newSlot) {
+        resizedValues[newSlot] = values[oldSlot];
+    }
+
+    @Override
+    void afterResize() {
+        values = resizedValues;
+        resizedValues = null;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(values, 0);
+    }
+}
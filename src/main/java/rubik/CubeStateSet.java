@@ -0,0 +1,78 @@
+package rubik;
+
+import java.util.function.Consumer;
+
+/**
+ * Set of cube states for duplicate detection in searches.
+ * States are kept inline in a {@code long[]}, 24 bytes per slot, without boxing; see
+ *  {@link CubeStateTable} for the layout.
+ * Accepts {@link Cube}s, {@link MutableCube}s and {@link MoveEngine} states.
+ * Not thread-safe.
+ */
+public class CubeStateSet extends CubeStateTable {
+    public CubeStateSet() {
+        this(0);
+    }
+
+    /**
+     * A set that holds {@code expectedSize} states without growing.
+     */
+    public CubeStateSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Bytes needed by a set that holds {@code expectedSize} states without growing.
+     */
+    public static long memoryBytesFor(int expectedSize) {
+        return 3L * Long.BYTES * capacityFor(expectedSize);
+    }
+
+    @Override
+    public long memoryBytes() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    /**
+     * @return true if the state was not in the set.
+     */
+    public boolean add(Cube cube) {
+        return add(w0(cube), w1(cube), w2(cube));
+    }
+
+    public boolean add(int[] state) {
+        return add(w0(state), w1(state), w2(state));
+    }
+
+    public boolean add(MutableCube cube) {
+        return add(cube.faces);
+    }
+
+    private boolean add(long w0, long w1, long w2) {
+        int slot = find(w0, w1, w2);
+        if (slot >= 0) return false;
+        insert(slot, w0, w1, w2);
+        return true;
+    }
+
+    public boolean contains(Cube cube) {
+        return find(w0(cube), w1(cube), w2(cube)) >= 0;
+    }
+
+    public boolean contains(int[] state) {
+        return find(w0(state), w1(state), w2(state)) >= 0;
+    }
+
+    public boolean contains(MutableCube cube) {
+        return contains(cube.faces);
+    }
+
+    /**
+     * Call {@code action} for each state, in no particular order.
+     */
+    public void forEach(Consumer<Cube> action) {
+        for (int slot = 0; slot < capacity(); slot++)
+            if (keys[3 * slot] != 0)
+                action.accept(cubeAt(slot));
+    }
+}
@@ -0,0 +1,148 @@
+package rubik;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * Open addressing over cube states, the common part of {@link CubeStateSet} and {@link CubeStateMap}.
+ *
+ * A state is stored inline as the three words of {@link Cube#pack(int, int)}, so a slot is
+ *  three longs and there are no objects per entry.
+ * Capacity is a power of two, probing is linear, and the table doubles when it is more than
+ *  three quarters full.
+ * A slot is empty when its first word is zero; no valid cube has top and left faces made of
+ *  zeros, since colors start at 1.
+ */
+abstract class CubeStateTable {
+    static final int MAX_CAPACITY = 1 << 29;
+    private static final int MIN_CAPACITY = 16;
+
+    long[] keys;
+    int mask;
+    int size;
+    private int resizeAt;
+
+    CubeStateTable(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Invalid expected size: " + expectedSize);
+        init(capacityFor(expectedSize));
+    }
+
+    /**
+     * Smallest power of two that holds {@code expectedSize} states under the load factor.
+     */
+    static int capacityFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (expectedSize * 4L + 2) / 3);
+        if (needed > MAX_CAPACITY) throw new IllegalArgumentException("Too many states: " + expectedSize);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    void init(int capacity) {
+        keys = new long[3 * capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 4 * 3;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Bytes used by the arrays of the table.
+     */
+    public abstract long memoryBytes();
+
+    /**
+     * Slot of the state if present, otherwise {@code -slot - 1} of the empty slot where it would go.
+     */
+    final int find(long w0, long w1, long w2) {
+        int slot = (int) Cube.hash64(w0, w1, w2) & mask;
+        final long[] keys = this.keys;
+        while (true) {
+            int i = 3 * slot;
+            long k0 = keys[i];
+            if (k0 == 0) return -slot - 1;
+            if (k0 == w0 && keys[i + 1] == w1 && keys[i + 2] == w2) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Store a key that {@link #find} did not find; {@code notFound} is what find returned.
+     * @return the slot of the key, which is not the one find reported if the table grew.
+     */
+    final int insert(int notFound, long w0, long w1, long w2) {
+        if (w0 == 0) throw new IllegalArgumentException("Invalid state: top and left faces are empty");
+        if (size >= resizeAt) {
+            grow();
+            notFound = find(w0, w1, w2);
+        }
+        int emptySlot = -notFound - 1;
+        int i = 3 * emptySlot;
+        keys[i]     = w0;
+        keys[i + 1] = w1;
+        keys[i + 2] = w2;
+        size++;
+        return emptySlot;
+    }
+
+    private void grow() {
+        if (capacity() == MAX_CAPACITY) throw new IllegalStateException("Table is full: " + size);
+        long[] oldKeys = keys;
+        int oldCapacity = capacity();
+        beforeResize(2 * oldCapacity);
+        init(2 * oldCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int i = 3 * slot;
+            if (oldKeys[i] == 0) continue;
+            int newSlot = -find(oldKeys[i], oldKeys[i + 1], oldKeys[i + 2]) - 1;
+            keys[3 * newSlot]     = oldKeys[i];
+            keys[3 * newSlot + 1] = oldKeys[i + 1];
+            keys[3 * newSlot + 2] = oldKeys[i + 2];
+            size++;
+            moveValue(slot, newSlot);
+        }
+        afterResize();
+    }
+
+    /**
+     * Hooks for tables holding values next to the keys.
+     */
+    void beforeResize(int newCapacity) {}
+    void moveValue(int oldSlot, int newSlot) {}
+    void afterResize() {}
+
+    public void clear() {
+        init(capacity());
+    }
+
+    static long w0(Cube cube)   { return Cube.pack(cube.top,   cube.left);  }
+    static long w1(Cube cube)   { return Cube.pack(cube.front, cube.right); }
+    static long w2(Cube cube)   { return Cube.pack(cube.back,  cube.bottom); }
+    static long w0(int[] faces) { return Cube.pack(faces[TOP],   faces[LEFT]);  }
+    static long w1(int[] faces) { return Cube.pack(faces[FRONT], faces[RIGHT]); }
+    static long w2(int[] faces) { return Cube.pack(faces[BACK],  faces[BOTTOM]); }
+
+    /**
+     * The state stored in a slot.
+     */
+    final Cube cubeAt(int slot) {
+        int i = 3 * slot;
+        return new Cube(
+            Cube.unpackHigh(keys[i]),     Cube.unpackLow(keys[i]),
+            Cube.unpackHigh(keys[i + 1]), Cube.unpackLow(keys[i + 1]),
+            Cube.unpackHigh(keys[i + 2]), Cube.unpackLow(keys[i + 2]));
+    }
+}
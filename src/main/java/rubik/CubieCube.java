@@ -0,0 +1,602 @@
+package rubik;
+
+import java.util.Arrays;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * The cube as pieces rather than stickers: which corner and edge cubie sits in each place,
+ *  and how it is twisted or flipped.
+ *
+ * Corners and edges are numbered as in Kociemba's two-phase solver, faces named U, L, F, R, B, D
+ *  for {@link Cube#TOP}, {@link Cube#LEFT}, {@link Cube#FRONT}, {@link Cube#RIGHT}, {@link Cube#BACK},
+ *  {@link Cube#BOTTOM}.
+ * {@code cp[i]} is the corner in place {@code i}, {@code co[i]} its twist, 0 to 2: the number of
+ *  clockwise turns taking its U or D sticker to the U or D face.
+ * Edges are the same with {@code ep} and {@code eo}, flips 0 or 1.
+ *
+ * Moves are derived from the turns of {@link Cube}: each move is the cubie cube of the turned
+ *  solved cube, and applying it is a lookup per piece.
+ * The colors of the faces are kept for the way back to stickers, see {@link #toCube()}.
+ */
+public final class CubieCube {
+    public static final int N_CORNERS = 8, N_EDGES = 12;
+
+    static final int URF = 0, UFL = 1, ULB = 2, UBR = 3, DFR = 4, DLF = 5, DBL = 6, DRB = 7;
+    static final int UR = 0, UF = 1, UL = 2, UB = 3, DR = 4, DF = 5, DL = 6, DB = 7,
+                     FR = 8, FL = 9, BL = 10, BR = 11;
+
+    private static final int U = TOP, L = LEFT, F = FRONT, R = RIGHT, B = BACK, D = BOTTOM;
+
+    /*
+     * Names for messages: faces by index, pieces by number.
+     */
+    private static final String FACE_NAMES = "ULFRBD";
+    static final String[] CORNER_NAMES = { "URF", "UFL", "ULB", "UBR", "DFR", "DLF", "DBL", "DRB" };
+    static final String[] EDGE_NAMES = { "UR", "UF", "UL", "UB", "DR", "DF", "DL", "DB", "FR", "FL", "BL", "BR" };
+
+    /**
+     * Stickers of each corner place, U or D sticker first, then clockwise.
+     * Sticker numbers as in {@link StickerProgram}.
+     */
+    static final int[][] CORNER_STICKERS = {
+        { sticker(U, 3, 3), sticker(R, 1, 1), sticker(F, 1, 3) },    // URF
+        { sticker(U, 3, 1), sticker(F, 1, 1), sticker(L, 1, 3) },    // UFL
+        { sticker(U, 1, 1), sticker(L, 1, 1), sticker(B, 1, 3) },    // ULB
+        { sticker(U, 1, 3), sticker(B, 1, 1), sticker(R, 1, 3) },    // UBR
+        { sticker(D, 1, 3), sticker(F, 3, 3), sticker(R, 3, 1) },    // DFR
+        { sticker(D, 1, 1), sticker(L, 3, 3), sticker(F, 3, 1) },    // DLF
+        { sticker(D, 3, 1), sticker(B, 3, 3), sticker(L, 3, 1) },    // DBL
+        { sticker(D, 3, 3), sticker(R, 3, 3), sticker(B, 3, 1) },    // DRB
+    };
+
+    static final int[][] CORNER_FACES = {
+        { U, R, F }, { U, F, L }, { U, L, B }, { U, B, R },
+        { D, F, R }, { D, L, F }, { D, B, L }, { D, R, B },
+    };
+
+    /**
+     * Stickers of each edge place; the U or D sticker first, F or B for the middle layer edges.
+     */
+    static final int[][] EDGE_STICKERS = {
+        { sticker(U, 2, 3), sticker(R, 1, 2) },    // UR
+        { sticker(U, 3, 2), sticker(F, 1, 2) },    // UF
+        { sticker(U, 2, 1), sticker(L, 1, 2) },    // UL
+        { sticker(U, 1, 2), sticker(B, 1, 2) },    // UB
+        { sticker(D, 2, 3), sticker(R, 3, 2) },    // DR
+        { sticker(D, 1, 2), sticker(F, 3, 2) },    // DF
+        { sticker(D, 2, 1), sticker(L, 3, 2) },    // DL
+        { sticker(D, 3, 2), sticker(B, 3, 2) },    // DB
+        { sticker(F, 2, 3), sticker(R, 2, 1) },    // FR
+        { sticker(F, 2, 1), sticker(L, 2, 3) },    // FL
+        { sticker(B, 2, 3), sticker(L, 2, 1) },    // BL
+        { sticker(B, 2, 1), sticker(R, 2, 3) },    // BR
+    };
+
+    static final int[][] EDGE_FACES = {
+        { U, R }, { U, F }, { U, L }, { U, B },
+        { D, R }, { D, F }, { D, L }, { D, B },
+        { F, R }, { F, L }, { B, L }, { B, R },
+    };
+
+    /**
+     * Colors of the faces of a solved cube, in the order of {@link Cube#TOP}, ..., {@link Cube#BOTTOM}.
+     */
+    static final int[] DEFAULT_COLORS = { 1, 2, 3, 4, 5, 6 };
+
+    /*
+     * (a + b) % 3 for twists a, b in 0..2.
+     */
+    private static final byte[] ADD_TWIST = { 0, 1, 2, 0, 1 };
+
+    /*
+     * Piece and orientation by the faces of the stickers of a place, for read(int[]):
+     *  3 * corner + twist at f0 * 36 + f1 * 6 + f2, 2 * edge + flip at f0 * 6 + f1, -1 if no such piece.
+     */
+    private static final byte[] CORNER_AT = new byte[N_FACES * N_FACES * N_FACES];
+    private static final byte[] EDGE_AT = new byte[N_FACES * N_FACES];
+
+    private static final CubieCube[] MOVES = new CubieCube[Move.COUNT];
+
+    static {
+        Arrays.fill(CORNER_AT, (byte) -1);
+        Arrays.fill(EDGE_AT, (byte) -1);
+        for (int j = 0; j < N_CORNERS; j++) {
+            for (int ori = 0; ori < 3; ori++) {
+                int[] f = new int[3];
+                for (int k = 0; k < 3; k++)
+                    f[(k + ori) % 3] = CORNER_FACES[j][k];
+                CORNER_AT[f[0] * 36 + f[1] * 6 + f[2]] = (byte) (3 * j + ori);
+            }
+        }
+        for (int j = 0; j < N_EDGES; j++) {
+            EDGE_AT[EDGE_FACES[j][0] * 6 + EDGE_FACES[j][1]] = (byte) (2 * j);
+            EDGE_AT[EDGE_FACES[j][1] * 6 + EDGE_FACES[j][0]] = (byte) (2 * j + 1);
+        }
+
+        var solved = solvedCube(DEFAULT_COLORS);
+        for (var move: Move.values())
+            MOVES[move.index()] = fromCube(move.apply(solved));
+    }
+
+    final byte[] cp = new byte[N_CORNERS], co = new byte[N_CORNERS];
+    final byte[] ep = new byte[N_EDGES],   eo = new byte[N_EDGES];
+    final int[] colors;
+
+    private final byte[] tmpP = new byte[N_EDGES], tmpO = new byte[N_EDGES];
+    private final int[] tmpFaceOfColor = new int[8];
+
+    /**
+     * Solved cube with the default colors.
+     */
+    public CubieCube() {
+        this(DEFAULT_COLORS);
+    }
+
+    CubieCube(int[] colors) {
+        this.colors = colors.clone();
+        for (int i = 0; i < N_CORNERS; i++) cp[i] = (byte) i;
+        for (int i = 0; i < N_EDGES; i++)   ep[i] = (byte) i;
+    }
+
+    public CubieCube(CubieCube other) {
+        this(other.colors);
+        set(other);
+    }
+
+    public CubieCube set(CubieCube other) {
+        System.arraycopy(other.cp, 0, cp, 0, N_CORNERS);
+        System.arraycopy(other.co, 0, co, 0, N_CORNERS);
+        System.arraycopy(other.ep, 0, ep, 0, N_EDGES);
+        System.arraycopy(other.eo, 0, eo, 0, N_EDGES);
+        System.arraycopy(other.colors, 0, colors, 0, N_FACES);
+        return this;
+    }
+
+    static int sticker(int face, int row, int col) {
+        return 9 * face + 3 * (row - 1) + (col - 1);
+    }
+
+    /**
+     * Sticker cube with every face of one color.
+     */
+    static Cube solvedCube(int[] colors) {
+        int[] faces = new int[N_FACES];
+        for (int face = 0; face < N_FACES; face++) {
+            int c = colors[face];
+            faces[face] = Cube.makeFace(c, c, c, c, c, c, c, c, c);
+        }
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Pieces of a sticker cube.
+     * Face colors are read from the centers.
+     * @throws Cube.InvalidCubeException if centers repeat colors or a piece does not exist.
+     */
+    public static CubieCube fromCube(Cube cube) {
+        int[] faces = cube.faces();
+        int[] colors = new int[N_FACES];
+        int[] faceOfColor = new int[8];
+        Arrays.fill(faceOfColor, -1);
+        for (int face = 0; face < N_FACES; face++) {
+            int color = StickerProgram.color(faces, 9 * face + 4);
+            if (color < 1 || color > 6)
+                throw new Cube.InvalidCubeException("Invalid center color on face " + face + ": " + color);
+            if (faceOfColor[color] != -1)
+                throw new Cube.InvalidCubeException("Two centers of color " + color);
+            faceOfColor[color] = face;
+            colors[face] = color;
+        }
+
+        var cubie = new CubieCube(colors);
+        for (int i = 0; i < N_CORNERS; i++) {
+            int[] stickers = CORNER_STICKERS[i];
+            int f0 = faceOf(faceOfColor, StickerProgram.color(faces, stickers[0]))
+              , f1 = faceOf(faceOfColor, StickerProgram.color(faces, stickers[1]))
+              , f2 = faceOf(faceOfColor, StickerProgram.color(faces, stickers[2]));
+            int at = CORNER_AT[f0 * 36 + f1 * 6 + f2];
+            if (at < 0) {
+                boolean upOrDown = f0 == U || f0 == D || f1 == U || f1 == D || f2 == U || f2 == D;
+                throw new Cube.InvalidCubeException("Invalid corner at " + CORNER_NAMES[i] + ": "
+                        + (upOrDown ? "faces " + FACE_NAMES.charAt(f0) + FACE_NAMES.charAt(f1) + FACE_NAMES.charAt(f2)
+                                    : "no U or D color"));
+            }
+            cubie.cp[i] = (byte) (at / 3);
+            cubie.co[i] = (byte) (at % 3);
+        }
+        for (int i = 0; i < N_EDGES; i++) {
+            int f0 = faceOf(faceOfColor, StickerProgram.color(faces, EDGE_STICKERS[i][0]))
+              , f1 = faceOf(faceOfColor, StickerProgram.color(faces, EDGE_STICKERS[i][1]));
+            int at = EDGE_AT[f0 * 6 + f1];
+            if (at < 0)
+                throw new Cube.InvalidCubeException("Invalid edge at " + EDGE_NAMES[i] + ": faces "
+                        + FACE_NAMES.charAt(f0) + FACE_NAMES.charAt(f1));
+            cubie.ep[i] = (byte) (at >> 1);
+            cubie.eo[i] = (byte) (at & 1);
+        }
+        return cubie;
+    }
+
+    /**
+     * Check that the pieces can be solved by turns: every piece exists once, the twists and
+     *  flips add up to zero, and the corner and edge permutations have the same parity.
+     * @throws Cube.InvalidCubeException naming the first check that fails.
+     */
+    public void checkSolvable() {
+        int seen = 0;
+        for (int i = 0; i < N_CORNERS; i++) {
+            if ((seen >> cp[i] & 1) != 0)
+                throw new Cube.InvalidCubeException("Unsolvable cube: two " + CORNER_NAMES[cp[i]] + " corners, at "
+                        + CORNER_NAMES[indexOf(cp, cp[i])] + " and " + CORNER_NAMES[i]);
+            seen |= 1 << cp[i];
+        }
+        seen = 0;
+        for (int i = 0; i < N_EDGES; i++) {
+            if ((seen >> ep[i] & 1) != 0)
+                throw new Cube.InvalidCubeException("Unsolvable cube: two " + EDGE_NAMES[ep[i]] + " edges, at "
+                        + EDGE_NAMES[indexOf(ep, ep[i])] + " and " + EDGE_NAMES[i]);
+            seen |= 1 << ep[i];
+        }
+        if (cornerTwist() != 0)
+            throw new Cube.InvalidCubeException("Unsolvable cube: corners are twisted by " + cornerTwist());
+        if (edgeFlip() != 0)
+            throw new Cube.InvalidCubeException("Unsolvable cube: an edge is flipped");
+        if (cornerParity() != edgeParity())
+            throw new Cube.InvalidCubeException("Unsolvable cube: two pieces are swapped");
+    }
+
+    private static int indexOf(byte[] perm, byte piece) {
+        int i = 0;
+        while (perm[i] != piece) i++;
+        return i;
+    }
+
+    /**
+     * Read the pieces of sticker faces into this cube, without allocating.
+     * For search loops; unlike {@link #fromCube(Cube)} the input is not checked beyond what
+     *  it takes to find each piece.
+     * @return false if a sticker or a piece does not exist; the cube is then left half read.
+     */
+    boolean read(int[] faces) {
+        int[] faceOfColor = tmpFaceOfColor;
+        Arrays.fill(faceOfColor, -1);
+        for (int face = 0; face < N_FACES; face++) {
+            int color = StickerProgram.color(faces, 9 * face + 4);
+            colors[face] = color;
+            faceOfColor[color] = face;
+        }
+        for (int i = 0; i < N_CORNERS; i++) {
+            int[] stickers = CORNER_STICKERS[i];
+            int f0 = faceOfColor[StickerProgram.color(faces, stickers[0])]
+              , f1 = faceOfColor[StickerProgram.color(faces, stickers[1])]
+              , f2 = faceOfColor[StickerProgram.color(faces, stickers[2])];
+            if ((f0 | f1 | f2) < 0) return false;
+            int at = CORNER_AT[f0 * 36 + f1 * 6 + f2];
+            if (at < 0) return false;
+            cp[i] = (byte) (at / 3);
+            co[i] = (byte) (at % 3);
+        }
+        for (int i = 0; i < N_EDGES; i++) {
+            int[] stickers = EDGE_STICKERS[i];
+            int f0 = faceOfColor[StickerProgram.color(faces, stickers[0])]
+              , f1 = faceOfColor[StickerProgram.color(faces, stickers[1])];
+            if ((f0 | f1) < 0) return false;
+            int at = EDGE_AT[f0 * 6 + f1];
+            if (at < 0) return false;
+            ep[i] = (byte) (at >> 1);
+            eo[i] = (byte) (at & 1);
+        }
+        return true;
+    }
+
+    private static int faceOf(int[] faceOfColor, int color) {
+        int face = faceOfColor[color];
+        if (face == -1) throw new Cube.InvalidCubeException("Color is not on any center: " + color);
+        return face;
+    }
+
+    /**
+     * Sticker cube with the colors of the centers this cube was read from.
+     */
+    public Cube toCube() {
+        int[] faces = new int[N_FACES];
+        toFaces(faces);
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Sticker faces, in constructor order of {@link Cube}, without allocating.
+     */
+    void toFaces(int[] faces) {
+        for (int face = 0; face < N_FACES; face++)
+            faces[face] = colors[face] << StickerProgram.offset(4);
+        for (int i = 0; i < N_CORNERS; i++) {
+            int piece = cp[i], ori = co[i];
+            for (int k = 0; k < 3; k++)
+                paint(faces, CORNER_STICKERS[i][(k + ori) % 3], colors[CORNER_FACES[piece][k]]);
+        }
+        for (int i = 0; i < N_EDGES; i++) {
+            int piece = ep[i], ori = eo[i];
+            for (int k = 0; k < 2; k++)
+                paint(faces, EDGE_STICKERS[i][(k + ori) % 2], colors[EDGE_FACES[piece][k]]);
+        }
+    }
+
+    private static void paint(int[] faces, int sticker, int color) {
+        faces[sticker / 9] |= color << StickerProgram.offset(sticker);
+    }
+
+    /**
+     * This cube followed by {@code other}, stored in this cube.
+     */
+    public CubieCube multiply(CubieCube other) {
+        for (int i = 0; i < N_CORNERS; i++) {
+            int from = other.cp[i];
+            tmpP[i] = cp[from];
+            tmpO[i] = ADD_TWIST[co[from] + other.co[i]];
+        }
+        System.arraycopy(tmpP, 0, cp, 0, N_CORNERS);
+        System.arraycopy(tmpO, 0, co, 0, N_CORNERS);
+        for (int i = 0; i < N_EDGES; i++) {
+            int from = other.ep[i];
+            tmpP[i] = ep[from];
+            tmpO[i] = (byte) (eo[from] ^ other.eo[i]);
+        }
+        System.arraycopy(tmpP, 0, ep, 0, N_EDGES);
+        System.arraycopy(tmpO, 0, eo, 0, N_EDGES);
+        return this;
+    }
+
+    /**
+     * Turn in place.
+     * @param move index of the move, see {@link Move}.
+     */
+    public CubieCube apply(int move) {
+        return multiply(MOVES[move]);
+    }
+
+    public CubieCube apply(int[] moves) {
+        for (int move: moves)
+            apply(move);
+        return this;
+    }
+
+    /**
+     * The cubie cube of a move, applied to the solved cube.
+     */
+    static CubieCube move(int move) {
+        return new CubieCube(MOVES[move]);
+    }
+
+    /*
+     * Coordinates: the parts of the state the two-phase solver tracks, as small integers.
+     * Each getter has a setter that builds some cube with that coordinate, used to fill
+     * move tables. Solved cubes have every coordinate zero.
+     */
+
+    static final int N_TWIST = 2187;          // 3^7
+    static final int N_FLIP = 2048;           // 2^11
+    static final int N_SLICE = 495;           // 12 choose 4
+    static final int N_CORNER_PERM = 40320;   // 8!
+    static final int N_UD_EDGE_PERM = 40320;  // 8!
+    static final int N_SLICE_PERM = 24;       // 4!
+
+    /**
+     * Twists of the first seven corners in base 3; the last one follows from them.
+     */
+    int twist() {
+        int t = 0;
+        for (int i = URF; i < DRB; i++)
+            t = 3 * t + co[i];
+        return t;
+    }
+
+    void setTwist(int twist) {
+        int sum = 0;
+        for (int i = DRB - 1; i >= URF; i--) {
+            co[i] = (byte) (twist % 3);
+            sum += co[i];
+            twist /= 3;
+        }
+        co[DRB] = (byte) ((3 - sum % 3) % 3);
+    }
+
+    /**
+     * Flips of the first eleven edges in base 2; the last one follows from them.
+     */
+    int flip() {
+        int f = 0;
+        for (int i = UR; i < BR; i++)
+            f = 2 * f + eo[i];
+        return f;
+    }
+
+    void setFlip(int flip) {
+        int sum = 0;
+        for (int i = BR - 1; i >= UR; i--) {
+            eo[i] = (byte) (flip & 1);
+            sum += eo[i];
+            flip >>= 1;
+        }
+        eo[BR] = (byte) (sum & 1);
+    }
+
+    /**
+     * Places of the four middle layer edges FR, FL, BL, BR, ignoring their order:
+     *  a combination of 4 places out of 12.
+     */
+    int slice() {
+        int a = 0, x = 0;
+        for (int j = BR; j >= UR; j--) {
+            if (ep[j] >= FR) {
+                a += binomial(BR - j, x + 1);
+                x++;
+            }
+        }
+        return a;
+    }
+
+    void setSlice(int slice) {
+        Arrays.fill(ep, (byte) -1);
+        int x = 4;
+        for (int j = UR; j <= BR; j++) {
+            if (slice - binomial(BR - j, x) >= 0) {
+                ep[j] = (byte) (FR + 4 - x);
+                slice -= binomial(BR - j, x--);
+            }
+        }
+        int other = UR;
+        for (int j = UR; j <= BR; j++)
+            if (ep[j] == -1) ep[j] = (byte) other++;
+    }
+
+    int cornerPermutation() {
+        return permutationIndex(cp, 0, N_CORNERS);
+    }
+
+    void setCornerPermutation(int index) {
+        setPermutation(cp, 0, N_CORNERS, index);
+    }
+
+    /**
+     * Order of the eight U and D layer edges; only meaningful once they are all in the U and D layers.
+     */
+    int udEdgePermutation() {
+        return permutationIndex(ep, UR, DB + 1);
+    }
+
+    void setUdEdgePermutation(int index) {
+        setPermutation(ep, UR, DB + 1, index);
+        for (int j = FR; j <= BR; j++) ep[j] = (byte) j;
+    }
+
+    /**
+     * Order of the four middle layer edges; only meaningful once they are all in the middle layer.
+     */
+    int slicePermutation() {
+        return permutationIndex(ep, FR, BR + 1);
+    }
+
+    void setSlicePermutation(int index) {
+        for (int j = UR; j <= DB; j++) ep[j] = (byte) j;
+        setPermutation(ep, FR, BR + 1, index);
+    }
+
+    private static int binomial(int n, int k) {
+        if (k < 0 || k > n) return 0;
+        int c = 1;
+        for (int i = 0; i < k; i++)
+            c = c * (n - i) / (i + 1);
+        return c;
+    }
+
+    /**
+     * Lehmer code of {@code perm[from..to)}, a permutation of the values {@code from..to-1}.
+     */
+    private static int permutationIndex(byte[] perm, int from, int to) {
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            int smaller = 0;
+            for (int j = i + 1; j < to; j++)
+                if (perm[j] < perm[i]) smaller++;
+            index = index * (to - i) + smaller;
+        }
+        return index;
+    }
+
+    private static void setPermutation(byte[] perm, int from, int to, int index) {
+        int n = to - from;
+        int[] digits = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            digits[i] = index % (n - i);
+            index /= n - i;
+        }
+        var used = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int v = -1;
+            for (int k = digits[i]; k >= 0; k--)
+                do v++; while (used[v]);
+            used[v] = true;
+            perm[from + i] = (byte) (from + v);
+        }
+    }
+
+    public boolean isSolved() {
+        for (int i = 0; i < N_CORNERS; i++)
+            if (cp[i] != i || co[i] != 0) return false;
+        for (int i = 0; i < N_EDGES; i++)
+            if (ep[i] != i || eo[i] != 0) return false;
+        return true;
+    }
+
+    /**
+     * Sum of corner twists, modulo 3; zero on any cube reachable by turns.
+     */
+    public int cornerTwist() {
+        int sum = 0;
+        for (int i = 0; i < N_CORNERS; i++) sum += co[i];
+        return sum % 3;
+    }
+
+    /**
+     * Sum of edge flips, modulo 2; zero on any cube reachable by turns.
+     */
+    public int edgeFlip() {
+        int sum = 0;
+        for (int i = 0; i < N_EDGES; i++) sum += eo[i];
+        return sum % 2;
+    }
+
+    /**
+     * Parity of a permutation: 0 if even, 1 if odd.
+     */
+    static int parity(byte[] perm) {
+        int inversions = 0;
+        for (int i = 0; i < perm.length; i++)
+            for (int j = i + 1; j < perm.length; j++)
+                if (perm[i] > perm[j]) inversions++;
+        return inversions & 1;
+    }
+
+    public int cornerParity() {
+        return parity(cp);
+    }
+
+    public int edgeParity() {
+        return parity(ep);
+    }
+
+    /**
+     * Same pieces in the same places; colors are not compared.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CubieCube that = (CubieCube) o;
+        return Arrays.equals(cp, that.cp) && Arrays.equals(co, that.co)
+            && Arrays.equals(ep, that.ep) && Arrays.equals(eo, that.eo);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Arrays.hashCode(cp);
+        h = 31 * h + Arrays.hashCode(co);
+        h = 31 * h + Arrays.hashCode(ep);
+        h = 31 * h + Arrays.hashCode(eo);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "cp=" + Arrays.toString(cp) + " co=" + Arrays.toString(co)
+            + " ep=" + Arrays.toString(ep) + " eo=" + Arrays.toString(eo);
+    }
+}
@@ -0,0 +1,105 @@
+package rubik;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events of parsing, validation, table loading and solving.
+ *
+ * Events are created, begun and committed where the work happens. While no recording
+ *  enables them, {@code begin()} and {@code shouldCommit()} check a flag and the event does not
+ *  escape, so the JIT removes it; fields are only filled in when the event is committed.
+ * Enable them with {@code -XX:StartFlightRecording} or in JDK Mission Control; they are in
+ *  the category "Rubik". {@link Validate} comes once per cube, millions of times a second
+ *  in a batch, so it is off unless a recording names it.
+ */
+final class Events {
+    private Events() {}
+
+    @Name("rubik.Parse")
+    @Label("Parse")
+    @Category("Rubik")
+    @Description("Cubes read from text, from opening the input to closing it")
+    @StackTrace(false)
+    static final class Parse extends Event {
+        @Label("Source")
+        String source;
+
+        @Label("Cubes")
+        @Description("Cubes returned by the parser as an iterator")
+        long cubes;
+
+        @Label("Cells")
+        long cells;
+    }
+
+    @Name("rubik.Validate")
+    @Label("Validate")
+    @Category("Rubik")
+    @Description("Colors of a cube checked")
+    @StackTrace(false)
+    @Enabled(false)
+    static final class Validate extends Event {
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("rubik.TableLoad")
+    @Label("Table Load")
+    @Category("Rubik")
+    @Description("A table built in memory or mapped from a file")
+    static final class TableLoad extends Event {
+        @Label("Table")
+        String table;
+
+        @Label("Built")
+        @Description("Built by search, rather than loaded from a file")
+        boolean built;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        /**
+         * Commit, if a recording wants it, at the end of the load.
+         */
+        void loaded(String table, boolean built, long bytes) {
+            if (!shouldCommit()) return;
+            this.table = table;
+            this.built = built;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+
+    @Name("rubik.Solve")
+    @Label("Solve")
+    @Category("Rubik")
+    @Description("One call to a solver")
+    @StackTrace(false)
+    static final class Solve extends Event {
+        @Label("Solver")
+        String solver;
+
+        @Label("Nodes")
+        long nodes;
+
+        @Label("Prunes")
+        @Description("Nodes cut off by the heuristic")
+        long prunes;
+
+        @Label("Depth")
+        @Description("Deepest bound searched")
+        int depth;
+
+        @Label("Length")
+        @Description("Moves of the solution, -1 if none was found")
+        int length;
+    }
+}
@@ -0,0 +1,110 @@
+package rubik;
+
+/**
+ * A {@link MutableCube} that keeps its {@link Zobrist} hash up to date, for searches that look
+ *  states up by hash at every node, such as in a {@link TranspositionTable}.
+ * Each move XORs in the change of the hash, from the rows and columns it turns, see
+ *  {@link Zobrist#change(int[], int)}; {@link #hash()} is then a field read. A plain
+ *  {@link MutableCube} does not pay for this, and recomputes the hash when asked.
+ * Not thread-safe; give each thread its own instance.
+ */
+public final class HashedMutableCube {
+    private final MutableCube cube;
+    private long hash;
+
+    public HashedMutableCube(Cube cube) {
+        this.cube = new MutableCube(cube);
+        hash = Zobrist.hash(this.cube.faces);
+    }
+
+    public HashedMutableCube(HashedMutableCube other) {
+        cube = new MutableCube(other.cube);
+        hash = other.hash;
+    }
+
+    public HashedMutableCube set(Cube cube) {
+        this.cube.set(cube);
+        hash = Zobrist.hash(this.cube.faces);
+        return this;
+    }
+
+    public HashedMutableCube set(HashedMutableCube other) {
+        cube.set(other.cube);
+        hash = other.hash;
+        return this;
+    }
+
+    /**
+     * The cube, for heuristics and state sets; turning it directly leaves the hash stale.
+     */
+    public MutableCube cube() {
+        return cube;
+    }
+
+    public Cube toCube() {
+        return cube.toCube();
+    }
+
+    /**
+     * Turn the cube in place.
+     * @param move index of the move, see {@link Move}.
+     */
+    public HashedMutableCube apply(int move) {
+        hash ^= Zobrist.change(cube.faces, move);
+        MoveEngine.apply(cube.faces, move);
+        return this;
+    }
+
+    public HashedMutableCube apply(Move move) {
+        return apply(move.index());
+    }
+
+    /**
+     * Apply a sequence of moves, in order.
+     */
+    public HashedMutableCube apply(int[] moves) {
+        for (int move: moves) apply(move);
+        return this;
+    }
+
+    /**
+     * Permute the stickers with a program of {@link CubePermutation}.
+     */
+    HashedMutableCube apply(StickerProgram program, Zobrist.Delta delta) {
+        hash ^= delta.change(cube.faces);
+        program.apply(cube.faces);
+        return this;
+    }
+
+    /**
+     * Undo a move previously applied with {@link #apply(int)}.
+     */
+    public HashedMutableCube undo(int move) {
+        return apply(Move.inverse(move));
+    }
+
+    /**
+     * Undo a sequence of moves previously applied with {@link #apply(int[])}.
+     */
+    public HashedMutableCube undo(int[] moves) {
+        for (int i = moves.length - 1; i >= 0; i--)
+            undo(moves[i]);
+        return this;
+    }
+
+    /**
+     * {@link Zobrist} hash of the faces.
+     */
+    public long hash() {
+        return hash;
+    }
+
+    public boolean sameAs(Cube cube) {
+        return this.cube.sameAs(cube);
+    }
+
+    @Override
+    public String toString() {
+        return cube.toString();
+    }
+}
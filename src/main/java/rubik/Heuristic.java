@@ -0,0 +1,29 @@
+package rubik;
+
+/**
+ * Lower bound on the number of moves, in half-turn metric, needed to solve a cube.
+ * Used by {@link IdaStarSolver} to prune; it must never overestimate, or solutions are
+ *  no longer optimal.
+ * Called once per search node, so implementations should not allocate.
+ */
+@FunctionalInterface
+public interface Heuristic {
+    /**
+     * Knows nothing; IDA* becomes plain iterative deepening.
+     */
+    Heuristic ZERO = cube -> 0;
+
+    /**
+     * Misplaced stickers, see {@link StickerHeuristic}.
+     */
+    Heuristic STICKERS = new StickerHeuristic();
+
+    int estimate(MutableCube cube);
+
+    /**
+     * The larger of two bounds, still a lower bound.
+     */
+    default Heuristic max(Heuristic other) {
+        return cube -> Math.max(estimate(cube), other.estimate(cube));
+    }
+}
@@ -0,0 +1,115 @@
+package rubik;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Optimal solver: iterative-deepening A* in half-turn metric.
+ *
+ * Depth-first search with a bound on {@code depth + heuristic}; when a pass fails, the bound
+ *  grows to the smallest value that exceeded it.
+ * Memory is the current path only. The cube is turned in place with {@link MutableCube}, and
+ *  sequences that turn the same face twice or opposite faces out of order are skipped, see
+ *  {@link Move#canFollow(int, int)}.
+ * With an admissible {@link Heuristic} the first solution found is optimal.
+ *
+ * An instance keeps the state of a search and is not thread-safe.
+ */
+public class IdaStarSolver {
+    /**
+     * Every position is solvable in 20 moves or less.
+     */
+    public static final int GODS_NUMBER = 20;
+
+    private static final int FOUND = -1;
+
+    private final Heuristic heuristic;
+    private final int[] path = new int[GODS_NUMBER + 1];
+    private int pathLength;
+    private MutableCube cube;
+    private long nodes, prunes;
+    private int deepest;
+
+    public IdaStarSolver(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Shortest sequence of moves that solves the cube.
+     * @return move indices, see {@link Move}; empty if the cube needs more than {@code maxDepth} moves.
+     * @throws Cube.InvalidCubeException if the cube can not be solved, see {@link Cube#validateSolvable()}.
+     */
+    public Optional<int[]> solve(Cube cube, int maxDepth) {
+        var event = new Events.Solve();
+        event.begin();
+        long started = System.nanoTime();
+        var solution = search(cube, maxDepth);
+        SolverMetrics.solved(event, "IDA*", started, nodes, prunes, deepest, solution.map(p -> p.length).orElse(-1));
+        return solution;
+    }
+
+    private Optional<int[]> search(Cube cube, int maxDepth) {
+        cube.validateSolvable();
+        if (maxDepth > GODS_NUMBER) maxDepth = GODS_NUMBER;
+        this.cube = new MutableCube(cube);
+        nodes = 0;
+        prunes = 0;
+        int bound = heuristic.estimate(this.cube);
+        deepest = 0;
+        while (bound <= maxDepth) {
+            deepest = bound;
+            int next = search(0, bound, -1);
+            if (next == FOUND) return Optional.of(Arrays.copyOf(path, pathLength));
+            if (next == Integer.MAX_VALUE) break;
+            bound = next;
+        }
+        return Optional.empty();
+    }
+
+    public Optional<int[]> solve(Cube cube) {
+        return solve(cube, GODS_NUMBER);
+    }
+
+    /**
+     * @return FOUND, or the smallest {@code depth + estimate} above the bound in this subtree.
+     */
+    private int search(int depth, int bound, int previous) {
+        nodes++;
+        int estimate = heuristic.estimate(cube);
+        int f = depth + estimate;
+        if (f > bound) {
+            prunes++;
+            return f;
+        }
+        if (StickerHeuristic.isSolved(cube.faces)) {
+            pathLength = depth;
+            return FOUND;
+        }
+
+        int min = Integer.MAX_VALUE;
+        for (int move = 0; move < Move.COUNT; move++) {
+            if (!Move.canFollow(previous, move)) continue;
+            cube.apply(move);
+            path[depth] = move;
+            int t = search(depth + 1, bound, move);
+            cube.undo(move);
+            if (t == FOUND) return FOUND;
+            if (t < min) min = t;
+        }
+        return min;
+    }
+
+    /**
+     * Nodes visited by the last call to solve.
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Nodes of the last call to solve cut off because {@code depth + estimate} exceeded the bound.
+     */
+    public long prunes() {
+        return prunes;
+    }
+}
@@ -0,0 +1,230 @@
+package rubik;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * Layer turns of the rows of {@link NCube}, written out per face like {@link MoveEngine}, for
+ *  the sizes up to {@link NCube#SMALL}.
+ *
+ * A turn moves four strips of n cells around the layer, rows or columns of the side faces,
+ *  and rotates the face when the layer is the first or the last. Each strip is read into a
+ *  row of n cells in the order the turn carries it, so that a quarter turn moves strip
+ *  {@code i} to place {@code i + 1} as it is; the face methods only differ in the strips.
+ * There is one subclass per size, and the size is all they override: where one size is in
+ *  use, the JIT inlines {@link #size()} as a constant and unrolls the loops over cells and
+ *  rows into straight-line code, with the indices folded in. Loops of two to five rounds
+ *  with a variable bound cost more to set up than to run.
+ */
+abstract class LayerEngine {
+    private static final LayerEngine[] SIZES = { null, null, new Size2(), new Size3(), new Size4(), new Size5() };
+
+    /**
+     * @param n from {@link NCube#MIN_SIZE} to {@link NCube#SMALL}.
+     */
+    static LayerEngine of(int n) {
+        return SIZES[n];
+    }
+
+    abstract int size();
+
+    /**
+     * Write the rows a turn changes from {@code from} into {@code to}, a copy of it.
+     * @param face index of the face, in the order of the letters {@code U L F R B D}.
+     * @param layer from 1 for the face to n for the opposite face.
+     * @param turns clockwise quarter turns, 1 to 3.
+     */
+    void turn(long[] from, long[] to, int face, int layer, int turns) {
+        int d = layer - 1;
+        switch (face) {
+            case TOP:    U(from, to, d, turns); break;
+            case LEFT:   L(from, to, d, turns); break;
+            case FRONT:  F(from, to, d, turns); break;
+            case RIGHT:  R(from, to, d, turns); break;
+            case BACK:   B(from, to, d, turns); break;
+            case BOTTOM: D(from, to, d, turns); break;
+            default: throw new IllegalArgumentException("Invalid face: " + face);
+        }
+    }
+
+    /*
+     * The faces; d is the depth of the layer from the face, from 0.
+     */
+
+    private void U(long[] from, long[] to, int d, int t) {
+        long right = row(from, RIGHT, d), front = row(from, FRONT, d),
+             left  = row(from, LEFT, d),  back  = row(from, BACK, d);
+        putRow(to, RIGHT, d, moved(t, 0, right, front, left, back));
+        putRow(to, FRONT, d, moved(t, 1, right, front, left, back));
+        putRow(to, LEFT,  d, moved(t, 2, right, front, left, back));
+        putRow(to, BACK,  d, moved(t, 3, right, front, left, back));
+        rotateEnds(from, to, d, t, TOP, BOTTOM);
+    }
+
+    private void D(long[] from, long[] to, int d, int t) {
+        int n = size(), r = n - 1 - d;
+        long back  = row(from, BACK, r),  left  = row(from, LEFT, r),
+             front = row(from, FRONT, r), right = row(from, RIGHT, r);
+        putRow(to, BACK,  r, moved(t, 0, back, left, front, right));
+        putRow(to, LEFT,  r, moved(t, 1, back, left, front, right));
+        putRow(to, FRONT, r, moved(t, 2, back, left, front, right));
+        putRow(to, RIGHT, r, moved(t, 3, back, left, front, right));
+        rotateEnds(from, to, d, t, BOTTOM, TOP);
+    }
+
+    private void L(long[] from, long[] to, int d, int t) {
+        int n = size(), c = d, back = n - 1 - d;
+        long s0 = col(from, TOP, c),    s1 = col(from, FRONT, c),
+             s2 = col(from, BOTTOM, c), s3 = colReversed(from, BACK, back);
+        putCol(from, to, TOP,    c, moved(t, 0, s0, s1, s2, s3));
+        putCol(from, to, FRONT,  c, moved(t, 1, s0, s1, s2, s3));
+        putCol(from, to, BOTTOM, c, moved(t, 2, s0, s1, s2, s3));
+        putColReversed(from, to, BACK, back, moved(t, 3, s0, s1, s2, s3));
+        rotateEnds(from, to, d, t, LEFT, RIGHT);
+    }
+
+    private void R(long[] from, long[] to, int d, int t) {
+        int n = size(), c = n - 1 - d, back = d;
+        long s0 = col(from, FRONT, c),  s1 = col(from, TOP, c),
+             s2 = colReversed(from, BACK, back), s3 = col(from, BOTTOM, c);
+        putCol(from, to, FRONT, c, moved(t, 0, s0, s1, s2, s3));
+        putCol(from, to, TOP,   c, moved(t, 1, s0, s1, s2, s3));
+        putColReversed(from, to, BACK, back, moved(t, 2, s0, s1, s2, s3));
+        putCol(from, to, BOTTOM, c, moved(t, 3, s0, s1, s2, s3));
+        rotateEnds(from, to, d, t, RIGHT, LEFT);
+    }
+
+    private void F(long[] from, long[] to, int d, int t) {
+        int n = size(), near = n - 1 - d;
+        long s0 = row(from, TOP, near),         s1 = col(from, RIGHT, d),
+             s2 = rowReversed(from, BOTTOM, d), s3 = colReversed(from, LEFT, near);
+        putRow(to, TOP, near, moved(t, 0, s0, s1, s2, s3));
+        putCol(from, to, RIGHT, d, moved(t, 1, s0, s1, s2, s3));
+        putRowReversed(to, BOTTOM, d, moved(t, 2, s0, s1, s2, s3));
+        putColReversed(from, to, LEFT, near, moved(t, 3, s0, s1, s2, s3));
+        rotateEnds(from, to, d, t, FRONT, BACK);
+    }
+
+    private void B(long[] from, long[] to, int d, int t) {
+        int n = size(), far = n - 1 - d;
+        long s0 = row(from, TOP, d),              s1 = colReversed(from, LEFT, d),
+             s2 = rowReversed(from, BOTTOM, far), s3 = col(from, RIGHT, far);
+        putRow(to, TOP, d, moved(t, 0, s0, s1, s2, s3));
+        putColReversed(from, to, LEFT, d, moved(t, 1, s0, s1, s2, s3));
+        putRowReversed(to, BOTTOM, far, moved(t, 2, s0, s1, s2, s3));
+        putCol(from, to, RIGHT, far, moved(t, 3, s0, s1, s2, s3));
+        rotateEnds(from, to, d, t, BACK, FRONT);
+    }
+
+    /**
+     * The strip that lands at place {@code i} after {@code t} quarter turns.
+     */
+    private long moved(int t, int i, long s0, long s1, long s2, long s3) {
+        switch ((i - t) & 3) {
+            case 0:  return s0;
+            case 1:  return s1;
+            case 2:  return s2;
+            default: return s3;
+        }
+    }
+
+    /**
+     * The first layer also turns the face, the last one the opposite face, the other way.
+     */
+    private void rotateEnds(long[] from, long[] to, int d, int t, int face, int opposite) {
+        if (d == 0) rotate(from, to, face, t);
+        if (d == size() - 1) rotate(from, to, opposite, 4 - t);
+    }
+
+    /**
+     * Rotate a face clockwise: row r becomes column {@code n - 1 - r}, so the new row r is
+     *  column r read from the bottom.
+     */
+    private void rotate(long[] from, long[] to, int face, int t) {
+        int n = size(), base = face * n;
+        switch (t) {
+            case 1:
+                for (int r = 0; r < n; r++) to[base + r] = colReversed(from, face, r);
+                break;
+            case 2:
+                for (int r = 0; r < n; r++) to[base + r] = reverse(from[base + n - 1 - r]);
+                break;
+            default:
+                for (int r = 0; r < n; r++) to[base + r] = col(from, face, n - 1 - r);
+                break;
+        }
+    }
+
+    /*
+     * Strips as rows of n cells, the first cell in the highest bits.
+     */
+
+    private long row(long[] rows, int face, int r) {
+        return rows[face * size() + r];
+    }
+
+    private long rowReversed(long[] rows, int face, int r) {
+        return reverse(rows[face * size() + r]);
+    }
+
+    /**
+     * Column c, from the top row down.
+     */
+    private long col(long[] rows, int face, int c) {
+        int n = size(), shift = 3 * (n - 1 - c), base = face * n;
+        long strip = 0;
+        for (int r = 0; r < n; r++) strip = strip << 3 | rows[base + r] >>> shift & 0b111;
+        return strip;
+    }
+
+    /**
+     * Column c, from the bottom row up.
+     */
+    private long colReversed(long[] rows, int face, int c) {
+        int n = size(), shift = 3 * (n - 1 - c), base = face * n;
+        long strip = 0;
+        for (int r = n - 1; r >= 0; r--) strip = strip << 3 | rows[base + r] >>> shift & 0b111;
+        return strip;
+    }
+
+    private void putRow(long[] to, int face, int r, long strip) {
+        to[face * size() + r] = strip;
+    }
+
+    private void putRowReversed(long[] to, int face, int r, long strip) {
+        to[face * size() + r] = reverse(strip);
+    }
+
+    private void putCol(long[] from, long[] to, int face, int c, long strip) {
+        int n = size(), shift = 3 * (n - 1 - c), base = face * n;
+        long clear = ~(0b111L << shift);
+        for (int r = n - 1; r >= 0; r--, strip >>>= 3)
+            to[base + r] = from[base + r] & clear | (strip & 0b111) << shift;
+    }
+
+    private void putColReversed(long[] from, long[] to, int face, int c, long strip) {
+        int n = size(), shift = 3 * (n - 1 - c), base = face * n;
+        long clear = ~(0b111L << shift);
+        for (int r = 0; r < n; r++, strip >>>= 3)
+            to[base + r] = from[base + r] & clear | (strip & 0b111) << shift;
+    }
+
+    /**
+     * The n cells of a row in reverse order.
+     */
+    private long reverse(long row) {
+        int n = size();
+        long reversed = 0;
+        for (int c = 0; c < n; c++, row >>>= 3) reversed = reversed << 3 | row & 0b111;
+        return reversed;
+    }
+
+    private static final class Size2 extends LayerEngine { @Override int size() { return 2; } }
+    private static final class Size3 extends LayerEngine { @Override int size() { return 3; } }
+    private static final class Size4 extends LayerEngine { @Override int size() { return 4; } }
+    private static final class Size5 extends LayerEngine { @Override int size() { return 5; } }
+}
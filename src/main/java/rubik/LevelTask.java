@@ -0,0 +1,55 @@
+package rubik;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * One level of a breadth-first search over the indices of a table, for {@link PatternDatabase}
+ *  and {@link PocketCubeSolver}: the range of indices is split in halves down to chunks, and
+ *  the chunks are expanded in parallel with fork/join.
+ * Tasks are {@link java.io.Serializable} through {@link RecursiveTask}, but never serialized.
+ */
+final class LevelTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Expands the entries of one level in a range of indices.
+     */
+    @FunctionalInterface
+    interface Expansion {
+        /**
+         * @return the number of entries found one move further.
+         */
+        long expand(long from, long to);
+    }
+
+    private final transient Expansion expansion;
+    private final long from, to, chunk;
+
+    private LevelTask(Expansion expansion, long from, long to, long chunk) {
+        this.expansion = expansion;
+        this.from = from;
+        this.to = to;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Expand the indices from 0 to {@code size}, in tasks of at most {@code chunk} indices.
+     * @return the number of entries found one move further.
+     */
+    static long expand(ForkJoinPool pool, long size, long chunk, Expansion expansion) {
+        return pool.invoke(new LevelTask(expansion, 0, size, chunk));
+    }
+
+    @Override
+    protected Long compute() {
+        if (to - from > chunk) {
+            long mid = (from + to) >>> 1;
+            var left = new LevelTask(expansion, from, mid, chunk);
+            left.fork();
+            long right = new LevelTask(expansion, mid, to, chunk).compute();
+            return right + left.join();
+        }
+        return expansion.expand(from, to);
+    }
+}
@@ -0,0 +1,90 @@
+package rubik;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * The 18 face turns of {@link Cube}, in half-turn metric.
+ * Names mirror the methods of {@link Cube}; the ordinal is the move index used by
+ *  the index based APIs, such as {@link MutableCube#apply(int)}.
+ * Moves of the same face are consecutive: clockwise, counter-clockwise, half turn.
+ */
+public enum Move {
+    U (Cube::U),  U_(Cube::U_), U2(Cube::U2),
+    L (Cube::L),  _L(Cube::_L), L2(Cube::L2),
+    R (Cube::R),  _R(Cube::_R), R2(Cube::R2),
+    D (Cube::D),  _D(Cube::_D), D2(Cube::D2),
+    F (Cube::F),  _F(Cube::_F), F2(Cube::F2),
+    B (Cube::B),  _B(Cube::_B), B2(Cube::B2);
+
+    /**
+     * Number of moves; move indices go from zero to COUNT - 1.
+     */
+    public static final int COUNT = 18;
+
+    private static final Move[] VALUES = values();
+
+    private final UnaryOperator<Cube> turn;
+
+    Move(UnaryOperator<Cube> turn) {
+        this.turn = turn;
+    }
+
+    public static Move of(int index) {
+        return VALUES[index];
+    }
+
+    public int index() {
+        return ordinal();
+    }
+
+    /**
+     * Face turned by the move; moves 3*k, 3*k+1, 3*k+2 turn the same face.
+     */
+    public static int face(int move) {
+        return move / 3;
+    }
+
+    /**
+     * Faces come in opposite pairs on three axes: U and D, L and R, F and B.
+     */
+    public static int axis(int face) {
+        switch (face) {
+            case 0: case 3: return 0;
+            case 1: case 2: return 1;
+            default:        return 2;
+        }
+    }
+
+    /**
+     * Whether {@code move} may follow {@code previous} in a canonical sequence.
+     * Turning the same face twice in a row is never needed, and turns of opposite faces commute,
+     *  so they are only taken in one order. Any move may follow -1, the start of a sequence.
+     */
+    public static boolean canFollow(int previous, int move) {
+        if (previous < 0) return true;
+        int f = face(move), p = face(previous);
+        return f != p && !(axis(f) == axis(p) && f < p);
+    }
+
+    /**
+     * Index of the move that undoes this one.
+     */
+    public static int inverse(int move) {
+        switch (move % 3) {
+            case 0:  return move + 1;
+            case 1:  return move - 1;
+            default: return move;
+        }
+    }
+
+    public Move inverse() {
+        return of(inverse(ordinal()));
+    }
+
+    /**
+     * Apply the move to an immutable cube.
+     */
+    public Cube apply(Cube cube) {
+        return turn.apply(cube);
+    }
+}
@@ -0,0 +1,321 @@
+package rubik;
+
+import java.util.function.IntUnaryOperator;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+import static rubik.Cube.col;
+import static rubik.Cube.colCcw;
+import static rubik.Cube.colCw;
+import static rubik.Cube.replaceCol;
+import static rubik.Cube.replaceRow;
+import static rubik.Cube.reverseCol;
+import static rubik.Cube.row;
+import static rubik.Cube.shiftCol;
+
+/**
+ * Turns in place, selected by move index.
+ *
+ * The state is the six packed faces of {@link Cube} in an {@code int[6]}, in the order of
+ *  {@link Cube#TOP}, ..., {@link Cube#BOTTOM}.
+ * Each move is a method doing the same as the matching method of {@link Cube}, on the array
+ *  and without allocating. Side faces take the same constant masks and shifts; the turned
+ *  face is rotated with three row tables, shared by all faces: a clockwise, counterclockwise
+ *  or half turn moves the cells of any face alike. The tables take 18 KB.
+ * Each move method is compiled on its own, with its masks and shifts folded in, whether or
+ *  not it is inlined into {@link #apply(int[], int)}.
+ */
+public final class MoveEngine {
+    private static final int ROW_VALUES = 1 << 9;
+
+    /*
+     * Face rotations, three tables of 512 entries: the rotated cells of each value of
+     *  rows 1, 2 and 3.
+     */
+    private static final int[] CW = rotation(Cube::cwFace), CCW = rotation(Cube::ccwFace), HALF = rotation(Cube::rotateFace);
+
+    private static final StickerProgram[] PROGRAMS = new StickerProgram[Move.COUNT];
+
+    static {
+        for (var move: Move.values())
+            PROGRAMS[move.index()] = StickerProgram.compile(StickerProgram.permutationOf(move::apply));
+    }
+
+    private MoveEngine() {}
+
+    private static int[] rotation(IntUnaryOperator rotate) {
+        int[] table = new int[3 * ROW_VALUES];
+        for (int row = 0; row < 3; row++)
+            for (int value = 0; value < ROW_VALUES; value++)
+                table[row * ROW_VALUES + value] = rotate.applyAsInt(value << 9 * (2 - row));
+        return table;
+    }
+
+    /**
+     * A face rotated with one of {@link #CW}, {@link #CCW} and {@link #HALF}.
+     */
+    private static int turn(int[] table, int face) {
+        return table[face >>> 18]
+             | table[ROW_VALUES + (face >>> 9 & 0x1ff)]
+             | table[2 * ROW_VALUES + (face & 0x1ff)];
+    }
+
+    /**
+     * Row {@code r} of a face rotated alone, the other cells zero.
+     */
+    private static int turnRow(int[] table, int face, int r) {
+        return table[(r - 1) * ROW_VALUES + row(face, r)];
+    }
+
+    /**
+     * State of a cube, for {@link #apply(int[], int)}.
+     */
+    public static int[] state(Cube cube) {
+        return cube.faces();
+    }
+
+    public static Cube cube(int[] state) {
+        return Cube.fromFaces(state);
+    }
+
+    /**
+     * Turn the state in place.
+     * @param move index of the move, see {@link Move}.
+     */
+    public static void apply(int[] state, int move) {
+        switch (move) {
+            case  0: U(state);  break;
+            case  1: U_(state); break;
+            case  2: U2(state); break;
+            case  3: L(state);  break;
+            case  4: _L(state); break;
+            case  5: L2(state); break;
+            case  6: R(state);  break;
+            case  7: _R(state); break;
+            case  8: R2(state); break;
+            case  9: D(state);  break;
+            case 10: _D(state); break;
+            case 11: D2(state); break;
+            case 12: F(state);  break;
+            case 13: _F(state); break;
+            case 14: F2(state); break;
+            case 15: B(state);  break;
+            case 16: _B(state); break;
+            case 17: B2(state); break;
+            default: throw new IllegalArgumentException("Invalid move: " + move);
+        }
+    }
+
+    /*
+     * The moves, in the words of the methods of Cube.
+     */
+
+    private static void U(int[] s) {
+        int left = s[LEFT];
+        s[TOP]   = turn(CW, s[TOP]);
+        s[LEFT]  = replaceRow(left,    1, row(s[FRONT], 1));
+        s[FRONT] = replaceRow(s[FRONT], 1, row(s[RIGHT], 1));
+        s[RIGHT] = replaceRow(s[RIGHT], 1, row(s[BACK], 1));
+        s[BACK]  = replaceRow(s[BACK],  1, row(left, 1));
+    }
+
+    private static void U_(int[] s) {
+        int back = s[BACK];
+        s[TOP]   = turn(CCW, s[TOP]);
+        s[BACK]  = replaceRow(back,     1, row(s[RIGHT], 1));
+        s[RIGHT] = replaceRow(s[RIGHT], 1, row(s[FRONT], 1));
+        s[FRONT] = replaceRow(s[FRONT], 1, row(s[LEFT], 1));
+        s[LEFT]  = replaceRow(s[LEFT],  1, row(back, 1));
+    }
+
+    private static void U2(int[] s) {
+        int left = s[LEFT], front = s[FRONT];
+        s[TOP]   = turn(HALF, s[TOP]);
+        s[LEFT]  = replaceRow(left,    1, row(s[RIGHT], 1));
+        s[FRONT] = replaceRow(front,   1, row(s[BACK], 1));
+        s[RIGHT] = replaceRow(s[RIGHT], 1, row(left, 1));
+        s[BACK]  = replaceRow(s[BACK],  1, row(front, 1));
+    }
+
+    private static void L(int[] s) {
+        int top = s[TOP];
+        s[TOP]    = replaceCol(top,       1, shiftCol(3, 1, reverseCol(col(s[BACK], 3))));
+        s[LEFT]   = turn(CW, s[LEFT]);
+        s[BACK]   = replaceCol(s[BACK],   3, shiftCol(1, 3, reverseCol(col(s[BOTTOM], 1))));
+        s[BOTTOM] = replaceCol(s[BOTTOM], 1, col(s[FRONT], 1));
+        s[FRONT]  = replaceCol(s[FRONT],  1, col(top, 1));
+    }
+
+    private static void _L(int[] s) {
+        int top = s[TOP];
+        s[TOP]    = replaceCol(top,       1, col(s[FRONT], 1));
+        s[LEFT]   = turn(CCW, s[LEFT]);
+        s[FRONT]  = replaceCol(s[FRONT],  1, col(s[BOTTOM], 1));
+        s[BOTTOM] = replaceCol(s[BOTTOM], 1, shiftCol(3, 1, reverseCol(col(s[BACK], 3))));
+        s[BACK]   = replaceCol(s[BACK],   3, shiftCol(1, 3, reverseCol(col(top, 1))));
+    }
+
+    private static void L2(int[] s) {
+        int top = s[TOP], front = s[FRONT];
+        s[TOP]    = replaceCol(top,       1, col(s[BOTTOM], 1));
+        s[LEFT]   = turn(HALF, s[LEFT]);
+        s[FRONT]  = replaceCol(front,     1, shiftCol(3, 1, reverseCol(col(s[BACK], 3))));
+        s[BACK]   = replaceCol(s[BACK],   3, shiftCol(1, 3, reverseCol(col(front, 1))));
+        s[BOTTOM] = replaceCol(s[BOTTOM], 1, col(top, 1));
+    }
+
+    private static void R(int[] s) {
+        int top = s[TOP];
+        s[TOP]    = replaceCol(top,       3, col(s[FRONT], 3));
+        s[FRONT]  = replaceCol(s[FRONT],  3, col(s[BOTTOM], 3));
+        s[RIGHT]  = turn(CW, s[RIGHT]);
+        s[BOTTOM] = replaceCol(s[BOTTOM], 3, shiftCol(1, 3, reverseCol(col(s[BACK], 1))));
+        s[BACK]   = replaceCol(s[BACK],   1, shiftCol(3, 1, reverseCol(col(top, 3))));
+    }
+
+    private static void _R(int[] s) {
+        int top = s[TOP];
+        s[TOP]    = replaceCol(top,       3, shiftCol(1, 3, reverseCol(col(s[BACK], 1))));
+        s[RIGHT]  = turn(CCW, s[RIGHT]);
+        s[BACK]   = replaceCol(s[BACK],   1, shiftCol(3, 1, reverseCol(col(s[BOTTOM], 3))));
+        s[BOTTOM] = replaceCol(s[BOTTOM], 3, col(s[FRONT], 3));
+        s[FRONT]  = replaceCol(s[FRONT],  3, col(top, 3));
+    }
+
+    private static void R2(int[] s) {
+        int top = s[TOP], front = s[FRONT];
+        s[TOP]    = replaceCol(top,       3, col(s[BOTTOM], 3));
+        s[FRONT]  = replaceCol(front,     3, shiftCol(1, 3, reverseCol(col(s[BACK], 1))));
+        s[RIGHT]  = turn(HALF, s[RIGHT]);
+        s[BACK]   = replaceCol(s[BACK],   1, shiftCol(3, 1, reverseCol(col(front, 3))));
+        s[BOTTOM] = replaceCol(s[BOTTOM], 3, col(top, 3));
+    }
+
+    private static void D(int[] s) {
+        int left = s[LEFT];
+        s[LEFT]   = replaceRow(left,     3, row(s[BACK], 3));
+        s[BACK]   = replaceRow(s[BACK],  3, row(s[RIGHT], 3));
+        s[RIGHT]  = replaceRow(s[RIGHT], 3, row(s[FRONT], 3));
+        s[FRONT]  = replaceRow(s[FRONT], 3, row(left, 3));
+        s[BOTTOM] = turn(CW, s[BOTTOM]);
+    }
+
+    private static void _D(int[] s) {
+        int left = s[LEFT];
+        s[LEFT]   = replaceRow(left,     3, row(s[FRONT], 3));
+        s[FRONT]  = replaceRow(s[FRONT], 3, row(s[RIGHT], 3));
+        s[RIGHT]  = replaceRow(s[RIGHT], 3, row(s[BACK], 3));
+        s[BACK]   = replaceRow(s[BACK],  3, row(left, 3));
+        s[BOTTOM] = turn(CCW, s[BOTTOM]);
+    }
+
+    private static void D2(int[] s) {
+        int left = s[LEFT], front = s[FRONT];
+        s[LEFT]   = replaceRow(left,     3, row(s[RIGHT], 3));
+        s[FRONT]  = replaceRow(front,    3, row(s[BACK], 3));
+        s[RIGHT]  = replaceRow(s[RIGHT], 3, row(left, 3));
+        s[BACK]   = replaceRow(s[BACK],  3, row(front, 3));
+        s[BOTTOM] = turn(HALF, s[BOTTOM]);
+    }
+
+    private static void F(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    3, colCw(left, 3));
+        s[LEFT]   = replaceCol(left,   3, turnRow(CW, bottom, 1));
+        s[FRONT]  = turn(CW, s[FRONT]);
+        s[RIGHT]  = replaceCol(right,  1, turnRow(CW, top, 3));
+        s[BOTTOM] = replaceRow(bottom, 1, colCw(right, 1));
+    }
+
+    private static void _F(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    3, colCcw(right, 1));
+        s[LEFT]   = replaceCol(left,   3, turnRow(CCW, top, 3));
+        s[FRONT]  = turn(CCW, s[FRONT]);
+        s[RIGHT]  = replaceCol(right,  1, turnRow(CCW, bottom, 1));
+        s[BOTTOM] = replaceRow(bottom, 1, colCcw(left, 3));
+    }
+
+    private static void F2(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    3, row(turnRow(HALF, bottom, 1), 3));
+        s[LEFT]   = replaceCol(left,   3, col(turn(HALF, right), 3));
+        s[FRONT]  = turn(HALF, s[FRONT]);
+        s[RIGHT]  = replaceCol(right,  1, col(turn(HALF, left), 1));
+        s[BOTTOM] = replaceRow(bottom, 1, row(turnRow(HALF, top, 3), 1));
+    }
+
+    private static void B(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    1, colCcw(right, 3));
+        s[LEFT]   = replaceCol(left,   1, turnRow(CCW, top, 1));
+        s[RIGHT]  = replaceCol(right,  3, turnRow(CCW, bottom, 3));
+        s[BACK]   = turn(CW, s[BACK]);
+        s[BOTTOM] = replaceRow(bottom, 3, row(turn(CCW, left), 3));
+    }
+
+    private static void _B(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    1, colCw(left, 1));
+        s[LEFT]   = replaceCol(left,   1, col(turn(CW, bottom), 1));
+        s[RIGHT]  = replaceCol(right,  3, col(turn(CW, top), 3));
+        s[BACK]   = turn(CCW, s[BACK]);
+        s[BOTTOM] = replaceRow(bottom, 3, row(turn(CW, right), 3));
+    }
+
+    private static void B2(int[] s) {
+        int top = s[TOP], left = s[LEFT], right = s[RIGHT], bottom = s[BOTTOM];
+        s[TOP]    = replaceRow(top,    1, row(turnRow(HALF, bottom, 3), 1));
+        s[LEFT]   = replaceCol(left,   1, col(turn(HALF, right), 1));
+        s[RIGHT]  = replaceCol(right,  3, col(turn(HALF, left), 3));
+        s[BACK]   = turn(HALF, s[BACK]);
+        s[BOTTOM] = replaceRow(bottom, 3, row(turnRow(HALF, top, 1), 3));
+    }
+
+    /**
+     * Turn {@code from} and store the result in {@code to}.
+     */
+    public static void apply(int[] from, int[] to, int move) {
+        System.arraycopy(from, 0, to, 0, N_FACES);
+        apply(to, move);
+    }
+
+    /**
+     * Apply a sequence of moves in place, in order.
+     */
+    public static void apply(int[] state, int[] moves) {
+        for (int move: moves)
+            apply(state, move);
+    }
+
+    public static Cube apply(Cube cube, int move) {
+        int[] state = cube.faces();
+        apply(state, move);
+        return Cube.fromFaces(state);
+    }
+
+    /**
+     * Apply a sequence of moves, turning one state; only the result is allocated.
+     */
+    public static Cube apply(Cube cube, int[] moves) {
+        int[] state = cube.faces();
+        apply(state, moves);
+        return Cube.fromFaces(state);
+    }
+
+    /**
+     * Sticker permutation of a move; see {@link StickerProgram} for the numbering.
+     */
+    static int[] permutation(int move) {
+        return PROGRAMS[move].permutation();
+    }
+
+    static StickerProgram program(int move) {
+        return PROGRAMS[move];
+    }
+}
@@ -0,0 +1,104 @@
+package rubik;
+
+/**
+ * A cube that is turned in place, for search loops.
+ * Holds the same six packed faces as {@link Cube}, but {@link #apply(int)} and {@link #undo(int)}
+ *  overwrite them instead of allocating a new cube per move.
+ * Turns are done by {@link MoveEngine}, so results are bit-exact with the methods of {@link Cube}.
+ * Not thread-safe; give each thread its own instance.
+ */
+public final class MutableCube {
+    /**
+     * Faces in the order of {@link Cube#TOP}, ..., {@link Cube#BOTTOM}; the state of {@link MoveEngine}.
+     */
+    final int[] faces = new int[Cube.N_FACES];
+
+    public MutableCube(Cube cube) {
+        set(cube);
+    }
+
+    public MutableCube(MutableCube other) {
+        set(other);
+    }
+
+    public MutableCube set(Cube cube) {
+        faces[Cube.TOP]    = cube.top;
+        faces[Cube.LEFT]   = cube.left;
+        faces[Cube.FRONT]  = cube.front;
+        faces[Cube.RIGHT]  = cube.right;
+        faces[Cube.BACK]   = cube.back;
+        faces[Cube.BOTTOM] = cube.bottom;
+        return this;
+    }
+
+    public MutableCube set(MutableCube other) {
+        System.arraycopy(other.faces, 0, faces, 0, Cube.N_FACES);
+        return this;
+    }
+
+    public Cube toCube() {
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Turn the cube in place.
+     * @param move index of the move, see {@link Move}.
+     */
+    public MutableCube apply(int move) {
+        MoveEngine.apply(faces, move);
+        return this;
+    }
+
+    public MutableCube apply(Move move) {
+        return apply(move.index());
+    }
+
+    /**
+     * Apply a sequence of moves, in order.
+     */
+    public MutableCube apply(int[] moves) {
+        MoveEngine.apply(faces, moves);
+        return this;
+    }
+
+    /**
+     * Undo a move previously applied with {@link #apply(int)}.
+     */
+    public MutableCube undo(int move) {
+        return apply(Move.inverse(move));
+    }
+
+    /**
+     * Undo a sequence of moves previously applied with {@link #apply(int[])}.
+     */
+    public MutableCube undo(int[] moves) {
+        for (int i = moves.length - 1; i >= 0; i--)
+            undo(moves[i]);
+        return this;
+    }
+
+    /**
+     * {@link Zobrist} hash of the faces, computed from them; see {@link HashedMutableCube} for
+     *  one kept up to date by the moves.
+     */
+    public long hash() {
+        return Zobrist.hash(faces);
+    }
+
+    /**
+     * Same faces as the immutable cube.
+     */
+    public boolean sameAs(Cube cube) {
+        return faces[Cube.TOP]    == cube.top
+            && faces[Cube.LEFT]   == cube.left
+            && faces[Cube.FRONT]  == cube.front
+            && faces[Cube.RIGHT]  == cube.right
+            && faces[Cube.BACK]   == cube.back
+            && faces[Cube.BOTTOM] == cube.bottom;
+    }
+
+    @Override
+    public String toString() {
+        return toCube().toString();
+    }
+}
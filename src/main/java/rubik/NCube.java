@@ -0,0 +1,495 @@
+package rubik;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * A cube of any size from {@link #MIN_SIZE} to {@link #MAX_SIZE}, packed like {@link Cube}:
+ *  3 bits per cell, the first cell in the highest bits, but a row of a face per {@code long}.
+ * Row {@code r} of face {@code f} is at index {@code f * n + r}, faces in constructor order
+ *  of {@link Cube}.
+ *
+ * A turn is a face and a layer, counted from that face: layer 1 is the face itself, layers
+ *  2 to n - 1 are inner slices. Turns come from the geometry of {@link Symmetry}, generalized
+ *  to n cells per edge, and are compiled once per size into masks and shifts on the rows that
+ *  change, like {@link StickerProgram}. Sizes up to {@link #SMALL} turn with the code of
+ *  {@link LayerEngine} instead, which the tests check against the geometry.
+ *
+ * Notation is {@link Algorithm}'s with layers: {@code 2R} turns the second layer from R only,
+ *  {@code Rw} the two outer layers, {@code 3Rw} the three outer layers.
+ *
+ * Instances are immutable. The text format is that of {@link CubeParser}, with n cells per
+ *  row of a face.
+ */
+public final class NCube {
+    public static final int MIN_SIZE = 2;
+
+    /**
+     * 21 cells of 3 bits fit in a long.
+     */
+    public static final int MAX_SIZE = 21;
+
+    /**
+     * Sizes up to this one turn with {@link LayerEngine}.
+     */
+    static final int SMALL = 5;
+
+    /*
+     * Face letters in the order of the faces.
+     */
+    private static final String FACES = "ULFRBD";
+
+    private static final LayerTurns[] TURNS = new LayerTurns[MAX_SIZE + 1];
+
+    private final int n;
+    private final long[] rows;
+
+    private NCube(int n, long[] rows) {
+        this.n = n;
+        this.rows = rows;
+    }
+
+    private static void checkSize(int n) {
+        if (n < MIN_SIZE || n > MAX_SIZE) throw new IllegalArgumentException("Invalid size: " + n);
+    }
+
+    /**
+     * The solved cube, face {@code f} of color {@code f + 1} as in {@code /cube1/base.txt}.
+     */
+    public static NCube solved(int n) {
+        checkSize(n);
+        long[] rows = new long[N_FACES * n];
+        for (int f = 0; f < N_FACES; f++) {
+            long row = 0;
+            for (int c = 0; c < n; c++) row = row << 3 | (f + 1);
+            Arrays.fill(rows, f * n, (f + 1) * n, row);
+        }
+        return new NCube(n, rows);
+    }
+
+    public static NCube of(Cube cube) {
+        int[] faces = cube.faces();
+        long[] rows = new long[N_FACES * 3];
+        for (int f = 0; f < N_FACES; f++)
+            for (int r = 0; r < 3; r++)
+                rows[3 * f + r] = Cube.row(faces[f], r + 1);
+        return new NCube(3, rows);
+    }
+
+    /**
+     * @throws IllegalStateException if the cube is not 3x3.
+     */
+    public Cube toCube() {
+        if (n != 3) throw new IllegalStateException("Not a 3x3 cube: " + n);
+        int[] faces = new int[N_FACES];
+        for (int f = 0; f < N_FACES; f++)
+            faces[f] = Cube.makeFace((int) rows[3 * f], (int) rows[3 * f + 1], (int) rows[3 * f + 2]);
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Read one cube of size n from a classpath resource.
+     * @throws IllegalArgumentException if the resource does not hold exactly one cube.
+     */
+    public static NCube fromResource(String resourceName, int n) throws IOException {
+        var res = NCube.class.getResource(resourceName);
+        if (res == null) throw new FileNotFoundException("Resource not found: " + resourceName);
+        try (var parser = CubeParser.of(res.openStream(), resourceName)) {
+            var cube = read(parser, n);
+            long extra = parser.skipRemaining();
+            if (cube == null || extra != 0) {
+                throw new IllegalArgumentException("Invalid input data, expected one cube of " +
+                        N_FACES * n * n + " cells");
+            }
+            return cube;
+        }
+    }
+
+    /**
+     * The next cube of size n, validated.
+     * @return null at the end of the input.
+     * @throws IllegalArgumentException if the input ends in the middle of a cube.
+     */
+    public static NCube read(CubeParser parser, int n) throws IOException {
+        checkSize(n);
+        byte[] cells = new byte[N_FACES * n * n];
+        int read = parser.readCells(cells);
+        if (read == 0) return null;
+        if (read != cells.length) {
+            throw new IllegalArgumentException("Invalid input data, not enough cells." +
+                    " Expected " + cells.length + ", got " + read);
+        }
+        // the net: top, then the rows of left, front, right and back side by side, then bottom
+        long[] rows = new long[N_FACES * n];
+        int[] middle = { LEFT, FRONT, RIGHT, BACK };
+        for (int i = 0; i < cells.length; i++) {
+            int face, r, c;
+            if (i < n * n) {
+                face = TOP;
+                r = i / n;
+                c = i % n;
+            } else if (i < 5 * n * n) {
+                int j = i - n * n, row = j / (4 * n), col = j % (4 * n);
+                face = middle[col / n];
+                r = row;
+                c = col % n;
+            } else {
+                int j = i - 5 * n * n;
+                face = BOTTOM;
+                r = j / n;
+                c = j % n;
+            }
+            rows[face * n + r] |= (long) cells[i] << 3 * (n - 1 - c);
+        }
+        var cube = new NCube(n, rows);
+        cube.validate();
+        return cube;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Color of a cell; rows and columns from 1, like {@link Cube#at(int, int, int)}.
+     * @param face index of the face, in the order of the letters {@code U L F R B D}.
+     */
+    public int at(int face, int row, int col) {
+        return (int) (rows[face * n + row - 1] >>> 3 * (n - col) & 0b111);
+    }
+
+    /**
+     * Validate colors and color counts, as {@link Cube#validate()}.
+     */
+    public void validate() {
+        int[] count = new int[8];
+        for (long row: rows)
+            for (int c = 0; c < n; c++) {
+                int color = (int) (row >>> 3 * c & 0b111);
+                if (color == 0) throw new Cube.InvalidCubeException("Invalid color: " + color);
+                count[color]++;
+            }
+        for (int color = 1; color <= 6; color++)
+            if (count[color] > n * n)
+                throw new Cube.InvalidCubeException("Invalid count for color " + color + ": " + count[color]);
+    }
+
+    /**
+     * Turn one layer.
+     * @param face one of {@code U L F R B D}.
+     * @param layer 1 for the face, up to n for the opposite face.
+     * @param quarterTurns clockwise, seen from the face; negative turns are counter-clockwise.
+     */
+    public NCube turn(char face, int layer, int quarterTurns) {
+        int f = FACES.indexOf(face);
+        if (f < 0) throw new IllegalArgumentException("Invalid face: " + face);
+        if (layer < 1 || layer > n) throw new IllegalArgumentException("Invalid layer: " + layer);
+        int turns = Math.floorMod(quarterTurns, 4);
+        if (turns == 0) return this;
+        long[] out = rows.clone();
+        turn(rows, out, f, layer, turns);
+        return new NCube(n, out);
+    }
+
+    /**
+     * Apply moves in notation, see the class comment.
+     * @throws IllegalArgumentException if the notation is invalid.
+     */
+    public NCube apply(CharSequence notation) {
+        long[] from = rows.clone(), to = rows.clone();
+        for (int i = 0; i < notation.length(); ) {
+            char ch = notation.charAt(i);
+            if (Character.isWhitespace(ch) || ch == ',') {
+                i++;
+                continue;
+            }
+            int start = i, number = 0;
+            while (i < notation.length() && Character.isDigit(notation.charAt(i)))
+                number = 10 * number + notation.charAt(i++) - '0';
+            int face = i < notation.length() ? FACES.indexOf(notation.charAt(i)) : -1;
+            if (face < 0) throw invalid(notation, start);
+            i++;
+            boolean wide = i < notation.length() && notation.charAt(i) == 'w';
+            if (wide) i++;
+            int quarterTurns = 1;
+            if (i < notation.length() && notation.charAt(i) == '2') {
+                quarterTurns = 2;
+                i++;
+            }
+            if (i < notation.length() && (notation.charAt(i) == '\'' || notation.charAt(i) == '’')) {
+                quarterTurns = 4 - quarterTurns;
+                i++;
+            }
+            int first = wide ? 1 : Math.max(number, 1), last = wide ? Math.max(number, 2) : first;
+            if (last > n) throw invalid(notation, start);
+            for (int layer = first; layer <= last; layer++) {
+                turn(from, to, face, layer, quarterTurns);
+                System.arraycopy(to, 0, from, 0, from.length);
+            }
+        }
+        return new NCube(n, to);
+    }
+
+    /**
+     * Write the rows a turn changes from {@code from} into {@code to}, with {@link LayerEngine}
+     *  up to {@link #SMALL} cells per edge and with the compiled row programs above.
+     */
+    private void turn(long[] from, long[] to, int face, int layer, int turns) {
+        if (n <= SMALL) LayerEngine.of(n).turn(from, to, face, layer, turns);
+        else turns(n).program(face, layer, turns).apply(from, to);
+    }
+
+    private static IllegalArgumentException invalid(CharSequence notation, int at) {
+        return new IllegalArgumentException("Invalid notation at " + at + ": " + notation);
+    }
+
+    /**
+     * Cubes of the same size are equivalent if cells have the same colors, considering wildcards.
+     */
+    public static boolean equivalent(NCube cube1, NCube cube2) {
+        if (cube1.n != cube2.n) return false;
+        long lowBits = cellLowBits(cube1.n), mismatches = 0;
+        for (int i = 0; i < cube1.rows.length; i++)
+            mismatches |= Cube.mismatches(cube1.rows[i], cube2.rows[i], lowBits);
+        return mismatches == 0;
+    }
+
+    private static long cellLowBits(int n) {
+        long bits = 0;
+        for (int c = 0; c < n; c++) bits = bits << 3 | 1;
+        return bits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NCube that = (NCube) o;
+        return n == that.n && Arrays.equals(rows, that.rows);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * n + Arrays.hashCode(rows);
+    }
+
+    /**
+     * The net, as read by {@link #read(CubeParser, int)}.
+     */
+    @Override
+    public String toString() {
+        var sb = new StringBuilder();
+        var pad = " ".repeat(2 * n + 2);
+        var edge = "+" + "-".repeat(2 * n + 1);
+        sb.append(pad).append(edge).append("+\n");
+        appendRows(sb, pad, TOP);
+        sb.append(edge.repeat(4)).append("+\n");
+        for (int r = 0; r < n; r++) {
+            for (int face: new int[] { LEFT, FRONT, RIGHT, BACK }) {
+                sb.append('|');
+                appendCells(sb, face, r);
+                sb.append(' ');
+            }
+            sb.append("|\n");
+        }
+        sb.append(edge.repeat(4)).append("+\n");
+        appendRows(sb, pad, BOTTOM);
+        sb.append(pad).append(edge).append("+\n");
+        return sb.toString();
+    }
+
+    private void appendRows(StringBuilder sb, String pad, int face) {
+        for (int r = 0; r < n; r++) {
+            sb.append(pad).append('|');
+            appendCells(sb, face, r);
+            sb.append(" |\n");
+        }
+    }
+
+    private void appendCells(StringBuilder sb, int face, int r) {
+        for (int c = 1; c <= n; c++)
+            sb.append(' ').append(at(face, r + 1, c));
+    }
+
+    private static LayerTurns turns(int n) {
+        var turns = TURNS[n];
+        if (turns == null) {
+            synchronized (TURNS) {
+                turns = TURNS[n];
+                if (turns == null) TURNS[n] = turns = new LayerTurns(n);
+            }
+        }
+        return turns;
+    }
+
+    /**
+     * The compiled turns of every layer of one size.
+     */
+    private static final class LayerTurns {
+        private final int n;
+        private final RowProgram[] programs;
+
+        LayerTurns(int n) {
+            this.n = n;
+            programs = new RowProgram[N_FACES * n * 3];
+            for (int face = 0; face < N_FACES; face++) {
+                for (int layer = 1; layer <= n; layer++) {
+                    int[] quarter = quarterTurn(n, face, layer), perm = quarter;
+                    for (int turns = 1; turns <= 3; turns++) {
+                        programs[index(face, layer, turns)] = RowProgram.compile(n, perm);
+                        perm = then(perm, quarter);
+                    }
+                }
+            }
+        }
+
+        private int index(int face, int layer, int turns) {
+            return (face * n + layer - 1) * 3 + turns - 1;
+        }
+
+        RowProgram program(int face, int layer, int turns) {
+            return programs[index(face, layer, turns)];
+        }
+
+        private static int[] then(int[] p, int[] q) {
+            int[] result = new int[p.length];
+            for (int s = 0; s < p.length; s++) result[s] = p[q[s]];
+            return result;
+        }
+    }
+
+    /*
+     * Geometry, as in Symmetry with coordinates doubled so that cell centers are integers:
+     *  a sticker of face f is at n * normal + (2r - n + 1) * down + (2c - n + 1) * right.
+     */
+
+    /**
+     * Clockwise quarter turn of a layer: {@code perm[s]} is the sticker that moves to {@code s}.
+     */
+    static int[] quarterTurn(int n, int face, int layer) {
+        int[] axis = Symmetry.NORMAL[face];
+        int depth = n - 1 - 2 * (layer - 1);
+        int[] perm = new int[N_FACES * n * n];
+        for (int s = 0; s < perm.length; s++) {
+            int f = s / (n * n);
+            int[] p = position(n, s), normal = Symmetry.NORMAL[f];
+            int d = Symmetry.dot(p, axis);
+            boolean turns = d == depth || (layer == 1 && d == n) || (layer == n && d == -n);
+            if (turns) {
+                p = Symmetry.quarterTurn(axis, p);
+                normal = Symmetry.quarterTurn(axis, normal);
+            }
+            perm[sticker(n, p, normal)] = s;
+        }
+        return perm;
+    }
+
+    private static int[] position(int n, int sticker) {
+        int face = sticker / (n * n), row = sticker % (n * n) / n, col = sticker % n;
+        int[] p = new int[3];
+        for (int k = 0; k < 3; k++)
+            p[k] = n * Symmetry.NORMAL[face][k] + (2 * row - n + 1) * Symmetry.DOWN[face][k]
+                 + (2 * col - n + 1) * Symmetry.RIGHT_DIR[face][k];
+        return p;
+    }
+
+    private static int sticker(int n, int[] position, int[] normal) {
+        int face = Symmetry.faceOf(normal);
+        int[] d = new int[3];
+        for (int k = 0; k < 3; k++) d[k] = position[k] - n * normal[k];
+        int row = (Symmetry.dot(d, Symmetry.DOWN[face]) + n - 1) / 2;
+        int col = (Symmetry.dot(d, Symmetry.RIGHT_DIR[face]) + n - 1) / 2;
+        return (face * n + row) * n + col;
+    }
+
+    /**
+     * A sticker permutation compiled for rows: the rows that change are first cleared of the
+     *  cells they lose, then each operation moves the cells of one source row that travel the
+     *  same distance into one destination row with a mask and a shift.
+     */
+    private static final class RowProgram {
+        /*
+         * An operation is packed in an int: destination row in bits 16 and up, source row in
+         *  bits 8 to 15, shift in bits 0 to 7. A positive shift moves cells left; cells never
+         *  cross bit 0, so a rotation does both ways, and only the low 6 bits of the shift count.
+         */
+        private final int[] clear, ops;
+        private final long[] keep, opMask;
+
+        private RowProgram(int[] clear, long[] keep, int[] ops, long[] opMask) {
+            this.clear  = clear;
+            this.keep   = keep;
+            this.ops    = ops;
+            this.opMask = opMask;
+        }
+
+        static RowProgram compile(int n, int[] perm) {
+            var clear = new ArrayList<Integer>();
+            var keep = new ArrayList<Long>();
+            var dst = new ArrayList<Integer>();
+            var src = new ArrayList<Integer>();
+            var mask = new ArrayList<Long>();
+            var shift = new ArrayList<Integer>();
+            for (int row = 0; row < N_FACES * n; row++) {
+                long kept = 0;
+                int first = src.size();
+                for (int c = 0; c < n; c++) {
+                    int s = row * n + c, from = perm[s];
+                    int dstOffset = 3 * (n - 1 - c), srcOffset = 3 * (n - 1 - from % n);
+                    if (from == s) {
+                        kept |= 0b111L << dstOffset;
+                        continue;
+                    }
+                    int fromRow = from / n, by = dstOffset - srcOffset, op = first;
+                    while (op < src.size() && (src.get(op) != fromRow || shift.get(op) != by)) op++;
+                    if (op == src.size()) {
+                        dst.add(row);
+                        src.add(fromRow);
+                        shift.add(by);
+                        mask.add(0L);
+                    }
+                    mask.set(op, mask.get(op) | 0b111L << srcOffset);
+                }
+                if (src.size() > first) {
+                    clear.add(row);
+                    keep.add(kept);
+                }
+            }
+            int[] ops = new int[src.size()];
+            for (int op = 0; op < ops.length; op++)
+                ops[op] = dst.get(op) << 16 | src.get(op) << 8 | (shift.get(op) & 0xff);
+            return new RowProgram(ints(clear), longs(keep), ops, longs(mask));
+        }
+
+        private static int[] ints(ArrayList<Integer> lst) {
+            return lst.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static long[] longs(ArrayList<Long> lst) {
+            return lst.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * Write the changed rows of {@code from} into {@code to}, a different array; other rows
+         *  are left as they are.
+         */
+        void apply(long[] from, long[] to) {
+            for (int i = 0; i < clear.length; i++)
+                to[clear[i]] = from[clear[i]] & keep[i];
+            for (int i = 0; i < ops.length; i++) {
+                int op = ops[i];
+                to[op >>> 16] |= Long.rotateLeft(from[op >>> 8 & 0xff] & opMask[i], op);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package rubik;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Off-heap table of small entries, 2 or 4 bits each, for distance and pruning tables.
+ *
+ * Entries are packed into little-endian ints, lowest bits first, so a byte holds four 2-bit
+ *  or two 4-bit entries, the first one in its low bits. The ints live in direct or mapped
+ *  buffers of at most {@link #CHUNK_BYTES} each, so a table can be larger than the 2 GB of one
+ *  buffer, and the heap holds only the buffer objects whatever the size of the table.
+ * Entries are read with plain loads, and set with compare-and-set on the int holding them,
+ *  so threads of a parallel build can set entries next to each other.
+ *
+ * On Java 17 the Foreign Memory API is still incubating; direct buffers and
+ *  {@link VarHandle}s give the same off-heap layout and atomic updates.
+ */
+public final class PackedTable {
+    /**
+     * Bytes per buffer, a power of two.
+     */
+    static final int CHUNK_BYTES = 1 << 30;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long size;
+    private final int bits, mask;
+    private final ByteBuffer[] chunks;
+
+    /*
+     * Entries per byte and per int as shifts, entries per buffer as a shift, bytes of a
+     *  buffer minus one.
+     */
+    private final int byteShift, intShift, chunkShift, chunkMask;
+
+    private PackedTable(long size, int bits, ByteBuffer[] chunks, int chunkBytes) {
+        this.size = size;
+        this.bits = bits;
+        this.chunks = chunks;
+        mask = (1 << bits) - 1;
+        byteShift = Integer.numberOfTrailingZeros(Byte.SIZE / bits);
+        intShift = byteShift + 2;
+        chunkShift = Integer.numberOfTrailingZeros(chunkBytes) + byteShift;
+        chunkMask = chunkBytes - 1;
+    }
+
+    /**
+     * A table with every entry set to {@code value}.
+     * @param bits 2 or 4.
+     */
+    public static PackedTable allocate(long size, int bits, int value) {
+        return allocate(size, bits, value, CHUNK_BYTES);
+    }
+
+    /**
+     * @param chunkBytes bytes per buffer, a power of two; small for tests.
+     */
+    static PackedTable allocate(long size, int bits, int value, int chunkBytes) {
+        long bytes = bytes(size, bits);
+        var chunks = new ByteBuffer[chunkCount(bytes, chunkBytes)];
+        byte fill = fillByte(bits, value);
+        for (int i = 0; i < chunks.length; i++) {
+            int length = chunkLength(bytes, i, chunkBytes);
+            var chunk = ByteBuffer.allocateDirect(length + Integer.BYTES).alignedSlice(Integer.BYTES);
+            chunk = chunk.limit(length).slice();
+            while (chunk.hasRemaining()) chunk.put(fill);
+            chunks[i] = chunk.clear();
+        }
+        return new PackedTable(size, bits, chunks, chunkBytes);
+    }
+
+    /**
+     * Map the entries of a table written by {@link #write(FileChannel)}, read-only.
+     * The mapping stays valid after the channel is closed.
+     * @param position where the entries start in the file.
+     */
+    public static PackedTable map(FileChannel channel, long position, long size, int bits) throws IOException {
+        long bytes = bytes(size, bits);
+        var chunks = new ByteBuffer[chunkCount(bytes, CHUNK_BYTES)];
+        for (int i = 0; i < chunks.length; i++) {
+            long offset = position + (long) i * CHUNK_BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, chunkLength(bytes, i, CHUNK_BYTES));
+        }
+        return new PackedTable(size, bits, chunks, CHUNK_BYTES);
+    }
+
+    /**
+     * Bytes of a table, in whole ints for compare-and-set.
+     */
+    public static long bytes(long size, int bits) {
+        if (bits != 2 && bits != 4) throw new IllegalArgumentException("Invalid entry bits: " + bits);
+        if (size < 0) throw new IllegalArgumentException("Invalid size: " + size);
+        int perInt = Integer.SIZE / bits;
+        return (size + perInt - 1) / perInt * Integer.BYTES;
+    }
+
+    private static int chunkCount(long bytes, int chunkBytes) {
+        return (int) ((bytes + chunkBytes - 1) / chunkBytes);
+    }
+
+    private static int chunkLength(long bytes, int chunk, int chunkBytes) {
+        return (int) Math.min(chunkBytes, bytes - (long) chunk * chunkBytes);
+    }
+
+    private static byte fillByte(int bits, int value) {
+        if (value < 0 || value >= 1 << bits) throw new IllegalArgumentException("Invalid value: " + value);
+        int fill = 0;
+        for (int shift = 0; shift < 8; shift += bits) fill |= value << shift;
+        return (byte) fill;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Bits per entry, 2 or 4.
+     */
+    public int bits() {
+        return bits;
+    }
+
+    /**
+     * Bytes of the entries, off the heap.
+     */
+    public long memoryBytes() {
+        return bytes(size, bits);
+    }
+
+    public int get(long index) {
+        var chunk = chunks[(int) (index >>> chunkShift)];
+        int offset = (int) (index >>> byteShift) & chunkMask;
+        return chunk.get(offset) >>> ((int) index & (1 << byteShift) - 1) * bits & mask;
+    }
+
+    /**
+     * Set an entry that holds {@code expected}, atomically.
+     * @return false if the entry holds another value.
+     */
+    public boolean compareAndSet(long index, int expected, int value) {
+        var chunk = chunks[(int) (index >>> chunkShift)];
+        int offset = (int) (index >>> intShift << 2) & chunkMask;
+        int shift = ((int) index & (1 << intShift) - 1) * bits;
+        while (true) {
+            int word = (int) INT.getVolatile(chunk, offset);
+            if ((word >>> shift & mask) != expected) return false;
+            int updated = word & ~(mask << shift) | value << shift;
+            if (INT.compareAndSet(chunk, offset, word, updated)) return true;
+        }
+    }
+
+    /**
+     * Set an entry, atomically.
+     */
+    public void set(long index, int value) {
+        while (!compareAndSet(index, get(index), value)) Thread.onSpinWait();
+    }
+
+    /**
+     * Write the entries at the position of the channel, for {@link #map(FileChannel, long, long, int)}.
+     */
+    public void write(FileChannel channel) throws IOException {
+        for (var chunk: chunks) {
+            var entries = chunk.duplicate().clear();
+            while (entries.hasRemaining()) channel.write(entries);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package rubik;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+import static rubik.CubieCube.N_CORNERS;
+import static rubik.CubieCube.N_EDGES;
+
+/**
+ * Exact distances to the solved state of a subset of the pieces, for {@link PdbHeuristic}.
+ *
+ * The pieces are the first {@code n} corners or edges in the numbering of {@link CubieCube};
+ *  with all 8 corners it is the classic corner database of 8! * 3^7 = 88,179,840 entries.
+ * An entry is indexed by the places of the pieces, as a partial permutation, and their
+ *  orientations; distances take 4 bits each, two entries per byte, low nibble first.
+ *
+ * Databases are built by breadth-first search, one level at a time, each level scanned in
+ *  parallel with fork/join. Entries are set with compare-and-set on the int holding them,
+ *  so threads expanding into the same entry agree.
+ * Built databases live off the heap in a {@link PackedTable}; {@link #write(Path)} saves them and
+ *  {@link #load(Path)} maps the file read-only, so the heap stays small and processes on the
+ *  same host share the pages through the page cache.
+ */
+public final class PatternDatabase {
+    public enum Kind {
+        CORNERS(N_CORNERS, 3), EDGES(N_EDGES, 2);
+
+        final int nPlaces, nOrientations;
+
+        /*
+         * Place and orientation of a piece after a move, at (3 * place + orientation) * 18 + move
+         *  for corners, (2 * place + orientation) * 18 + move for edges.
+         */
+        private final byte[] moves;
+
+        Kind(int nPlaces, int nOrientations) {
+            this.nPlaces = nPlaces;
+            this.nOrientations = nOrientations;
+            moves = new byte[nPlaces * nOrientations * Move.COUNT];
+            for (int m = 0; m < Move.COUNT; m++) {
+                var move = CubieCube.move(m);
+                byte[] perm = nPlaces == N_CORNERS ? move.cp : move.ep;
+                byte[] ori  = nPlaces == N_CORNERS ? move.co : move.eo;
+                // The piece in place perm[i] goes to place i, turned by ori[i].
+                for (int i = 0; i < nPlaces; i++)
+                    for (int o = 0; o < nOrientations; o++)
+                        moves[(perm[i] * nOrientations + o) * Move.COUNT + m]
+                            = (byte) (i * nOrientations + (o + ori[i]) % nOrientations);
+            }
+        }
+
+        int move(int placeAndOrientation, int move) {
+            return moves[placeAndOrientation * Move.COUNT + move];
+        }
+    }
+
+    static final int UNKNOWN = 0xf;
+
+    private static final int MAGIC = 0x52504442;    // "RPDB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+
+    /*
+     * Entries of a leaf task of the search.
+     */
+    private static final int CHUNK = 1 << 16;
+
+    private final Kind kind;
+    private final int nPieces;
+    private final long size;
+    private final PackedTable data;
+    private final int maxDistance;
+
+    private PatternDatabase(Kind kind, int nPieces, PackedTable data, int maxDistance) {
+        this.kind = kind;
+        this.nPieces = nPieces;
+        this.size = size(kind, nPieces);
+        this.data = data;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Number of entries of a database of the first {@code nPieces} pieces.
+     */
+    public static long size(Kind kind, int nPieces) {
+        checkPieces(kind, nPieces);
+        return entries(kind, nPieces);
+    }
+
+    private static void checkPieces(Kind kind, int nPieces) {
+        if (nPieces < 1 || nPieces > kind.nPlaces)
+            throw new IllegalArgumentException("Invalid number of pieces: " + nPieces);
+    }
+
+    private static long entries(Kind kind, int nPieces) {
+        long size = 1;
+        for (int i = 0; i < nPieces; i++) size *= kind.nPlaces - i;
+        for (int i = 0; i < orientationDigits(kind, nPieces); i++) size *= kind.nOrientations;
+        return size;
+    }
+
+    /**
+     * With every piece of the kind tracked, the orientation of the last one follows from the others.
+     */
+    private static int orientationDigits(Kind kind, int nPieces) {
+        return nPieces == kind.nPlaces ? nPieces - 1 : nPieces;
+    }
+
+    public static PatternDatabase corners() {
+        return build(Kind.CORNERS, N_CORNERS, ForkJoinPool.commonPool());
+    }
+
+    public static PatternDatabase edges(int nPieces) {
+        return build(Kind.EDGES, nPieces, ForkJoinPool.commonPool());
+    }
+
+    public static PatternDatabase build(Kind kind, int nPieces, ForkJoinPool pool) {
+        var event = new Events.TableLoad();
+        event.begin();
+        long size = size(kind, nPieces);
+        var data = PackedTable.allocate(size, 4, UNKNOWN);
+
+        var db = new PatternDatabase(kind, nPieces, data, 0);
+        db.trySet(0, 0);
+        for (int depth = 0; ; depth++) {
+            if (depth + 1 == UNKNOWN) throw new IllegalStateException("Distances do not fit in 4 bits");
+            int level = depth;
+            if (LevelTask.expand(pool, size, CHUNK, (from, to) -> db.expand(level, from, to)) == 0) {
+                var built = new PatternDatabase(kind, nPieces, data, depth);
+                event.loaded(built.name(), true, built.memoryBytes());
+                return built;
+            }
+        }
+    }
+
+    /**
+     * Expands the entries at one distance in a range of indices.
+     * @return the number of entries found one move further.
+     */
+    private long expand(int depth, long from, long to) {
+        int[] places = new int[nPieces], orientations = new int[nPieces];
+        int[] turnedPlaces = new int[nPieces], turnedOrientations = new int[nPieces];
+        long found = 0;
+        for (long index = from; index < to; index++) {
+            if (distance(index) != depth) continue;
+            decode(index, places, orientations);
+            for (int move = 0; move < Move.COUNT; move++) {
+                for (int i = 0; i < nPieces; i++) {
+                    int turned = kind.move(places[i] * kind.nOrientations + orientations[i], move);
+                    turnedPlaces[i] = turned / kind.nOrientations;
+                    turnedOrientations[i] = turned % kind.nOrientations;
+                }
+                if (trySet(encode(turnedPlaces, turnedOrientations), depth + 1)) found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Set an unknown entry.
+     * @return false if the entry was already known.
+     */
+    private boolean trySet(long index, int distance) {
+        return data.compareAndSet(index, UNKNOWN, distance);
+    }
+
+    /**
+     * Index of pieces in the given places and orientations, piece {@code i} at {@code places[i]}.
+     */
+    long encode(int[] places, int[] orientations) {
+        long index = 0;
+        int used = 0;
+        for (int i = 0; i < nPieces; i++) {
+            int place = places[i];
+            index = index * (kind.nPlaces - i) + place - Integer.bitCount(used & ((1 << place) - 1));
+            used |= 1 << place;
+        }
+        for (int i = 0, n = orientationDigits(kind, nPieces); i < n; i++)
+            index = index * kind.nOrientations + orientations[i];
+        return index;
+    }
+
+    void decode(long index, int[] places, int[] orientations) {
+        int n = orientationDigits(kind, nPieces), sum = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            orientations[i] = (int) (index % kind.nOrientations);
+            sum += orientations[i];
+            index /= kind.nOrientations;
+        }
+        if (n < nPieces)
+            orientations[n] = (kind.nOrientations - sum % kind.nOrientations) % kind.nOrientations;
+
+        for (int i = nPieces - 1; i >= 0; i--) {
+            places[i] = (int) (index % (kind.nPlaces - i));
+            index /= kind.nPlaces - i;
+        }
+        // places[i] counts the free places before it; turn it into a place.
+        int used = 0;
+        for (int i = 0; i < nPieces; i++) {
+            int place = 0;
+            for (int free = places[i]; ; place++) {
+                if ((used & 1 << place) != 0) continue;
+                if (free-- == 0) break;
+            }
+            places[i] = place;
+            used |= 1 << place;
+        }
+    }
+
+    /**
+     * Index of the tracked pieces of a cube.
+     * @param places scratch space, at least {@link #pieces()} long; as {@code orientations}.
+     */
+    long index(CubieCube cube, int[] places, int[] orientations) {
+        byte[] perm = kind == Kind.CORNERS ? cube.cp : cube.ep;
+        byte[] ori  = kind == Kind.CORNERS ? cube.co : cube.eo;
+        for (int i = 0; i < kind.nPlaces; i++) {
+            int piece = perm[i];
+            if (piece < nPieces) {
+                places[piece] = i;
+                orientations[piece] = ori[i];
+            }
+        }
+        return encode(places, orientations);
+    }
+
+    public int distance(long index) {
+        return data.get(index);
+    }
+
+    /**
+     * Save to a file, to be mapped by {@link #load(Path)}.
+     */
+    public void write(Path path) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(kind.ordinal()).putInt(nPieces).putInt(maxDistance);
+        header.clear();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) channel.write(header);
+            data.write(channel);
+        }
+    }
+
+    /**
+     * Map a file written by {@link #write(Path)}.
+     * The mapping stays valid after the file is closed.
+     * @throws IOException if the file is not a database or is truncated.
+     */
+    public static PatternDatabase load(Path path) throws IOException {
+        var event = new Events.TableLoad();
+        event.begin();
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) throw new IOException("Not a pattern database: " + path);
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                throw new IOException("Not a pattern database: " + path);
+            int kindIndex = header.getInt(), nPieces = header.getInt(), maxDistance = header.getInt();
+            if (kindIndex < 0 || kindIndex >= Kind.values().length)
+                throw new IOException("Invalid pattern database kind: " + kindIndex);
+            var kind = Kind.values()[kindIndex];
+            checkPieces(kind, nPieces);
+            long size = entries(kind, nPieces);
+            if (channel.size() != HEADER_SIZE + PackedTable.bytes(size, 4))
+                throw new IOException("Truncated pattern database: " + path);
+            var db = new PatternDatabase(kind, nPieces, PackedTable.map(channel, HEADER_SIZE, size, 4), maxDistance);
+            event.loaded(db.name(), false, db.memoryBytes());
+            return db;
+        }
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * Number of tracked pieces: the first ones of the kind.
+     */
+    public int pieces() {
+        return nPieces;
+    }
+
+    /**
+     * Kind and pieces, such as "CORNERS 8".
+     */
+    String name() {
+        return kind + " " + nPieces;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Largest distance in the database.
+     */
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Bytes of the entries, off the heap.
+     */
+    public long memoryBytes() {
+        return data.memoryBytes();
+    }
+}
@@ -0,0 +1,32 @@
+package rubik;
+
+/**
+ * The largest distance of the pieces of a cube in some {@link PatternDatabase}s.
+ * Each database is exact for its pieces, so the maximum is admissible.
+ *
+ * Stickers are read into a {@link CubieCube} kept by the heuristic, with scratch arrays for
+ *  the indices, so estimates do not allocate. That state makes instances not thread-safe;
+ *  give each solver its own. The databases themselves can be shared.
+ */
+public final class PdbHeuristic implements Heuristic {
+    private final PatternDatabase[] databases;
+    private final CubieCube cubie = new CubieCube();
+    private final int[] places = new int[CubieCube.N_EDGES], orientations = new int[CubieCube.N_EDGES];
+
+    public PdbHeuristic(PatternDatabase... databases) {
+        this.databases = databases.clone();
+    }
+
+    /**
+     * @throws Cube.InvalidCubeException if the cube has a wildcard or a piece that does not exist.
+     */
+    @Override
+    public int estimate(MutableCube cube) {
+        if (!cubie.read(cube.faces))
+            throw new Cube.InvalidCubeException("Can not read the pieces of " + cube);
+        int max = 0;
+        for (var db: databases)
+            max = Math.max(max, db.distance(db.index(cubie, places, orientations)));
+        return max;
+    }
+}
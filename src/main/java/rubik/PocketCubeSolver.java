@@ -0,0 +1,353 @@
+package rubik;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static rubik.CubieCube.CORNER_FACES;
+import static rubik.CubieCube.CORNER_STICKERS;
+import static rubik.CubieCube.DBL;
+import static rubik.CubieCube.N_CORNERS;
+
+/**
+ * Optimal solutions of the 2x2 cube from the distance of every state.
+ *
+ * With the DBL corner fixed, turns of U, R and F reach all 7! * 3^6 = 3,674,160 states. A state
+ *  is indexed by the permutation of the other seven corners, as a Lehmer code, and the
+ *  twists of six of them; the seventh twist follows from the others.
+ * The table keeps each distance modulo 3 in 2 bits, 3 for states not reached yet, so it
+ *  takes 918,540 bytes. That is enough to solve: the neighbours of a state are one move
+ *  closer, as far, or one move further, and the three have different residues, so a
+ *  solution follows the neighbour whose residue is one less, a lookup per move.
+ *
+ * The table is built by breadth-first search, one level at a time, each level scanned in
+ *  parallel with fork/join as in {@link PatternDatabase}. States of the level three below
+ *  share the residue and are scanned again, but all their neighbours are known by then.
+ * {@link #write(Path)} saves it and {@link #load(Path)} maps the file read-only.
+ */
+public final class PocketCubeSolver {
+    public static final int N_STATES = 3_674_160;
+
+    static final int N_PERM = 5040;     // 7!
+    static final int N_TWIST = 729;     // 3^6
+
+    /**
+     * Moves of the 2x2 with DBL fixed, as indices of {@link Move}.
+     */
+    static final int[] MOVES = {
+        Move.U.index(), Move.U_.index(), Move.U2.index(),
+        Move.R.index(), Move._R.index(), Move.R2.index(),
+        Move.F.index(), Move._F.index(), Move.F2.index() };
+
+    static final int UNKNOWN = 3;
+
+    private static final int MAGIC = 0x52504b54;    // "RPKT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    /*
+     * Entries of a leaf task of the search.
+     */
+    private static final int CHUNK = 1 << 16;
+
+    /*
+     * Coordinates after a move, at coordinate * MOVES.length + move.
+     */
+    private static final char[] PERM_MOVE = new char[N_PERM * MOVES.length];
+    private static final char[] TWIST_MOVE = new char[N_TWIST * MOVES.length];
+
+    static {
+        byte[] cp = new byte[N_CORNERS], co = new byte[N_CORNERS];
+        byte[] turnedP = new byte[N_CORNERS], turnedO = new byte[N_CORNERS];
+        for (int m = 0; m < MOVES.length; m++) {
+            var move = CubieCube.move(MOVES[m]);
+            for (int perm = 0; perm < N_PERM; perm++) {
+                setPermutation(cp, perm);
+                for (int i = 0; i < N_CORNERS; i++) turnedP[i] = cp[move.cp[i]];
+                PERM_MOVE[perm * MOVES.length + m] = (char) permutation(turnedP);
+            }
+            for (int twist = 0; twist < N_TWIST; twist++) {
+                setTwist(co, twist);
+                for (int i = 0; i < N_CORNERS; i++) turnedO[i] = (byte) ((co[move.cp[i]] + move.co[i]) % 3);
+                TWIST_MOVE[twist * MOVES.length + m] = (char) twist(turnedO);
+            }
+        }
+    }
+
+    private final PackedTable data;
+    private final int maxDistance;
+
+    private PocketCubeSolver(PackedTable data, int maxDistance) {
+        this.data = data;
+        this.maxDistance = maxDistance;
+    }
+
+    /*
+     * Coordinates. Places and pieces other than DBL are numbered 0 to 6, DRB taking the
+     *  number of DBL.
+     */
+
+    private static int slot(int place) {
+        return place < DBL ? place : place - 1;
+    }
+
+    private static int place(int slot) {
+        return slot < DBL ? slot : slot + 1;
+    }
+
+    /**
+     * Lehmer code of the permutation of the seven corners other than DBL.
+     */
+    static int permutation(byte[] cp) {
+        int index = 0, used = 0;
+        for (int s = 0; s < 7; s++) {
+            int piece = slot(cp[place(s)]);
+            index = index * (7 - s) + piece - Integer.bitCount(used & ((1 << piece) - 1));
+            used |= 1 << piece;
+        }
+        return index;
+    }
+
+    static void setPermutation(byte[] cp, int index) {
+        int[] digits = new int[7];
+        for (int s = 6; s >= 0; s--) {
+            digits[s] = index % (7 - s);
+            index /= 7 - s;
+        }
+        int used = 0;
+        for (int s = 0; s < 7; s++) {
+            int piece = -1;
+            for (int k = digits[s]; k >= 0; k--)
+                do piece++; while ((used >> piece & 1) != 0);
+            used |= 1 << piece;
+            cp[place(s)] = (byte) place(piece);
+        }
+        cp[DBL] = DBL;
+    }
+
+    /**
+     * Twists of the first six places other than DBL, base 3, the first place in the highest digit.
+     */
+    static int twist(byte[] co) {
+        int index = 0;
+        for (int s = 0; s < 6; s++) index = 3 * index + co[place(s)];
+        return index;
+    }
+
+    static void setTwist(byte[] co, int index) {
+        int sum = 0;
+        for (int s = 5; s >= 0; s--) {
+            co[place(s)] = (byte) (index % 3);
+            sum += index % 3;
+            index /= 3;
+        }
+        co[place(6)] = (byte) ((3 - sum % 3) % 3);
+        co[DBL] = 0;
+    }
+
+    static int index(int perm, int twist) {
+        return perm * N_TWIST + twist;
+    }
+
+    /**
+     * The state after one of {@link #MOVES}.
+     */
+    static int move(int index, int move) {
+        int perm = index / N_TWIST, twist = index % N_TWIST;
+        return PERM_MOVE[perm * MOVES.length + move] * N_TWIST + TWIST_MOVE[twist * MOVES.length + move];
+    }
+
+    /**
+     * Index of a 2x2 cube. Colors are those of the DBL corner for D, B and L; U, F and R get the
+     *  colors that never share a corner with them.
+     * @throws Cube.InvalidCubeException if the cube is not a 2x2 cube that can be solved.
+     */
+    public static int index(NCube cube) {
+        if (cube.size() != 2) throw new IllegalArgumentException("Not a 2x2 cube: " + cube.size());
+        int[][] colors = new int[N_CORNERS][3];
+        int[] corners = new int[8];     // bit set of the corners with each color
+        for (int i = 0; i < N_CORNERS; i++) {
+            for (int k = 0; k < 3; k++) {
+                int sticker = CORNER_STICKERS[i][k], cell = sticker % 9;
+                int color = cube.at(sticker / 9, cell / 3 / 2 + 1, cell % 3 / 2 + 1);
+                if (color < 1 || color > 6) throw new Cube.InvalidCubeException("Invalid color at corner " + i + ": " + color);
+                colors[i][k] = color;
+                corners[color] |= 1 << i;
+            }
+        }
+        int[] faceOfColor = new int[8];
+        Arrays.fill(faceOfColor, -1);
+        int[] dbl = colors[DBL];
+        int[] fixedFaces = CORNER_FACES[DBL];
+        int[] oppositeFaces = { Cube.TOP, Cube.FRONT, Cube.RIGHT };    // of D, B, L
+        for (int k = 0; k < 3; k++) {
+            faceOfColor[dbl[k]] = fixedFaces[k];
+            int opposite = -1;
+            for (int color = 1; color <= 6; color++)
+                if (color != dbl[k] && Integer.bitCount(corners[color]) == 4 && (corners[color] & corners[dbl[k]]) == 0)
+                    opposite = color;
+            if (opposite == -1 || faceOfColor[opposite] != -1)
+                throw new Cube.InvalidCubeException("No color opposite to " + dbl[k]);
+            faceOfColor[opposite] = oppositeFaces[k];
+        }
+
+        byte[] cp = new byte[N_CORNERS], co = new byte[N_CORNERS];
+        int pieces = 0;
+        for (int i = 0; i < N_CORNERS; i++) {
+            int[] f = new int[3];
+            for (int k = 0; k < 3; k++) f[k] = faceOfColor[colors[i][k]];
+            int ori = 0;
+            while (ori < 3 && f[ori] != Cube.TOP && f[ori] != Cube.BOTTOM) ori++;
+            int piece = -1;
+            for (int j = 0; j < N_CORNERS && ori < 3; j++)
+                if (CORNER_FACES[j][0] == f[ori] && CORNER_FACES[j][1] == f[(ori + 1) % 3] && CORNER_FACES[j][2] == f[(ori + 2) % 3])
+                    piece = j;
+            if (piece == -1 || (pieces >> piece & 1) != 0)
+                throw new Cube.InvalidCubeException("Invalid corner at place " + i);
+            pieces |= 1 << piece;
+            cp[i] = (byte) piece;
+            co[i] = (byte) ori;
+        }
+        int twist = 0;
+        for (int i = 0; i < N_CORNERS; i++) twist += co[i];
+        if (twist % 3 != 0) throw new Cube.InvalidCubeException("Twisted corner, total twist " + twist % 3);
+        return index(permutation(cp), twist(co));
+    }
+
+    public static PocketCubeSolver build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    public static PocketCubeSolver build(ForkJoinPool pool) {
+        var event = new Events.TableLoad();
+        event.begin();
+        var data = PackedTable.allocate(N_STATES, 2, UNKNOWN);
+
+        var solver = new PocketCubeSolver(data, 0);
+        solver.trySet(0, 0);
+        for (int depth = 0; ; depth++) {
+            int level = depth;
+            long found = LevelTask.expand(pool, N_STATES, CHUNK,
+                                          (from, to) -> solver.expand(level, (int) from, (int) to));
+            if (found == 0) {
+                var built = new PocketCubeSolver(data, depth);
+                event.loaded("2x2", true, built.memoryBytes());
+                return built;
+            }
+        }
+    }
+
+    /**
+     * Expands the states at one distance, modulo 3, in a range of indices.
+     * @return the number of states found one move further.
+     */
+    private long expand(int depth, int from, int to) {
+        int residue = depth % 3, next = (depth + 1) % 3;
+        long found = 0;
+        for (int index = from; index < to; index++) {
+            if (residue(index) != residue) continue;
+            for (int move = 0; move < MOVES.length; move++)
+                if (trySet(move(index, move), next)) found++;
+        }
+        return found;
+    }
+
+    /**
+     * Set an unknown entry.
+     * @return false if the entry was already known.
+     */
+    private boolean trySet(int index, int residue) {
+        return data.compareAndSet(index, UNKNOWN, residue);
+    }
+
+    /**
+     * Distance modulo 3, or {@link #UNKNOWN} for states the table does not reach.
+     */
+    int residue(int index) {
+        return data.get(index);
+    }
+
+    /**
+     * An optimal solution, in moves of U, R and F.
+     * @throws Cube.InvalidCubeException if the cube is not a 2x2 cube that can be solved.
+     */
+    public Algorithm solve(NCube cube) {
+        return Algorithm.of(solve(index(cube)));
+    }
+
+    /**
+     * An optimal solution of a state, as indices of {@link Move}.
+     */
+    int[] solve(int index) {
+        int residue = residue(index);
+        if (residue == UNKNOWN) throw new IllegalStateException("State not in the table: " + index);
+        int[] moves = new int[maxDistance];
+        int n = 0;
+        while (index != 0) {
+            int closer = (residue + 2) % 3, move = 0, next;
+            while (residue(next = move(index, move)) != closer) move++;
+            moves[n++] = MOVES[move];
+            index = next;
+            residue = closer;
+        }
+        return Arrays.copyOf(moves, n);
+    }
+
+    /**
+     * Number of moves of an optimal solution.
+     */
+    public int distance(NCube cube) {
+        return solve(index(cube)).length;
+    }
+
+    /**
+     * Largest distance, God's number of the 2x2 in the half-turn metric: 11.
+     */
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    public long memoryBytes() {
+        return data.memoryBytes();
+    }
+
+    /**
+     * Save to a file, to be mapped by {@link #load(Path)}.
+     */
+    public void write(Path path) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(N_STATES).putInt(maxDistance);
+        header.clear();
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) channel.write(header);
+            data.write(channel);
+        }
+    }
+
+    /**
+     * Map a file written by {@link #write(Path)}.
+     * @throws IOException if the file is not a 2x2 table or is truncated.
+     */
+    public static PocketCubeSolver load(Path path) throws IOException {
+        var event = new Events.TableLoad();
+        event.begin();
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) throw new IOException("Not a 2x2 table: " + path);
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getInt() != N_STATES)
+                throw new IOException("Not a 2x2 table: " + path);
+            int maxDistance = header.getInt();
+            if (channel.size() != HEADER_SIZE + PackedTable.bytes(N_STATES, 2))
+                throw new IOException("Truncated 2x2 table: " + path);
+            var solver = new PocketCubeSolver(PackedTable.map(channel, HEADER_SIZE, N_STATES, 2), maxDistance);
+            event.loaded("2x2", false, solver.memoryBytes());
+            return solver;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package rubik;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static rubik.CubieCube.N_CORNERS;
+import static rubik.CubieCube.N_EDGES;
+
+/**
+ * Uniformly random legal cubes: every one of the 43,252,003,274,489,856,000 states is equally
+ *  likely, unlike the states reached by random moves.
+ *
+ * Corners and edges are shuffled and their orientations drawn at random, except that the
+ *  last twist and the last flip make the totals zero. If the corner and edge permutations
+ *  then have different parities, the last two edges are swapped; this pairs each state of
+ *  the wrong parity with one of the right parity, so the result stays uniform.
+ *
+ * Many cubes are generated in chunks of {@link #CHUNK}, each with its own
+ *  {@link SplittableRandom} split in order from the seed, so a seed gives the same cubes in
+ *  the same order whether the chunks run in parallel or not.
+ */
+public final class Scrambler {
+    /**
+     * Cubes per generator.
+     */
+    static final int CHUNK = 1 << 14;
+
+    private final int[] colors;
+
+    /**
+     * Scrambles with the colors of {@code /cube1/base.txt}: U 1, L 2, F 3, R 4, B 5, D 6.
+     */
+    public Scrambler() {
+        colors = CubieCube.DEFAULT_COLORS.clone();
+    }
+
+    /**
+     * Scrambles with the center colors of a cube.
+     * @throws Cube.InvalidCubeException if the centers do not have six different colors.
+     */
+    public Scrambler(Cube scheme) {
+        int[] faces = scheme.faces();
+        colors = new int[Cube.N_FACES];
+        int seen = 0;
+        for (int face = 0; face < Cube.N_FACES; face++) {
+            int color = StickerProgram.color(faces, 9 * face + 4);
+            if (color < 1 || color > 6 || (seen >> color & 1) != 0)
+                throw new Cube.InvalidCubeException("Invalid center color on face " + face + ": " + color);
+            seen |= 1 << color;
+            colors[face] = color;
+        }
+    }
+
+    public Cube next(SplittableRandom rnd) {
+        var cube = new CubieCube(colors);
+        randomize(cube, rnd);
+        return cube.toCube();
+    }
+
+    /**
+     * Replace the pieces of a cube with a uniformly random legal state.
+     */
+    static void randomize(CubieCube cube, SplittableRandom rnd) {
+        shuffle(cube.cp, rnd);
+        shuffle(cube.ep, rnd);
+        int twist = 0, flip = 0;
+        for (int i = 0; i < N_CORNERS - 1; i++) twist += cube.co[i] = (byte) rnd.nextInt(3);
+        cube.co[N_CORNERS - 1] = (byte) ((3 - twist % 3) % 3);
+        for (int i = 0; i < N_EDGES - 1; i++) flip += cube.eo[i] = (byte) rnd.nextInt(2);
+        cube.eo[N_EDGES - 1] = (byte) (flip & 1);
+        if (cube.cornerParity() != cube.edgeParity()) {
+            byte t = cube.ep[N_EDGES - 1];
+            cube.ep[N_EDGES - 1] = cube.ep[N_EDGES - 2];
+            cube.ep[N_EDGES - 2] = t;
+        }
+    }
+
+    /**
+     * Fisher-Yates shuffle of the identity.
+     */
+    private static void shuffle(byte[] perm, SplittableRandom rnd) {
+        for (int i = 0; i < perm.length; i++) {
+            int j = rnd.nextInt(i + 1);
+            perm[i] = perm[j];
+            perm[j] = (byte) i;
+        }
+    }
+
+    /**
+     * One generator per chunk of {@code count} cubes, split in order from one seeded generator.
+     */
+    private static SplittableRandom[] generators(long count, long seed) {
+        long chunks = (count + CHUNK - 1) / CHUNK;
+        if (count < 0 || chunks > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid count: " + count);
+        var root = new SplittableRandom(seed);
+        var generators = new SplittableRandom[(int) chunks];
+        for (int i = 0; i < generators.length; i++)
+            generators[i] = root.split();
+        return generators;
+    }
+
+    /**
+     * {@code count} random cubes from a seed, as a parallel stream.
+     */
+    public Stream<Cube> stream(long count, long seed) {
+        var generators = generators(count, seed);
+        return IntStream.range(0, generators.length).parallel()
+            .mapToObj(chunk -> {
+                var rnd = generators[chunk];
+                int size = (int) Math.min(CHUNK, count - (long) chunk * CHUNK);
+                return IntStream.range(0, size).mapToObj(i -> next(rnd));
+            })
+            .flatMap(chunk -> chunk);
+    }
+
+    /**
+     * Fill every record of a file with random cubes from a seed, in parallel; the records are
+     *  the cubes of {@link #stream(long, long)} with the same seed, without making them.
+     */
+    public void fill(CubeFile file, long seed) {
+        var generators = generators(file.count(), seed);
+        IntStream.range(0, generators.length).parallel().forEach(chunk -> {
+            var rnd = generators[chunk];
+            var cube = new CubieCube(colors);
+            int[] faces = new int[Cube.N_FACES];
+            long first = (long) chunk * CHUNK, last = Math.min(first + CHUNK, file.count());
+            for (long index = first; index < last; index++) {
+                randomize(cube, rnd);
+                cube.toFaces(faces);
+                file.set(index, faces);
+            }
+        });
+    }
+}
@@ -0,0 +1,219 @@
+package rubik;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Solver counters for JMX, under {@link #OBJECT_NAME}.
+ *
+ * Solvers count nodes and prunes in their own fields while they search, and report once at
+ *  the end of each solve; while the metrics are disabled, that report is one volatile read.
+ * {@link #register()} registers the bean with the platform MBean server and enables the
+ *  metrics. Latencies go into a histogram of four buckets per power of two, so percentiles
+ *  are within about 12% of the true value.
+ */
+public final class SolverMetrics implements SolverMetricsMXBean {
+    public static final String OBJECT_NAME = "rubik:type=SolverMetrics";
+
+    /*
+     * Latency buckets: 0 to 3 ns, then four per power of two.
+     */
+    private static final int SUB_BUCKETS = 4, BUCKETS = 4 + SUB_BUCKETS * 62;
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    private static volatile boolean enabled;
+
+    private final LongAdder solves = new LongAdder(), failures = new LongAdder();
+    private final LongAdder nodes = new LongAdder(), prunes = new LongAdder();
+    private final LongAdder nanos = new LongAdder(), depths = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+
+    private SolverMetrics() {}
+
+    public static SolverMetrics get() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SolverMetrics.enabled = enabled;
+    }
+
+    /**
+     * Register with the platform MBean server, if not already, and enable the metrics.
+     * @throws IllegalStateException if the server refuses the bean.
+     */
+    public static synchronized void register() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, ex);
+        }
+        enabled = true;
+    }
+
+    /**
+     * Disable the metrics and unregister, if registered.
+     */
+    public static synchronized void unregister() {
+        enabled = false;
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (JMException ex) {
+            throw new IllegalStateException("Cannot unregister " + OBJECT_NAME, ex);
+        }
+    }
+
+    /**
+     * End of a solve: commit the JFR event if it is enabled, count it if the metrics are.
+     * @param started {@link System#nanoTime()} at the start of the solve.
+     * @param length moves of the solution, -1 if none was found.
+     */
+    static void solved(Events.Solve event, String solver, long started,
+                       long nodes, long prunes, int depth, int length) {
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.nodes = nodes;
+            event.prunes = prunes;
+            event.depth = depth;
+            event.length = length;
+            event.commit();
+        }
+        if (enabled) INSTANCE.record(System.nanoTime() - started, nodes, prunes, depth, length >= 0);
+    }
+
+    void record(long nanos, long nodes, long prunes, int depth, boolean found) {
+        solves.increment();
+        if (!found) failures.increment();
+        this.nodes.add(nodes);
+        this.prunes.add(prunes);
+        this.nanos.add(nanos);
+        depths.add(depth);
+        maxDepth.accumulateAndGet(depth, Math::max);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        latencies.incrementAndGet(bucket(nanos));
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 4) return (int) Math.max(nanos, 0);
+        int log = 63 - Long.numberOfLeadingZeros(nanos);
+        return SUB_BUCKETS * (log - 1) + (int) (nanos >>> (log - 2) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Middle of the values of a bucket.
+     */
+    static double bucketValue(int bucket) {
+        if (bucket < 4) return bucket;
+        int log = bucket / SUB_BUCKETS + 1, sub = bucket % SUB_BUCKETS;
+        long low = (long) (SUB_BUCKETS + sub) << (log - 2);
+        return low + (double) (1L << (log - 2)) / 2;
+    }
+
+    /**
+     * @param fraction 0 to 1.
+     */
+    double latencyPercentileMillis(double fraction) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += latencies.get(i);
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total)), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += latencies.get(i);
+            if (seen >= rank) return Math.min(bucketValue(i), maxNanos.get()) / 1e6;
+        }
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public long getSolves() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getNodesExpanded() {
+        return nodes.sum();
+    }
+
+    @Override
+    public double getNodesPerSecond() {
+        long ns = nanos.sum();
+        return ns == 0 ? 0 : nodes.sum() * 1e9 / ns;
+    }
+
+    @Override
+    public double getPruneRate() {
+        long n = nodes.sum();
+        return n == 0 ? 0 : (double) prunes.sum() / n;
+    }
+
+    @Override
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    @Override
+    public double getMeanDepth() {
+        long n = solves.sum();
+        return n == 0 ? 0 : (double) depths.sum() / n;
+    }
+
+    @Override
+    public double getAlgorithmCacheHitRate() {
+        long hits = Algorithm.cacheHits(), lookups = hits + Algorithm.cacheMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latencyPercentileMillis(0.5);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return latencyPercentileMillis(0.9);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latencyPercentileMillis(0.99);
+    }
+
+    @Override
+    public double getLatencyMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        failures.reset();
+        nodes.reset();
+        prunes.reset();
+        nanos.reset();
+        depths.reset();
+        maxDepth.set(0);
+        maxNanos.set(0);
+        for (int i = 0; i < BUCKETS; i++) latencies.set(i, 0);
+    }
+}
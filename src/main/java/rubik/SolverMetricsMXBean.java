@@ -0,0 +1,48 @@
+package rubik;
+
+/**
+ * Counters of the solvers since the metrics were enabled or reset, see {@link SolverMetrics}.
+ */
+public interface SolverMetricsMXBean {
+    long getSolves();
+
+    /**
+     * Solves that gave up without a solution, out of time or depth.
+     */
+    long getFailures();
+
+    long getNodesExpanded();
+
+    /**
+     * Nodes expanded per second of solving.
+     */
+    double getNodesPerSecond();
+
+    /**
+     * Fraction of the nodes cut off by the heuristic.
+     */
+    double getPruneRate();
+
+    /**
+     * Deepest bound searched by any solve.
+     */
+    int getMaxDepth();
+
+    double getMeanDepth();
+
+    /**
+     * Fraction of {@link Algorithm#of(String)} calls answered by its cache, since the start of
+     *  the process.
+     */
+    double getAlgorithmCacheHitRate();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,49 @@
+package rubik;
+
+/**
+ * Cheap bound from stickers that do not match the center of their face.
+ * A turn moves 12 corner stickers and 8 edge stickers, so at least
+ *  {@code ceil(corners / 12)} and {@code ceil(edges / 8)} more turns are needed.
+ * Counting is done on the packed faces, all nine cells at once.
+ */
+final class StickerHeuristic implements Heuristic {
+    /**
+     * Lowest bit of every cell.
+     */
+    static final int LOW_BITS = 0b001_001_001__001_001_001__001_001_001;
+
+    /**
+     * Lowest bit of the corner cells and of the edge cells; centers are left out.
+     */
+    private static final int CORNERS = 0b001_000_001__000_000_000__001_000_001;
+    private static final int EDGES   = 0b000_001_000__001_000_001__000_001_000;
+
+    /**
+     * Lowest bit of each cell that differs from the center of the face.
+     */
+    static int misplaced(int face) {
+        int center = (face >>> 12) & 0b111;
+        int x = face ^ (center * LOW_BITS);
+        return (x | (x >>> 1) | (x >>> 2)) & LOW_BITS;
+    }
+
+    @Override
+    public int estimate(MutableCube cube) {
+        int corners = 0, edges = 0;
+        for (int face: cube.faces) {
+            int m = misplaced(face);
+            corners += Integer.bitCount(m & CORNERS);
+            edges   += Integer.bitCount(m & EDGES);
+        }
+        return Math.max((corners + 11) / 12, (edges + 7) / 8);
+    }
+
+    /**
+     * Every sticker has the color of its center.
+     */
+    static boolean isSolved(int[] faces) {
+        for (int face: faces)
+            if (misplaced(face) != 0) return false;
+        return true;
+    }
+}
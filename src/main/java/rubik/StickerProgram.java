@@ -0,0 +1,266 @@
+package rubik;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.function.UnaryOperator;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * A permutation of the 54 stickers compiled into a few operations on the packed faces.
+ *
+ * Stickers are numbered {@code 9 * face + 3 * (row - 1) + (col - 1)}, faces in the order of
+ *  {@link Cube#TOP}, ..., {@link Cube#BOTTOM}.
+ * A permutation {@code perm} says where each sticker comes from: the new sticker {@code s}
+ *  is the old sticker {@code perm[s]}.
+ *
+ * For each destination face, stickers are grouped by source face.
+ * Inside a group, stickers that move by the same number of bits are moved together with
+ *  one mask and one shift.
+ * Groups that need more than {@link #MAX_SHIFTS} shifts (face rotations) are compiled into
+ *  three 512-entry tables, one per row of the source face, instead.
+ */
+final class StickerProgram {
+    static final int N_STICKERS = 9 * N_FACES;
+
+    /**
+     * Above this number of distinct shifts in a group, three table lookups are cheaper.
+     */
+    static final int MAX_SHIFTS = 3;
+
+    private static final int ROW_VALUES = 1 << 9;
+
+    /*
+     * Shift operations of destination face d are at indices shiftStart[d] to shiftStart[d + 1] - 1.
+     * Same for table operations.
+     */
+    private final int[] shiftStart, shiftSrc, shiftMask, shiftBy;
+    private final int[] tableStart, tableSrc;
+    private final int[][] tables;
+
+    private final int[] perm;
+
+    private StickerProgram(int[] perm,
+                           int[] shiftStart, int[] shiftSrc, int[] shiftMask, int[] shiftBy,
+                           int[] tableStart, int[] tableSrc, int[][] tables) {
+        this.perm       = perm;
+        this.shiftStart = shiftStart;
+        this.shiftSrc   = shiftSrc;
+        this.shiftMask  = shiftMask;
+        this.shiftBy    = shiftBy;
+        this.tableStart = tableStart;
+        this.tableSrc   = tableSrc;
+        this.tables     = tables;
+    }
+
+    /**
+     * Bit offset of the cell in its face.
+     */
+    static int offset(int sticker) {
+        return 3 * (8 - sticker % 9);
+    }
+
+    /**
+     * Color of a sticker.
+     */
+    static int color(int[] faces, int sticker) {
+        return (faces[sticker / 9] >>> offset(sticker)) & 0b111;
+    }
+
+    /**
+     * Permutation of the stickers done by a function on cubes, found by following
+     *  one marked sticker at a time.
+     * The function must only move cells around, as the turns of {@link Cube} do.
+     */
+    static int[] permutationOf(UnaryOperator<Cube> f) {
+        int[] perm = new int[N_STICKERS];
+        Arrays.fill(perm, -1);
+        for (int src = 0; src < N_STICKERS; src++) {
+            int[] faces = new int[N_FACES];
+            faces[src / 9] = 1 << offset(src);
+            int[] moved = f.apply(Cube.fromFaces(faces)).faces();
+            for (int dst = 0; dst < N_STICKERS; dst++) {
+                if (color(moved, dst) != 0) {
+                    if (perm[dst] != -1) throw new IllegalStateException("Not a permutation: " + dst);
+                    perm[dst] = src;
+                }
+            }
+        }
+        return perm;
+    }
+
+    static StickerProgram compile(int[] perm) {
+        checkPermutation(perm);
+
+        var shiftSrc = new ArrayList<Integer>();
+        var shiftMask = new ArrayList<Integer>();
+        var shiftBy = new ArrayList<Integer>();
+        var tableSrc = new ArrayList<Integer>();
+        var tables = new ArrayList<int[]>();
+        int[] shiftStart = new int[N_FACES + 1];
+        int[] tableStart = new int[N_FACES + 1];
+
+        for (int dstFace = 0; dstFace < N_FACES; dstFace++) {
+            shiftStart[dstFace] = shiftSrc.size();
+            tableStart[dstFace] = tableSrc.size();
+            for (int srcFace = 0; srcFace < N_FACES; srcFace++) {
+                int[][] groups = shiftGroups(perm, dstFace, srcFace);
+                if (groups.length == 0) continue;
+
+                if (groups.length > MAX_SHIFTS) {
+                    tableSrc.add(srcFace);
+                    tables.add(rowTables(perm, dstFace, srcFace));
+                    continue;
+                }
+                for (int[] group: groups) {
+                    shiftSrc.add(srcFace);
+                    shiftMask.add(group[0]);
+                    shiftBy.add(group[1]);
+                }
+            }
+        }
+        shiftStart[N_FACES] = shiftSrc.size();
+        tableStart[N_FACES] = tableSrc.size();
+
+        return new StickerProgram(perm.clone(),
+            shiftStart, toArray(shiftSrc), toArray(shiftMask), toArray(shiftBy),
+            tableStart, toArray(tableSrc), tables.toArray(new int[0][]));
+    }
+
+    static void checkPermutation(int[] perm) {
+        if (perm.length != N_STICKERS) throw new IllegalArgumentException("Invalid permutation length: " + perm.length);
+        var seen = new boolean[N_STICKERS];
+        for (int src: perm) {
+            if (src < 0 || src >= N_STICKERS || seen[src])
+                throw new IllegalArgumentException("Not a permutation: " + Arrays.toString(perm));
+            seen[src] = true;
+        }
+    }
+
+    /**
+     * Stickers going from one face to another, grouped by the number of bits they move.
+     * Each group is {@code {mask, shift}}: the mask selects the cells of the source face,
+     *  the shift is a left rotation taking them to their place in the destination face.
+     */
+    static int[][] shiftGroups(int[] perm, int dstFace, int srcFace) {
+        var shifts = new LinkedHashSet<Integer>();
+        for (int cell = 0; cell < 9; cell++) {
+            int dst = 9 * dstFace + cell, src = perm[dst];
+            if (src / 9 == srcFace)
+                shifts.add(offset(dst) - offset(src));
+        }
+        int[][] groups = new int[shifts.size()][];
+        int i = 0;
+        for (int shift: shifts) {
+            int mask = 0;
+            for (int cell = 0; cell < 9; cell++) {
+                int dst = 9 * dstFace + cell, src = perm[dst];
+                if (src / 9 == srcFace && offset(dst) - offset(src) == shift)
+                    mask |= 0b111 << offset(src);
+            }
+            groups[i++] = new int[] { mask, shift };
+        }
+        return groups;
+    }
+
+    /**
+     * Three tables of 512 entries: the contribution to the destination face of each value
+     *  of rows 1, 2, 3 of the source face.
+     */
+    static int[] rowTables(int[] perm, int dstFace, int srcFace) {
+        int[] table = new int[3 * ROW_VALUES];
+        for (int row = 0; row < 3; row++) {
+            for (int value = 0; value < ROW_VALUES; value++) {
+                int srcFaceValue = value << (9 * (2 - row));
+                int out = 0;
+                for (int cell = 0; cell < 9; cell++) {
+                    int dst = 9 * dstFace + cell, src = perm[dst];
+                    if (src / 9 == srcFace && (src % 9) / 3 == row) {
+                        int color = (srcFaceValue >>> offset(src)) & 0b111;
+                        out |= color << offset(dst);
+                    }
+                }
+                table[row * ROW_VALUES + value] = out;
+            }
+        }
+        return table;
+    }
+
+    private static int[] toArray(ArrayList<Integer> lst) {
+        int[] arr = new int[lst.size()];
+        for (int i = 0; i < arr.length; i++)
+            arr[i] = lst.get(i);
+        return arr;
+    }
+
+    int[] permutation() {
+        return perm.clone();
+    }
+
+    /**
+     * New value of face {@code dst}, reading the faces before the permutation.
+     */
+    int face(int[] faces, int dst) {
+        int acc = 0;
+        for (int i = shiftStart[dst], end = shiftStart[dst + 1]; i < end; i++)
+            acc |= Integer.rotateLeft(faces[shiftSrc[i]] & shiftMask[i], shiftBy[i]);
+        for (int i = tableStart[dst], end = tableStart[dst + 1]; i < end; i++)
+            acc |= lookup(tables[i], faces[tableSrc[i]]);
+        return acc;
+    }
+
+    /**
+     * Contribution of a source face through its row tables.
+     */
+    static int lookup(int[] table, int face) {
+        return table[face >>> 18]
+             | table[ROW_VALUES + ((face >>> 9) & 0x1ff)]
+             | table[2 * ROW_VALUES + (face & 0x1ff)];
+    }
+
+    /**
+     * Permute the stickers in place.
+     */
+    void apply(int[] faces) {
+        int top    = face(faces, TOP)
+          , left   = face(faces, LEFT)
+          , front  = face(faces, FRONT)
+          , right  = face(faces, RIGHT)
+          , back   = face(faces, BACK)
+          , bottom = face(faces, BOTTOM);
+        faces[TOP]    = top;
+        faces[LEFT]   = left;
+        faces[FRONT]  = front;
+        faces[RIGHT]  = right;
+        faces[BACK]   = back;
+        faces[BOTTOM] = bottom;
+    }
+
+    /**
+     * Permute the stickers of {@code from} into {@code to}; arrays must not be the same.
+     */
+    void apply(int[] from, int[] to) {
+        for (int dst = 0; dst < N_FACES; dst++)
+            to[dst] = face(from, dst);
+    }
+
+    Cube apply(Cube cube) {
+        int[] faces = cube.faces();
+        apply(faces);
+        return Cube.fromFaces(faces);
+    }
+
+    /**
+     * Number of shift and table operations; a rough cost of the program.
+     */
+    int size() {
+        return shiftSrc.length + tableSrc.length;
+    }
+}
@@ -0,0 +1,366 @@
+package rubik;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * The 48 symmetries of the cube: 24 rotations of the whole cube and their mirror images.
+ *
+ * Symmetries come from geometry. Each sticker has a place in space, a cubie position with
+ *  coordinates in {-1, 0, 1} and the outward normal of its face, with x towards R, y towards U
+ *  and z towards F. A symmetry is a signed permutation matrix, and moves the sticker at
+ *  {@code (p, n)} to {@code (Mp, Mn)}. The turns of {@link Cube} are checked against the same
+ *  geometry when the class loads.
+ *
+ * {@link #apply(Cube)} conjugates: it moves the stickers, then relabels the colors so that
+ *  the centers keep their colors. The result is the same position seen from another side,
+ *  solvable exactly when the original is, and cubes one symmetry apart need the same number
+ *  of moves. {@link #canonical(Cube)} picks one cube out of the up to 48, so tables keyed on
+ *  it need one entry where they needed 48.
+ *
+ * Colors are relabelled by the centers: the six centers must have six different colors.
+ *  The wildcard color is kept as it is on the other stickers.
+ */
+public final class Symmetry {
+    public static final int COUNT = 48;
+
+    /**
+     * Symmetries 0 to ROTATIONS - 1 are rotations, the others reflections; symmetry 0 is the identity.
+     */
+    public static final int ROTATIONS = 24;
+
+    private static final int N = StickerProgram.N_STICKERS;
+    private static final int WILDCARD = 7;
+    private static final int ROW_VALUES = 1 << 9;
+
+    /*
+     * Geometry of the faces, see position(int): outward normal, direction of increasing rows
+     *  and of increasing columns, indexed by face.
+     */
+    static final int[][] NORMAL = new int[N_FACES][], DOWN = new int[N_FACES][], RIGHT_DIR = new int[N_FACES][];
+
+    static {
+        face(TOP,    new int[] { 0, 1, 0 },  new int[] { 0, 0, 1 },  new int[] { 1, 0, 0 });
+        face(BOTTOM, new int[] { 0, -1, 0 }, new int[] { 0, 0, -1 }, new int[] { 1, 0, 0 });
+        face(FRONT,  new int[] { 0, 0, 1 },  new int[] { 0, -1, 0 }, new int[] { 1, 0, 0 });
+        face(BACK,   new int[] { 0, 0, -1 }, new int[] { 0, -1, 0 }, new int[] { -1, 0, 0 });
+        face(LEFT,   new int[] { -1, 0, 0 }, new int[] { 0, -1, 0 }, new int[] { 0, 0, 1 });
+        face(RIGHT,  new int[] { 1, 0, 0 },  new int[] { 0, -1, 0 }, new int[] { 0, 0, -1 });
+    }
+
+    private static void face(int face, int[] normal, int[] down, int[] right) {
+        NORMAL[face] = normal;
+        DOWN[face] = down;
+        RIGHT_DIR[face] = right;
+    }
+
+    private static final Symmetry[] ALL = new Symmetry[COUNT];
+
+    /*
+     * Composition table: THEN[a * COUNT + b] is the index of a followed by b.
+     */
+    private static final byte[] THEN = new byte[COUNT * COUNT];
+
+    static {
+        checkTurns();
+
+        var matrices = new ArrayList<int[]>();
+        int[][] axisOrders = { {0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0} };
+        for (int det = 1; det >= -1; det -= 2) {
+            for (int[] axes: axisOrders) {
+                for (int signs = 0; signs < 8; signs++) {
+                    int[] m = new int[9];
+                    for (int row = 0; row < 3; row++)
+                        m[3 * row + axes[row]] = (signs >> row & 1) == 0 ? 1 : -1;
+                    if (determinant(m) == det) matrices.add(m);
+                }
+            }
+        }
+        for (int i = 0; i < COUNT; i++)
+            ALL[i] = new Symmetry(i, matrices.get(i));
+        for (var a: ALL)
+            for (var b: ALL)
+                THEN[a.index * COUNT + b.index] = (byte) find(product(b.matrix, a.matrix));
+    }
+
+    private final int index;
+    private final int[] matrix;
+    private final CubePermutation permutation;
+
+    /*
+     * Relabeling of normalized colors, see normalize(): face f + 1 becomes face image(f) + 1.
+     */
+    private final int[] faceImage = new int[N_FACES];
+    private final char[] rowRelabel = new char[ROW_VALUES];
+
+    private Symmetry(int index, int[] matrix) {
+        this.index = index;
+        this.matrix = matrix;
+
+        int[] perm = new int[N];
+        for (int s = 0; s < N; s++)
+            perm[sticker(multiply(matrix, position(s)), multiply(matrix, NORMAL[s / 9]))] = s;
+        permutation = CubePermutation.of(perm);
+
+        for (int f = 0; f < N_FACES; f++)
+            faceImage[f] = faceOf(multiply(matrix, NORMAL[f]));
+        int[] colorMap = new int[8];
+        for (int c = 0; c < 8; c++) colorMap[c] = c;
+        for (int f = 0; f < N_FACES; f++) colorMap[f + 1] = faceImage[f] + 1;
+        for (int row = 0; row < ROW_VALUES; row++) {
+            int out = 0;
+            for (int cell = 0; cell < 3; cell++)
+                out |= colorMap[row >>> 3 * cell & 0b111] << 3 * cell;
+            rowRelabel[row] = (char) out;
+        }
+    }
+
+    /**
+     * @param index 0 to {@link #COUNT} - 1.
+     */
+    public static Symmetry of(int index) {
+        return ALL[index];
+    }
+
+    public static Symmetry identity() {
+        return ALL[0];
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public boolean isReflection() {
+        return index >= ROTATIONS;
+    }
+
+    /**
+     * This symmetry followed by {@code next}.
+     */
+    public Symmetry then(Symmetry next) {
+        return ALL[THEN[index * COUNT + next.index]];
+    }
+
+    public Symmetry inverse() {
+        for (var s: ALL)
+            if (THEN[index * COUNT + s.index] == 0) return s;
+        throw new IllegalStateException("No inverse: " + index);
+    }
+
+    /**
+     * Where the stickers go, without relabeling colors: the cube as seen after the rotation or
+     *  in the mirror. Centers move.
+     */
+    public CubePermutation permutation() {
+        return permutation;
+    }
+
+    /**
+     * The matrix, row by row, acting on (x, y, z) with x towards R, y towards U, z towards F.
+     */
+    public int[] matrix() {
+        return matrix.clone();
+    }
+
+    /**
+     * The cube conjugated by this symmetry: stickers moved, then colors relabeled so the
+     *  centers keep their colors.
+     * @throws Cube.InvalidCubeException if two centers have the same color or a center is a wildcard.
+     */
+    public Cube apply(Cube cube) {
+        int[] palette = new int[N_FACES];
+        int[] faces = normalize(cube, palette);
+        int[] out = new int[N_FACES];
+        applyNormalized(faces, out);
+        return denormalize(out, palette);
+    }
+
+    /**
+     * Faces of a normalized cube after the symmetry, into {@code out}.
+     */
+    private void applyNormalized(int[] faces, int[] out) {
+        var program = permutation.program();
+        for (int f = 0; f < N_FACES; f++)
+            out[f] = relabel(program.face(faces, f));
+    }
+
+    private int relabel(int face) {
+        return rowRelabel[face >>> 18] << 18 | rowRelabel[face >>> 9 & 0x1ff] << 9 | rowRelabel[face & 0x1ff];
+    }
+
+    /**
+     * A cube and the symmetry that maps the cube it was made from to it.
+     */
+    public record Canonical(Cube cube, Symmetry symmetry) {}
+
+    /**
+     * The representative of the cubes one symmetry apart from this one: the one whose packed
+     *  words, see {@link Cube#pack(int, int)}, are smallest with the colors numbered by face.
+     * Cubes with the same center colors have the same representative exactly when a symmetry
+     *  maps one to the other.
+     * @throws Cube.InvalidCubeException if two centers have the same color or a center is a wildcard.
+     */
+    public static Canonical canonical(Cube cube) {
+        int[] palette = new int[N_FACES];
+        int[] faces = normalize(cube, palette);
+        int[] out = new int[N_FACES], best = faces.clone();
+        int bestIndex = 0;
+        for (int i = 1; i < COUNT; i++) {
+            ALL[i].applyNormalized(faces, out);
+            if (compare(out, best) < 0) {
+                System.arraycopy(out, 0, best, 0, N_FACES);
+                bestIndex = i;
+            }
+        }
+        return new Canonical(denormalize(best, palette), ALL[bestIndex]);
+    }
+
+    private static int compare(int[] a, int[] b) {
+        int c = Long.compare(Cube.pack(a[TOP], a[LEFT]), Cube.pack(b[TOP], b[LEFT]));
+        if (c == 0) c = Long.compare(Cube.pack(a[FRONT], a[RIGHT]), Cube.pack(b[FRONT], b[RIGHT]));
+        if (c == 0) c = Long.compare(Cube.pack(a[BACK], a[BOTTOM]), Cube.pack(b[BACK], b[BOTTOM]));
+        return c;
+    }
+
+    /**
+     * Faces with colors numbered by face: the color of the center of face f becomes f + 1.
+     * @param palette set to the color of each center.
+     */
+    private static int[] normalize(Cube cube, int[] palette) {
+        int[] faces = cube.faces();
+        int[] map = new int[8];
+        map[WILDCARD] = WILDCARD;
+        for (int f = 0; f < N_FACES; f++) {
+            int color = StickerProgram.color(faces, 9 * f + 4);
+            if (color == WILDCARD || map[color] != 0)
+                throw new Cube.InvalidCubeException("Centers need six different colors for symmetries, face " + f);
+            map[color] = f + 1;
+            palette[f] = color;
+        }
+        for (int f = 0; f < N_FACES; f++)
+            faces[f] = recolor(faces[f], map);
+        return faces;
+    }
+
+    private static Cube denormalize(int[] faces, int[] palette) {
+        int[] map = new int[8];
+        map[WILDCARD] = WILDCARD;
+        for (int f = 0; f < N_FACES; f++) map[f + 1] = palette[f];
+        int[] out = new int[N_FACES];
+        for (int f = 0; f < N_FACES; f++)
+            out[f] = recolor(faces[f], map);
+        return Cube.fromFaces(out);
+    }
+
+    private static int recolor(int face, int[] map) {
+        int out = 0;
+        for (int cell = 0; cell < 9; cell++)
+            out |= map[face >>> 3 * cell & 0b111] << 3 * cell;
+        return out;
+    }
+
+    /*
+     * Geometry.
+     */
+
+    /**
+     * Cubie position of a sticker.
+     */
+    static int[] position(int sticker) {
+        int face = sticker / 9, row = sticker % 9 / 3, col = sticker % 3;
+        int[] p = new int[3];
+        for (int k = 0; k < 3; k++)
+            p[k] = NORMAL[face][k] + (row - 1) * DOWN[face][k] + (col - 1) * RIGHT_DIR[face][k];
+        return p;
+    }
+
+    /**
+     * Sticker at a cubie position, on the face with the given normal.
+     */
+    static int sticker(int[] position, int[] normal) {
+        int face = faceOf(normal);
+        int[] d = new int[3];
+        for (int k = 0; k < 3; k++) d[k] = position[k] - normal[k];
+        int row = dot(d, DOWN[face]) + 1, col = dot(d, RIGHT_DIR[face]) + 1;
+        return 9 * face + 3 * row + col;
+    }
+
+    static int faceOf(int[] normal) {
+        for (int f = 0; f < N_FACES; f++)
+            if (Arrays.equals(NORMAL[f], normal)) return f;
+        throw new IllegalArgumentException("Not a face normal: " + Arrays.toString(normal));
+    }
+
+    static int dot(int[] a, int[] b) {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+
+    static int[] multiply(int[] m, int[] v) {
+        int[] r = new int[3];
+        for (int row = 0; row < 3; row++)
+            r[row] = m[3 * row] * v[0] + m[3 * row + 1] * v[1] + m[3 * row + 2] * v[2];
+        return r;
+    }
+
+    /**
+     * Matrix product ab: b first, then a.
+     */
+    private static int[] product(int[] a, int[] b) {
+        int[] r = new int[9];
+        for (int i = 0; i < 3; i++)
+            for (int j = 0; j < 3; j++)
+                for (int k = 0; k < 3; k++)
+                    r[3 * i + j] += a[3 * i + k] * b[3 * k + j];
+        return r;
+    }
+
+    private static int determinant(int[] m) {
+        return m[0] * (m[4] * m[8] - m[5] * m[7])
+             - m[1] * (m[3] * m[8] - m[5] * m[6])
+             + m[2] * (m[3] * m[7] - m[4] * m[6]);
+    }
+
+    private static int find(int[] matrix) {
+        for (var s: ALL)
+            if (Arrays.equals(s.matrix, matrix)) return s.index;
+        throw new IllegalStateException("Not a symmetry: " + Arrays.toString(matrix));
+    }
+
+    /**
+     * Clockwise quarter turn about an outward normal n: v goes to n (n . v) - n x v.
+     */
+    static int[] quarterTurn(int[] n, int[] v) {
+        int d = dot(n, v);
+        int[] cross = { n[1] * v[2] - n[2] * v[1], n[2] * v[0] - n[0] * v[2], n[0] * v[1] - n[1] * v[0] };
+        return new int[] { n[0] * d - cross[0], n[1] * d - cross[1], n[2] * d - cross[2] };
+    }
+
+    /**
+     * The clockwise turn of each face from geometry must be the turn of {@link Cube}.
+     */
+    private static void checkTurns() {
+        int[] faceOfGroup = { TOP, LEFT, RIGHT, BOTTOM, FRONT, BACK };
+        for (int group = 0; group < N_FACES; group++) {
+            int[] n = NORMAL[faceOfGroup[group]];
+            int[] perm = new int[N];
+            for (int s = 0; s < N; s++) {
+                int[] p = position(s), normal = NORMAL[s / 9];
+                if (dot(p, n) == 1) {
+                    p = quarterTurn(n, p);
+                    normal = quarterTurn(n, normal);
+                }
+                perm[sticker(p, normal)] = s;
+            }
+            if (!Arrays.equals(perm, MoveEngine.permutation(3 * group)))
+                throw new IllegalStateException("Geometry does not match the turns of Cube: " + Move.of(3 * group));
+        }
+    }
+}
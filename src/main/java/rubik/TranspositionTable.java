@@ -0,0 +1,193 @@
+package rubik;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size cache from state hashes to search results, shared by threads without locks.
+ *
+ * Entries are two words of a {@code long[]}: the data, and the hash XOR the data. A reader
+ *  accepts an entry only if the two words XOR back to its hash, so an entry torn by concurrent
+ *  writers reads as a miss, never as another state's data. Writers claim an entry by a CAS on
+ *  its hash word and then publish the data; a writer that loses the CAS drops its store.
+ * Entries come in buckets of two. A store replaces the entry of the same state, else the
+ *  less valuable of the two: one from an older search first, see {@link #newSearch()}, then
+ *  the shallower one.
+ *
+ * Hashes are expected to be uniform, such as {@link Zobrist} hashes. The table is lossy: a
+ *  probe can miss a state that was stored, and two states with the same 64-bit hash share
+ *  their entry.
+ */
+public final class TranspositionTable {
+    /**
+     * Result of {@link #probe(long)} when the state is not in the table.
+     */
+    public static final long MISS = 0;
+
+    public static final int NO_MOVE = 0xff, MAX_DEPTH = 0xff, MAX_VALUE = 0xffff;
+
+    /**
+     * Largest memory budget: 2^29 entries, in an array of 2^30 longs.
+     */
+    public static final int MAX_MEGABYTES = 8192;
+
+    /*
+     * Data word: value in bits 0 to 15, depth 16 to 23, move 24 to 31, age 32 to 39, and
+     *  bit 40 set in every entry, so that an empty entry never matches.
+     */
+    private static final long VALID = 1L << 40;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final int mask;
+    private volatile int age;
+
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), overwrites = new LongAdder();
+
+    /**
+     * A table of the largest power of two entries that fits in a memory budget.
+     * @throws IllegalArgumentException if the budget is less than 1 MB or more than
+     *  {@link #MAX_MEGABYTES}.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEGABYTES)
+            throw new IllegalArgumentException("Invalid memory budget: " + megabytes + " MB");
+        long entries = Long.highestOneBit(((long) megabytes << 20) / ENTRY_BYTES);
+        words = new long[(int) (2 * entries)];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * Number of entries.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long memoryBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /**
+     * Entries stored from now on are preferred to older ones when a bucket is full.
+     * Call it from one thread, between searches.
+     */
+    public void newSearch() {
+        age = age + 1 & 0xff;
+    }
+
+    /**
+     * @return the entry of a state, read with {@link #depth(long)}, {@link #value(long)} and
+     *  {@link #move(long)}; or {@link #MISS}.
+     */
+    public long probe(long hash) {
+        int entry = bucket(hash);
+        for (int i = 0; i < 2; i++, entry++) {
+            long data = (long) WORDS.getAcquire(words, 2 * entry + 1);
+            long key = (long) WORDS.getAcquire(words, 2 * entry);
+            if ((key ^ data) == hash && (data & VALID) != 0) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * Store the result of a search, unless the table holds a deeper one of this search for
+     *  the same state.
+     * @param depth the depth searched, up to {@link #MAX_DEPTH}.
+     * @param value the result, such as a bound on the distance, up to {@link #MAX_VALUE}.
+     * @param move the best move, see {@link Move}, or {@link #NO_MOVE}.
+     * @return whether the entry was written.
+     */
+    public boolean store(long hash, int depth, int value, int move) {
+        if (depth < 0 || depth > MAX_DEPTH) throw new IllegalArgumentException("Invalid depth: " + depth);
+        if (value < 0 || value > MAX_VALUE) throw new IllegalArgumentException("Invalid value: " + value);
+        if ((move < 0 || move >= Move.COUNT) && move != NO_MOVE) throw new IllegalArgumentException("Invalid move: " + move);
+        int age = this.age;
+        long data = VALID | (long) age << 32 | (long) move << 24 | (long) depth << 16 | value;
+
+        int first = bucket(hash), victim = -1, victimScore = Integer.MAX_VALUE;
+        long victimKey = 0, victimData = 0;
+        for (int entry = first; entry < first + 2; entry++) {
+            long old = (long) WORDS.getAcquire(words, 2 * entry + 1);
+            long key = (long) WORDS.getAcquire(words, 2 * entry);
+            if ((key ^ old) == hash && (old & VALID) != 0) {
+                if (age(old) == age && depth(old) > depth) return false;
+                victim = entry;
+                victimKey = key;
+                victimData = 0;
+                break;
+            }
+            // Empty entries go first, then older searches, then shallower results.
+            int score = (old & VALID) == 0 ? -1 : (age(old) == age ? 1 << 8 : 0) + depth(old);
+            if (score < victimScore) {
+                victim = entry;
+                victimScore = score;
+                victimKey = key;
+                victimData = old;
+            }
+        }
+        if (!WORDS.compareAndSet(words, 2 * victim, victimKey, hash ^ data)) return false;
+        WORDS.setRelease(words, 2 * victim + 1, data);
+        if ((victimData & VALID) != 0) overwrites.increment();
+        return true;
+    }
+
+    /**
+     * First entry of the bucket of a hash.
+     */
+    private int bucket(long hash) {
+        return (int) hash & mask & ~1;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xff;
+    }
+
+    public static int value(long entry) {
+        return (int) entry & 0xffff;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry >>> 24) & 0xff;
+    }
+
+    private static int age(long entry) {
+        return (int) (entry >>> 32) & 0xff;
+    }
+
+    /**
+     * Probes that found their state.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Stores that replaced the entry of another state.
+     */
+    public long overwrites() {
+        return overwrites.sum();
+    }
+
+    /**
+     * Empty the table and zero the counters; not safe while other threads use the table.
+     */
+    public void clear() {
+        Arrays.fill(words, 0);
+        hits.reset();
+        misses.reset();
+        overwrites.reset();
+    }
+}
@@ -0,0 +1,205 @@
+package rubik;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static rubik.CubieCube.N_SLICE;
+import static rubik.CubieCube.N_SLICE_PERM;
+import static rubik.TwoPhaseTables.N_MOVES1;
+import static rubik.TwoPhaseTables.N_MOVES2;
+import static rubik.TwoPhaseTables.PHASE2_MOVES;
+
+/**
+ * Fast suboptimal solver: Kociemba's two-phase algorithm.
+ *
+ * Phase 1 brings the cube into the subgroup generated by U, D, L2, R2, F2, B2: corners
+ *  untwisted, edges unflipped, middle layer edges in the middle layer.
+ * Phase 2 solves the cube with the moves of that subgroup.
+ * Each phase is an IDA* search on small integer coordinates of {@link CubieCube}, turned with
+ *  move tables and bounded with pruning tables, see {@link TwoPhaseTables}.
+ * Phase 1 solutions are tried from the shortest up, each followed by the shortest phase 2,
+ *  until the total fits in the requested length.
+ *
+ * Tables are built on first use, which takes about a second, and shared by all
+ *  instances. An instance keeps the state of a search and is not thread-safe.
+ */
+public class TwoPhaseSolver {
+    public static final int MAX_PHASE1_LENGTH = 12, MAX_PHASE2_LENGTH = 18;
+
+    /**
+     * Length and time budget of {@link #solve(Cube)}.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 22;
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(1);
+
+    /*
+     * The clock is read once per this many nodes, a power of two.
+     */
+    private static final int CLOCK_INTERVAL = 1 << 12;
+
+    private final TwoPhaseTables tables = TwoPhaseTables.get();
+    private final int[] path = new int[MAX_PHASE1_LENGTH + MAX_PHASE2_LENGTH];
+    private final CubieCube phase2Start = new CubieCube();
+    private CubieCube start;
+    private int maxLength, length;
+    private int deepest;
+    private long nodes, prunes, deadline;
+    private boolean timedOut;
+
+    /**
+     * A sequence of at most {@code maxLength} moves that solves the cube.
+     * The first solution found is returned; it is short but not always the shortest.
+     * Below 20 moves the search can take much longer, or not finish within the budget.
+     * @param maxLength longest acceptable solution.
+     * @param budget time after which the search gives up.
+     * @return move indices, see {@link Move}; empty if nothing was found in time.
+     * @throws Cube.InvalidCubeException if the cube can not be solved.
+     */
+    public Optional<int[]> solve(Cube cube, int maxLength, Duration budget) {
+        var event = new Events.Solve();
+        event.begin();
+        long started = System.nanoTime();
+        var solution = search(cube, maxLength, budget);
+        SolverMetrics.solved(event, "two-phase", started, nodes, prunes, deepest, solution.map(p -> p.length).orElse(-1));
+        return solution;
+    }
+
+    private Optional<int[]> search(Cube cube, int maxLength, Duration budget) {
+        start = CubieCube.fromCube(cube);
+        start.checkSolvable();
+        this.maxLength = Math.min(maxLength, MAX_PHASE1_LENGTH + MAX_PHASE2_LENGTH);
+        deadline = System.nanoTime() + budget.toNanos();
+        timedOut = false;
+        nodes = 0;
+        prunes = 0;
+        deepest = 0;
+
+        int twist = start.twist(), flip = start.flip(), slice = start.slice();
+        for (int depth = 0; depth <= Math.min(this.maxLength, MAX_PHASE1_LENGTH) && !timedOut; depth++) {
+            deepest = depth;
+            if (phase1(twist, flip, slice, 0, depth, -1))
+                return Optional.of(Arrays.copyOf(path, length));
+        }
+        return Optional.empty();
+    }
+
+    public Optional<int[]> solve(Cube cube) {
+        return solve(cube, DEFAULT_MAX_LENGTH, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Whether a move keeps the cube in the phase 2 subgroup.
+     */
+    private static boolean isPhase2Move(int move) {
+        return Move.axis(Move.face(move)) == Move.axis(Move.face(Move.U.index())) || move % 3 == 2;
+    }
+
+    private boolean tick() {
+        if ((++nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > deadline)
+            timedOut = true;
+        return timedOut;
+    }
+
+    /**
+     * @param togo moves left in this phase 1 solution; it ends exactly when togo reaches zero.
+     * @return whether a whole solution was found.
+     */
+    private boolean phase1(int twist, int flip, int slice, int depth, int togo, int previous) {
+        if (tick()) return false;
+        if (togo == 0) {
+            // A phase 1 solution ending with a phase 2 move was already tried, one move shorter.
+            return twist == 0 && flip == 0 && slice == 0
+                && (previous < 0 || !isPhase2Move(previous))
+                && phase2(depth);
+        }
+        int estimate = Math.max(tables.twistSlicePrune.get(twist * N_SLICE + slice),
+                                tables.flipSlicePrune.get(flip * N_SLICE + slice));
+        if (estimate > togo) {
+            prunes++;
+            return false;
+        }
+
+        for (int move = 0; move < Move.COUNT; move++) {
+            if (!Move.canFollow(previous, move)) continue;
+            path[depth] = move;
+            if (phase1(tables.twistMove[twist * N_MOVES1 + move],
+                       tables.flipMove[flip * N_MOVES1 + move],
+                       tables.sliceMove[slice * N_MOVES1 + move],
+                       depth + 1, togo - 1, move))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean phase2(int depth1) {
+        phase2Start.set(start);
+        for (int i = 0; i < depth1; i++)
+            phase2Start.apply(path[i]);
+        int cornerPerm = phase2Start.cornerPermutation()
+          , udEdgePerm = phase2Start.udEdgePermutation()
+          , slicePerm  = phase2Start.slicePermutation();
+        int previous = depth1 == 0 ? -1 : path[depth1 - 1];
+
+        int limit = Math.min(maxLength - depth1, MAX_PHASE2_LENGTH);
+        for (int depth2 = 0; depth2 <= limit && !timedOut; depth2++) {
+            deepest = Math.max(deepest, depth1 + depth2);
+            if (phase2(cornerPerm, udEdgePerm, slicePerm, depth1, depth2, previous)) {
+                length = depth1 + depth2;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean phase2(int cornerPerm, int udEdgePerm, int slicePerm, int depth, int togo, int previous) {
+        if (tick()) return false;
+        int estimate = Math.max(tables.cornerSlicePrune.get(cornerPerm * N_SLICE_PERM + slicePerm),
+                                tables.edgeSlicePrune.get(udEdgePerm * N_SLICE_PERM + slicePerm));
+        if (estimate > togo) {
+            prunes++;
+            return false;
+        }
+        if (togo == 0) return true;
+
+        for (int i = 0; i < N_MOVES2; i++) {
+            int move = PHASE2_MOVES[i];
+            if (!Move.canFollow(previous, move)) continue;
+            path[depth] = move;
+            if (phase2(tables.cornerPermMove[cornerPerm * N_MOVES2 + i],
+                       tables.udEdgePermMove[udEdgePerm * N_MOVES2 + i],
+                       tables.slicePermMove[slicePerm * N_MOVES2 + i],
+                       depth + 1, togo - 1, move))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Nodes visited by the last call to solve, in both phases.
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Nodes of the last call to solve cut off by the pruning tables.
+     */
+    public long prunes() {
+        return prunes;
+    }
+
+    /**
+     * Time it took to build the move and pruning tables.
+     */
+    public static long tableBuildMillis() {
+        return TwoPhaseTables.get().buildMillis();
+    }
+
+    /**
+     * Memory used by the move and pruning tables, in bytes.
+     */
+    public static long tableMemoryBytes() {
+        return TwoPhaseTables.get().memoryBytes();
+    }
+}
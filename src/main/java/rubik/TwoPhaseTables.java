@@ -0,0 +1,156 @@
+package rubik;
+
+import static rubik.CubieCube.N_CORNER_PERM;
+import static rubik.CubieCube.N_FLIP;
+import static rubik.CubieCube.N_SLICE;
+import static rubik.CubieCube.N_SLICE_PERM;
+import static rubik.CubieCube.N_TWIST;
+import static rubik.CubieCube.N_UD_EDGE_PERM;
+
+/**
+ * Move and pruning tables of {@link TwoPhaseSolver}.
+ *
+ * Move tables give the coordinate after a move, at {@code coordinate * moves + move}.
+ * They are filled by setting the coordinate on a {@link CubieCube} and applying its moves,
+ *  which are themselves derived from the turns of {@link Cube}.
+ * Phase 1 tables cover the 18 moves; phase 2 tables only the 10 moves of {@link #PHASE2_MOVES},
+ *  the others would leave the subgroup the phase 2 coordinates describe.
+ *
+ * Pruning tables hold the exact number of moves needed to solve a pair of coordinates,
+ *  found by breadth-first search from the solved pair. None is more than 14, so they are
+ *  {@link PackedTable}s of 4-bit entries.
+ *
+ * Tables are built once, on first use, and shared; they are read-only after that.
+ */
+final class TwoPhaseTables {
+    /**
+     * Moves keeping the cube in the subgroup of phase 2: U and D turns, half turns of the others.
+     */
+    static final int[] PHASE2_MOVES = {
+        Move.U.index(), Move.U_.index(), Move.U2.index(),
+        Move.D.index(), Move._D.index(), Move.D2.index(),
+        Move.L2.index(), Move.R2.index(), Move.F2.index(), Move.B2.index(),
+    };
+
+    static final int N_MOVES1 = Move.COUNT, N_MOVES2 = PHASE2_MOVES.length;
+
+    private static final int UNKNOWN = 15;
+
+    private static volatile TwoPhaseTables instance;
+
+    /*
+     * Move tables stay on the heap, unlike the pruning tables: they hold 16-bit coordinates,
+     *  where PackedTable holds 2- and 4-bit entries, and the search reads three of them per
+     *  move at every node, where an array load is cheaper than a chunk and buffer lookup.
+     *  All six take 1.8 MB.
+     */
+    final char[] twistMove, flipMove, sliceMove;
+    final char[] cornerPermMove, udEdgePermMove, slicePermMove;
+
+    /*
+     * Phase 1: twist * N_SLICE + slice and flip * N_SLICE + slice.
+     * Phase 2: cornerPerm * N_SLICE_PERM + slicePerm and udEdgePerm * N_SLICE_PERM + slicePerm.
+     */
+    final PackedTable twistSlicePrune, flipSlicePrune;
+    final PackedTable cornerSlicePrune, edgeSlicePrune;
+
+    private final long buildMillis;
+
+    private TwoPhaseTables() {
+        var event = new Events.TableLoad();
+        event.begin();
+        long start = System.nanoTime();
+
+        twistMove = moveTable(N_TWIST, CubieCube::setTwist, CubieCube::twist, null);
+        flipMove  = moveTable(N_FLIP, CubieCube::setFlip, CubieCube::flip, null);
+        sliceMove = moveTable(N_SLICE, CubieCube::setSlice, CubieCube::slice, null);
+
+        cornerPermMove = moveTable(N_CORNER_PERM, CubieCube::setCornerPermutation, CubieCube::cornerPermutation, PHASE2_MOVES);
+        udEdgePermMove = moveTable(N_UD_EDGE_PERM, CubieCube::setUdEdgePermutation, CubieCube::udEdgePermutation, PHASE2_MOVES);
+        slicePermMove  = moveTable(N_SLICE_PERM, CubieCube::setSlicePermutation, CubieCube::slicePermutation, PHASE2_MOVES);
+
+        twistSlicePrune  = pruningTable(twistMove, N_TWIST, sliceMove, N_SLICE, N_MOVES1);
+        flipSlicePrune   = pruningTable(flipMove, N_FLIP, sliceMove, N_SLICE, N_MOVES1);
+        cornerSlicePrune = pruningTable(cornerPermMove, N_CORNER_PERM, slicePermMove, N_SLICE_PERM, N_MOVES2);
+        edgeSlicePrune   = pruningTable(udEdgePermMove, N_UD_EDGE_PERM, slicePermMove, N_SLICE_PERM, N_MOVES2);
+
+        buildMillis = (System.nanoTime() - start) / 1_000_000;
+        event.loaded("two-phase", true, memoryBytes());
+    }
+
+    /**
+     * The shared tables, built by the first caller.
+     */
+    static TwoPhaseTables get() {
+        var tables = instance;
+        if (tables == null) {
+            synchronized (TwoPhaseTables.class) {
+                tables = instance;
+                if (tables == null) instance = tables = new TwoPhaseTables();
+            }
+        }
+        return tables;
+    }
+
+    private interface Setter { void set(CubieCube cube, int coordinate); }
+    private interface Getter { int get(CubieCube cube); }
+
+    /**
+     * @param moves indices of the moves in the table, or null for all 18.
+     */
+    private static char[] moveTable(int n, Setter setter, Getter getter, int[] moves) {
+        int nMoves = moves == null ? Move.COUNT : moves.length;
+        var table = new char[n * nMoves];
+        var solved = new CubieCube();
+        var cube = new CubieCube();
+        for (int coordinate = 0; coordinate < n; coordinate++) {
+            for (int m = 0; m < nMoves; m++) {
+                cube.set(solved);
+                setter.set(cube, coordinate);
+                cube.apply(moves == null ? m : moves[m]);
+                table[coordinate * nMoves + m] = (char) getter.get(cube);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Distances of the pairs {@code (a, b)} to {@code (0, 0)}, at {@code a * nb + b}.
+     */
+    private static PackedTable pruningTable(char[] aMove, int na, char[] bMove, int nb, int nMoves) {
+        int n = na * nb;
+        var table = PackedTable.allocate(n, 4, UNKNOWN);
+        table.set(0, 0);
+        int done = 1;
+        for (int depth = 0; done < n; depth++) {
+            if (depth + 1 >= UNKNOWN) throw new IllegalStateException("Pruning table too deep: " + depth);
+            for (int i = 0; i < n; i++) {
+                if (table.get(i) != depth) continue;
+                int a = i / nb, b = i % nb;
+                for (int m = 0; m < nMoves; m++) {
+                    int next = aMove[a * nMoves + m] * nb + bMove[b * nMoves + m];
+                    if (table.compareAndSet(next, UNKNOWN, depth + 1)) done++;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Time it took to build the tables.
+     */
+    long buildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Size of the tables, in bytes.
+     */
+    long memoryBytes() {
+        long chars = twistMove.length + flipMove.length + sliceMove.length
+                   + cornerPermMove.length + udEdgePermMove.length + slicePermMove.length;
+        long bytes = twistSlicePrune.memoryBytes() + flipSlicePrune.memoryBytes()
+                   + cornerSlicePrune.memoryBytes() + edgeSlicePrune.memoryBytes();
+        return 2 * chars + bytes;
+    }
+}
@@ -0,0 +1,249 @@
+package rubik;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+import static rubik.Cube.BACK;
+import static rubik.Cube.BOTTOM;
+import static rubik.Cube.FRONT;
+import static rubik.Cube.LEFT;
+import static rubik.Cube.N_FACES;
+import static rubik.Cube.RIGHT;
+import static rubik.Cube.TOP;
+
+/**
+ * Zobrist hashing of cube states: a random 64-bit key per sticker position and color, and the
+ *  hash of a cube is the XOR of the keys of its 54 stickers.
+ *
+ * The keys of the three stickers of a row are combined into one table per row, indexed by the
+ *  9 bits of the row, so a hash is 18 lookups. {@link HashedMutableCube} keeps its hash up to
+ *  date instead, with {@link #change(int[], int)}: 7 lookups per move, from the colors before
+ *  the move, in tables of 28 KB per move, about 500 KB for all of them.
+ * The keys come from a fixed seed, so hashes are the same from one run to the next. Wildcards
+ *  are hashed as a seventh color.
+ */
+public final class Zobrist {
+    static final long SEED = 0x5eed_c0be_2b1dL;
+
+    private static final int COLORS = 8, ROWS = 3 * N_FACES, ROW_BITS = 9, ROW_MASK = (1 << ROW_BITS) - 1;
+
+    /*
+     * KEYS[sticker * COLORS + color].
+     */
+    private static final long[] KEYS = new long[StickerProgram.N_STICKERS * COLORS];
+
+    /*
+     * ROW_KEYS[row << ROW_BITS | bits]: the keys of the colors of a row, row 3 * face + r
+     *  holding the bits of row r of the face.
+     */
+    private static final long[] ROW_KEYS = new long[ROWS << ROW_BITS];
+
+    static {
+        var rnd = new SplittableRandom(SEED);
+        for (int i = 0; i < KEYS.length; i++) KEYS[i] = rnd.nextLong();
+        for (int row = 0; row < ROWS; row++) {
+            for (int bits = 0; bits <= ROW_MASK; bits++) {
+                long key = 0;
+                for (int cell = 0; cell < 3; cell++)
+                    key ^= KEYS[(3 * row + cell) * COLORS + (bits >>> 3 * (2 - cell) & 0b111)];
+                ROW_KEYS[row << ROW_BITS | bits] = key;
+            }
+        }
+    }
+
+    /*
+     * MOVE_KEYS[(LINES * move + line) << ROW_BITS | bits]: the keys of the Delta of each move,
+     *  lines in the order of Delta#of(int[]).
+     */
+    private static final int LINES = 7;
+    private static final long[] MOVE_KEYS = new long[Move.COUNT * LINES << ROW_BITS];
+
+    static {
+        for (int move = 0; move < Move.COUNT; move++) {
+            long[] keys = Delta.of(MoveEngine.permutation(move)).keys();
+            System.arraycopy(keys, 0, MOVE_KEYS, LINES * move << ROW_BITS, LINES << ROW_BITS);
+        }
+    }
+
+    private Zobrist() {}
+
+    public static long hash(Cube cube) {
+        return hash(cube.faces());
+    }
+
+    /**
+     * Hash of all stickers of a state of {@link MoveEngine}.
+     */
+    public static long hash(int[] faces) {
+        long hash = 0;
+        for (int face = 0; face < N_FACES; face++) {
+            int word = faces[face], row = 3 * face;
+            hash ^= ROW_KEYS[row       << ROW_BITS | word >>> 2 * ROW_BITS & ROW_MASK]
+                  ^ ROW_KEYS[(row + 1) << ROW_BITS | word >>> ROW_BITS & ROW_MASK]
+                  ^ ROW_KEYS[(row + 2) << ROW_BITS | word & ROW_MASK];
+        }
+        return hash;
+    }
+
+    /**
+     * The XOR of the hashes of a state before and after a move, from the state before it.
+     * The same as the {@link Delta} of the move, with the rows and columns of each face turn
+     *  written out, so their shifts and masks are constants, as in {@link MoveEngine}.
+     * @param move index of the move, see {@link Move}.
+     */
+    static long change(int[] s, int move) {
+        if (move < 0) throw new IllegalArgumentException("Invalid move: " + move);
+        int line = LINES * move;
+        switch (move / 3) {
+            case 0:  return U(s, line);
+            case 1:  return L(s, line);
+            case 2:  return R(s, line);
+            case 3:  return D(s, line);
+            case 4:  return F(s, line);
+            case 5:  return B(s, line);
+            default: throw new IllegalArgumentException("Invalid move: " + move);
+        }
+    }
+
+    /*
+     * The lines of the turns of each face, in the order of Delta#of(int[]).
+     */
+
+    private static long U(int[] s, int line) {
+        return row(line, s[TOP], 0) ^ row(line + 1, s[TOP], 1) ^ row(line + 2, s[TOP], 2)
+             ^ row(line + 3, s[LEFT], 0) ^ row(line + 4, s[FRONT], 0)
+             ^ row(line + 5, s[RIGHT], 0) ^ row(line + 6, s[BACK], 0);
+    }
+
+    private static long L(int[] s, int line) {
+        return column(line, s[TOP], 0)
+             ^ row(line + 1, s[LEFT], 0) ^ row(line + 2, s[LEFT], 1) ^ row(line + 3, s[LEFT], 2)
+             ^ column(line + 4, s[FRONT], 0) ^ column(line + 5, s[BACK], 2) ^ column(line + 6, s[BOTTOM], 0);
+    }
+
+    private static long R(int[] s, int line) {
+        return column(line, s[TOP], 2) ^ column(line + 1, s[FRONT], 2)
+             ^ row(line + 2, s[RIGHT], 0) ^ row(line + 3, s[RIGHT], 1) ^ row(line + 4, s[RIGHT], 2)
+             ^ column(line + 5, s[BACK], 0) ^ column(line + 6, s[BOTTOM], 2);
+    }
+
+    private static long D(int[] s, int line) {
+        return row(line, s[LEFT], 2) ^ row(line + 1, s[FRONT], 2)
+             ^ row(line + 2, s[RIGHT], 2) ^ row(line + 3, s[BACK], 2)
+             ^ row(line + 4, s[BOTTOM], 0) ^ row(line + 5, s[BOTTOM], 1) ^ row(line + 6, s[BOTTOM], 2);
+    }
+
+    private static long F(int[] s, int line) {
+        return row(line, s[TOP], 2) ^ column(line + 1, s[LEFT], 2)
+             ^ row(line + 2, s[FRONT], 0) ^ row(line + 3, s[FRONT], 1) ^ row(line + 4, s[FRONT], 2)
+             ^ column(line + 5, s[RIGHT], 0) ^ row(line + 6, s[BOTTOM], 0);
+    }
+
+    private static long B(int[] s, int line) {
+        return row(line, s[TOP], 0) ^ column(line + 1, s[LEFT], 0) ^ column(line + 2, s[RIGHT], 2)
+             ^ row(line + 3, s[BACK], 0) ^ row(line + 4, s[BACK], 1) ^ row(line + 5, s[BACK], 2)
+             ^ row(line + 6, s[BOTTOM], 2);
+    }
+
+    /**
+     * Keys of a line of {@link #MOVE_KEYS} for row {@code r} of a face, from 0 at the top.
+     */
+    private static long row(int line, int face, int r) {
+        return MOVE_KEYS[line << ROW_BITS | face >>> ROW_BITS * (2 - r) & ROW_MASK];
+    }
+
+    /**
+     * Keys of a line of {@link #MOVE_KEYS} for column {@code c} of a face, from 0 on the left.
+     */
+    private static long column(int line, int face, int c) {
+        return MOVE_KEYS[line << ROW_BITS | Delta.column(face >>> 3 * (2 - c))];
+    }
+
+    /**
+     * How a sticker permutation changes the hash, read from the state before it.
+     *
+     * The stickers that move are taken a row or a column at a time, and a table per row or
+     *  column, indexed by its 9 bits, holds the keys of the colors where they are XOR the keys
+     *  where they go; those of a sticker that stays cancel out. A move is 7 rows and columns:
+     *  the turned face and 4 sides, 4 KB of keys each.
+     * @param groups the {@code g}-th row or column coded as {@code g << 18 | column << 8 |
+     *  face << 5 | shift}, where the row, or the lowest cell of the column, is shifted to bit 0.
+     */
+    record Delta(int[] groups, long[] keys) {
+        private static final int COLUMN = 1 << 8;
+
+        /**
+         * @param perm {@code perm[s]} is the sticker that moves to {@code s}, as in {@link CubePermutation}.
+         */
+        static Delta of(int[] perm) {
+            int[] to = new int[perm.length];
+            for (int dst = 0; dst < perm.length; dst++) to[perm[dst]] = dst;
+            var groups = new ArrayList<Integer>();
+            for (int face = 0; face < N_FACES; face++) {
+                int rows = 0, columns = 0;
+                for (int cell = 0; cell < 9; cell++) {
+                    if (to[9 * face + cell] == 9 * face + cell) continue;
+                    rows |= 1 << cell / 3;
+                    columns |= 1 << cell % 3;
+                }
+                boolean byColumn = Integer.bitCount(columns) < Integer.bitCount(rows);
+                int lines = byColumn ? columns : rows;
+                for (int i = 0; i < 3; i++) {
+                    if ((lines & 1 << i) == 0) continue;
+                    int shift = (byColumn ? 3 : 9) * (2 - i);
+                    groups.add((byColumn ? COLUMN : 0) | face << 5 | shift);
+                }
+            }
+
+            int[] codes = new int[groups.size()];
+            long[] keys = new long[codes.length << ROW_BITS];
+            for (int g = 0; g < codes.length; g++) {
+                int code = g << 18 | groups.get(g), face = code >>> 5 & 0b111;
+                boolean column = (code & COLUMN) != 0;
+                int line = 2 - (code & 0x1f) / (column ? 3 : 9);
+                codes[g] = code;
+                for (int colors = 0; colors <= ROW_MASK; colors++) {
+                    long key = 0;
+                    for (int i = 0; i < 3; i++) {
+                        int src = 9 * face + (column ? 3 * i + line : 3 * line + i);
+                        int color = colors >>> 3 * (2 - i) & 0b111;
+                        key ^= KEYS[src * COLORS + color] ^ KEYS[to[src] * COLORS + color];
+                    }
+                    keys[g << ROW_BITS | colors] = key;
+                }
+            }
+            return new Delta(codes, keys);
+        }
+
+        /**
+         * The XOR of the hashes of a state before and after the permutation.
+         */
+        long change(int[] faces) {
+            long delta = 0;
+            for (int group: groups) {
+                int x = faces[group >>> 5 & 0b111] >>> (group & 0x1f);
+                int colors = (group & COLUMN) == 0 ? x & ROW_MASK : column(x);
+                delta ^= keys[group >>> 18 << ROW_BITS | colors];
+            }
+            return delta;
+        }
+
+        /**
+         * The 9 bits of a column whose lowest cell is at bit 0: its cells are at bits 0, 9 and 18,
+         *  and the product brings them together at bit 12.
+         */
+        static int column(int x) {
+            return (x & 0x1c0e07) * 0x1041 >>> 12 & ROW_MASK;
+        }
+    }
+
+    /**
+     * The same hash from the keys of each sticker, for tests.
+     */
+    static long hashByStickers(int[] faces) {
+        long hash = 0;
+        for (int sticker = 0; sticker < StickerProgram.N_STICKERS; sticker++)
+            hash ^= KEYS[sticker * COLORS + StickerProgram.color(faces, sticker)];
+        return hash;
+    }
+}
@@ -0,0 +1,114 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AlgorithmTest {
+    private final Cube cube = Cube.fromResource("/cube2/base.txt");
+
+    public AlgorithmTest() throws IOException {}
+
+    @Test
+    public void testParse() {
+        var algorithm = Algorithm.parse("R U R' U'");
+        assertArrayEquals(new int[] { Move.R.index(), Move.U.index(), Move._R.index(), Move.U_.index() },
+                          algorithm.moves());
+        assertEquals(cube.R().U()._R().U_(), algorithm.apply(cube));
+    }
+
+    @Test
+    public void testEveryMove() {
+        for (var move: Move.values()) {
+            var notation = Algorithm.of(move.index()).toString();
+            var algorithm = Algorithm.parse(notation);
+            assertEquals(notation, 1, algorithm.length());
+            assertEquals(notation, move.index(), algorithm.move(0));
+            assertEquals(notation, move.apply(cube), algorithm.apply(cube));
+        }
+    }
+
+    @Test
+    public void testSeparatorsAndSuffixes() {
+        assertEquals(Algorithm.parse("F2 B' L"), Algorithm.parse("F2'B’,L"));
+        assertEquals(Algorithm.parse("F2 B' L"), Algorithm.parse("  F2\tB'\nL "));
+        assertEquals(0, Algorithm.parse("").length());
+    }
+
+    @Test
+    public void testToString() {
+        var notation = "R U2 R' D' F2 B L' U";
+        assertEquals(notation, Algorithm.parse(notation).toString());
+    }
+
+    @Test
+    public void testInverse() {
+        var algorithm = Algorithm.parse("R U2 F' D L2 B");
+        assertEquals(Algorithm.parse("B' L2 D' F U2 R'"), algorithm.inverse());
+        assertEquals(cube, algorithm.inverse().apply(algorithm.apply(cube)));
+    }
+
+    @Test
+    public void testOrder() {
+        // The sexy move has order 6.
+        var sexy = Algorithm.of("R U R' U'");
+        var turned = cube;
+        for (int i = 0; i < 6; i++)
+            turned = sexy.apply(turned);
+        assertEquals(cube, turned);
+
+        var mutable = new MutableCube(cube);
+        for (int i = 0; i < 6; i++)
+            sexy.apply(mutable);
+        assertTrue(mutable.sameAs(cube));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownMove() {
+        Algorithm.parse("R U x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSuffixWithoutMove() {
+        Algorithm.parse("R '");
+    }
+
+    @Test
+    public void testCache() {
+        long hits = Algorithm.cacheHits(), misses = Algorithm.cacheMisses();
+        var notation = "L2 D' B2 U R'";
+        var first = Algorithm.of(notation);
+        assertSame(first, Algorithm.of(notation));
+        assertEquals(hits + 1, Algorithm.cacheHits());
+        assertEquals(misses + 1, Algorithm.cacheMisses());
+
+        // Evicted once enough other algorithms were used: the clock hand passes it twice,
+        //  once to clear the mark of its last use.
+        for (int i = 0; i < 2 * Algorithm.CACHE_SIZE; i++)
+            Algorithm.of(Algorithm.of(i % 18, i / 18 % 18, i / 324 % 18, i / 5832).toString());
+        assertNotSame(first, Algorithm.of(notation));
+        assertEquals(first, Algorithm.of(notation));
+    }
+
+    /**
+     * Threads share the cache while it evicts; every lookup gets the algorithm of its notation.
+     */
+    @Test
+    public void testCacheConcurrent() {
+        long lookups = Algorithm.cacheHits() + Algorithm.cacheMisses();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 2 * Algorithm.CACHE_SIZE; i++) {
+                var expected = Algorithm.of((i + thread) % 18, i / 18 % 18, i / 324 % 18, 17 - thread);
+                assertEquals(expected, Algorithm.of(expected.toString()));
+            }
+        });
+        assertEquals(lookups + 16 * Algorithm.CACHE_SIZE, Algorithm.cacheHits() + Algorithm.cacheMisses());
+    }
+}
@@ -0,0 +1,76 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CubeBatchTest {
+    // Not a multiple of any vector length, so the scalar loop finishes every comparison.
+    private static final int N = 1003;
+
+    private final List<Cube> cubes = new Scrambler().stream(N, 24).collect(Collectors.toList());
+
+    @Test
+    public void testVectorized() {
+        // Only the vector profile builds CubeBatchVector and resolves its module, see pom.xml.
+        assertEquals(Boolean.getBoolean("rubik.vector"), CubeBatch.VECTORIZED);
+    }
+
+    @Test
+    public void testEachMove() {
+        for (var move: Move.values()) {
+            var batch = CubeBatch.of(cubes);
+            batch.apply(move.index());
+            for (int i = 0; i < N; i++)
+                assertEquals(move.name(), MoveEngine.apply(cubes.get(i), move.index()), batch.get(i));
+        }
+    }
+
+    @Test
+    public void testSequence() {
+        int[] moves = Algorithm.of("R U R' U' F2 D B' L2").moves();
+        var batch = CubeBatch.of(cubes);
+        batch.apply(moves);
+        int[] state = new int[Cube.N_FACES];
+        for (int i = 0; i < N; i++) {
+            batch.get(i, state);
+            assertEquals(MoveEngine.apply(cubes.get(i), moves), MoveEngine.cube(state));
+        }
+    }
+
+    @Test
+    public void testEquivalent() throws IOException {
+        var batch = new CubeBatch(0);
+        for (var cube: cubes) batch.add(cube);
+        var pattern = Cube.fromResource("/equiv/equiv.txt");
+        var base = Cube.fromResource("/equiv/base.txt");
+        batch.set(5, base);
+        batch.set(N - 2, base);
+        batch.set(64, pattern);
+        assertEquals(N, batch.size());
+
+        var targets = new ArrayList<>(List.of(pattern, base, Cube.fromResource("/equiv/not-equiv.txt")));
+        targets.add(cubes.get(100));
+        for (var target: targets) {
+            var expected = new BitSet();
+            for (int i = 0; i < N; i++)
+                if (Cube.equivalent(batch.get(i), target)) expected.set(i);
+            assertEquals(expected, batch.equivalent(target));
+            assertEquals(expected, batch.equivalentScalar(target));
+        }
+        assertTrue(batch.equivalent(pattern).get(N - 2));
+        assertTrue(batch.equivalent(cubes.get(100)).get(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMove() {
+        CubeBatch.of(cubes).apply(Move.COUNT);
+    }
+}
@@ -0,0 +1,110 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CubeFileTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Cube cube1 = Cube.fromResource("/cube1/base.txt");
+    private final Cube cube2 = Cube.fromResource("/cube2/base.txt");
+    private final Cube equiv = Cube.fromResource("/equiv/equiv.txt");
+
+    public CubeFileTest() throws IOException {}
+
+    private Cube[] scrambles(int n) {
+        var rnd = new Random(4);
+        var cubes = new Cube[n];
+        var cube = new MutableCube(cube2);
+        for (int i = 0; i < n; i++)
+            cubes[i] = cube.apply(rnd.nextInt(Move.COUNT)).toCube();
+        return cubes;
+    }
+
+    @Test
+    public void testRecord() {
+        var buffer = ByteBuffer.allocate(3 * CubeFile.RECORD_SIZE);
+        int[] faces = new int[Cube.N_FACES];
+        for (var cube: new Cube[] { cube1, cube2, equiv }) {
+            CubeFile.encode(cube, buffer, CubeFile.RECORD_SIZE);
+            CubeFile.decode(buffer, CubeFile.RECORD_SIZE, faces);
+            assertArrayEquals(cube.faces(), faces);
+        }
+        // Neighbour records are untouched.
+        assertEquals(0, buffer.get(CubeFile.RECORD_SIZE - 1));
+        assertEquals(0, buffer.get(2 * CubeFile.RECORD_SIZE));
+    }
+
+    @Test
+    public void testWriterAndOpen() throws IOException {
+        var path = folder.newFile("cubes.bin").toPath();
+        var cubes = scrambles(10_000);
+        try (var writer = new CubeFile.Writer(path)) {
+            for (var cube: cubes) writer.add(cube);
+        }
+        assertEquals(CubeFile.HEADER_SIZE + 10_000L * CubeFile.RECORD_SIZE, Files.size(path));
+
+        try (var file = CubeFile.open(path)) {
+            assertEquals(cubes.length, file.count());
+            for (int i = cubes.length - 1; i >= 0; i -= 7)
+                assertEquals(cubes[i], file.get(i));
+            var mutable = new MutableCube(cube1);
+            file.read(5, mutable);
+            assertEquals(cubes[5], mutable.toCube());
+            assertEquals(cubes.length, file.stream().parallel().collect(Collectors.toList()).size());
+        }
+    }
+
+    @Test
+    public void testCreateAndSet() throws IOException {
+        var path = folder.newFile("cubes.bin").toPath();
+        try (var file = CubeFile.create(path, 3)) {
+            file.set(2, equiv);
+            file.set(0, cube1);
+            file.set(1, cube2);
+        }
+        try (var file = CubeFile.open(path)) {
+            assertEquals(3, file.count());
+            assertEquals(cube1, file.get(0));
+            assertEquals(cube2, file.get(1));
+            assertEquals(equiv, file.get(2));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() throws IOException {
+        var path = folder.newFile("cubes.bin").toPath();
+        try (var file = CubeFile.create(path, 1)) {
+            file.get(1);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        var path = folder.newFile("cubes.bin").toPath();
+        try (var writer = new CubeFile.Writer(path)) {
+            writer.add(cube1).add(cube2);
+        }
+        Files.write(path, Arrays.copyOf(Files.readAllBytes(path), CubeFile.HEADER_SIZE + CubeFile.RECORD_SIZE));
+        CubeFile.open(path).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotACubeFile() throws IOException {
+        var path = folder.newFile("cubes.txt").toPath();
+        Files.writeString(path, cube1.toString());
+        CubeFile.open(path).close();
+    }
+}
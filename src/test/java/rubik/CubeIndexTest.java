@@ -0,0 +1,96 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CubeIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Cube> cubes = new Scrambler().stream(5000, 25).collect(Collectors.toList());
+    private final Cube equiv = Cube.fromResource("/equiv/equiv.txt");
+    private final Cube base = Cube.fromResource("/equiv/base.txt");
+
+    public CubeIndexTest() throws IOException {}
+
+    /**
+     * The cube with the stickers not in {@code keep} replaced by wildcards.
+     */
+    private static Cube mask(Cube cube, SplittableRandom rnd, double keep) {
+        int[] faces = cube.faces();
+        for (int sticker = 0; sticker < StickerProgram.N_STICKERS; sticker++)
+            if (rnd.nextDouble() >= keep) faces[sticker / 9] |= 0b111 << StickerProgram.offset(sticker);
+        return Cube.fromFaces(faces);
+    }
+
+    private static BitSet scan(List<Cube> cubes, Cube pattern) {
+        var expected = new BitSet();
+        for (int i = 0; i < cubes.size(); i++)
+            if (Cube.equivalent(cubes.get(i), pattern)) expected.set(i);
+        return expected;
+    }
+
+    @Test
+    public void testQuery() {
+        var rnd = new SplittableRandom(7);
+        var stored = new ArrayList<Cube>();
+        for (int i = 0; i < cubes.size(); i++)
+            stored.add(i % 10 == 0 ? mask(cubes.get(i), rnd, 0.8) : cubes.get(i));
+        stored.add(equiv);
+        stored.add(base);
+        var index = new CubeIndex();
+        for (var cube: stored) index.add(cube);
+        assertEquals(stored.size(), index.size());
+
+        var patterns = new ArrayList<>(List.of(equiv, base, cubes.get(3)));
+        for (int i = 0; i < 20; i++) patterns.add(mask(cubes.get(i), rnd, 0.1));
+        for (var pattern: patterns) {
+            var expected = scan(stored, pattern);
+            assertEquals(expected, index.query(pattern));
+            assertEquals(expected.cardinality(), index.count(pattern));
+        }
+        assertTrue(index.query(equiv).get(stored.size() - 1));
+        assertTrue(index.query(cubes.get(3)).get(3));
+    }
+
+    @Test
+    public void testAllWildcards() {
+        var index = new CubeIndex(100);
+        for (int i = 0; i < 100; i++) index.add(cubes.get(i));
+        var pattern = mask(base, new SplittableRandom(1), 0);
+        assertEquals(100, index.count(pattern));
+        assertEquals(100, index.query(pattern).cardinality());
+        assertEquals(100, index.query(pattern).length());
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        var path = folder.newFile().toPath();
+        try (var file = CubeFile.create(path, cubes.size())) {
+            for (int i = 0; i < cubes.size(); i++) file.set(i, cubes.get(i));
+        }
+        CubeIndex index;
+        try (var file = CubeFile.open(path)) {
+            index = CubeIndex.of(file);
+        }
+        assertEquals(cubes.size(), index.size());
+        var pattern = mask(cubes.get(42), new SplittableRandom(2), 0.3);
+        assertEquals(scan(cubes, pattern), index.query(pattern));
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testInvalidColor() {
+        new CubeIndex().add(new Cube(0, 0, 0, 0, 0, 0));
+    }
+}
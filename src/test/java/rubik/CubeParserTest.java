@@ -0,0 +1,143 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CubeParserTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Cube cube1 = Cube.fromResource("/cube1/base.txt");
+    private final Cube cube2 = Cube.fromResource("/cube2/base.txt");
+    private final Cube equiv = Cube.fromResource("/equiv/equiv.txt");
+
+    public CubeParserTest() throws IOException {}
+
+    private static byte[] resource(String name) throws IOException {
+        try (var in = CubeParserTest.class.getResourceAsStream(name)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int n = 0;
+        for (byte[] part: parts) n += part.length;
+        byte[] all = new byte[n];
+        int i = 0;
+        for (byte[] part: parts) {
+            System.arraycopy(part, 0, all, i, part.length);
+            i += part.length;
+        }
+        return all;
+    }
+
+    private byte[] threeCubes() throws IOException {
+        return concat(resource("/cube1/base.txt"), resource("/cube2/base.txt"), resource("/equiv/equiv.txt"));
+    }
+
+    /**
+     * Hands out one byte per read, so every cell spans buffers.
+     */
+    private static InputStream trickle(byte[] bytes) {
+        return new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        List<Cube> cubes = CubeParser.stream(ByteBuffer.wrap(threeCubes())).collect(Collectors.toList());
+        assertEquals(List.of(cube1, cube2, equiv), cubes);
+    }
+
+    @Test
+    public void testInputStream() throws IOException {
+        try (var parser = CubeParser.of(trickle(threeCubes()))) {
+            assertEquals(cube1, parser.next());
+            assertEquals(cube2, parser.next());
+            assertEquals(equiv, parser.next());
+            assertFalse(parser.hasNext());
+            assertEquals(3, parser.count());
+        }
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        var path = folder.newFile("cubes.txt").toPath();
+        Files.write(path, threeCubes());
+        try (var cubes = CubeParser.stream(path)) {
+            assertEquals(List.of(cube1, cube2, equiv), cubes.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testBoxDrawing() throws IOException {
+        var txt = new String(resource("/cube1/base.txt"), StandardCharsets.US_ASCII)
+            .replace('+', '┼').replace('-', '─').replace('|', '│');
+        var parser = CubeParser.of(ByteBuffer.wrap(txt.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(cube1, parser.next());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    public void testCommentsAndSeparators() throws IOException {
+        var sb = new StringBuilder("# 1 2 3 in a comment\n");
+        for (int i = 0; i < CubeParser.N_CELLS; i++)
+            sb.append(i % 2 == 0 ? "7," : "7#9 9\n");
+        var cube = CubeParser.of(ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII))).next();
+        int wild = Cube.makeFace(7, 7, 7, 7, 7, 7, 7, 7, 7);
+        assertEquals(Cube.fromFaces(new int[] { wild, wild, wild, wild, wild, wild }), cube);
+    }
+
+    @Test
+    public void testReadWithoutCubes() throws IOException {
+        var parser = CubeParser.of(ByteBuffer.wrap(threeCubes()));
+        int[] faces = new int[Cube.N_FACES];
+        int n = 0;
+        while (parser.read(faces) == CubeParser.N_CELLS) n++;
+        assertEquals(3, n);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncompleteCube() throws IOException {
+        var bytes = concat(resource("/cube1/base.txt"), "1 2 3".getBytes(StandardCharsets.US_ASCII));
+        var parser = CubeParser.of(ByteBuffer.wrap(bytes));
+        assertTrue(parser.hasNext());
+        parser.next();
+        parser.hasNext();
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testInvalidColor() throws IOException {
+        var txt = new String(resource("/cube1/base.txt"), StandardCharsets.US_ASCII).replace("| 1 1 1 |", "| 1 9 1 |");
+        CubeParser.of(ByteBuffer.wrap(txt.getBytes(StandardCharsets.US_ASCII))).next();
+    }
+
+    @Test
+    public void testSkipRemaining() throws IOException {
+        var path = folder.newFile("two.txt").toPath();
+        Files.write(path, concat(resource("/cube1/base.txt"), resource("/cube2/base.txt")));
+        try (var parser = CubeParser.of(path)) {
+            int[] faces = new int[Cube.N_FACES];
+            assertEquals(CubeParser.N_CELLS, parser.read(faces));
+            assertEquals(CubeParser.N_CELLS, parser.skipRemaining());
+        }
+    }
+}
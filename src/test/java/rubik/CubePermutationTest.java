@@ -0,0 +1,101 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CubePermutationTest {
+    private final Cube cube = Cube.fromResource("/cube2/base.txt");
+
+    public CubePermutationTest() throws IOException {}
+
+    @Test
+    public void testMoves() {
+        for (var move: Move.values())
+            assertEquals(move.name(), move.apply(cube), CubePermutation.move(move.index()).apply(cube));
+    }
+
+    @Test
+    public void testLongAlgorithm() {
+        var rnd = new Random(13);
+        int[] moves = new int[100];
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = rnd.nextInt(Move.COUNT);
+        var perm = CubePermutation.ofMoves(moves);
+        assertEquals(MoveEngine.apply(cube, moves), perm.apply(cube));
+
+        var mutable = new MutableCube(cube);
+        perm.apply(mutable);
+        assertTrue(mutable.sameAs(MoveEngine.apply(cube, moves)));
+    }
+
+    @Test
+    public void testThen() {
+        var r = CubePermutation.move(Move.R.index());
+        var u = CubePermutation.move(Move.U.index());
+        assertEquals(cube.R().U(), r.then(u).apply(cube));
+        assertEquals(r, r.then(CubePermutation.identity()));
+    }
+
+    @Test
+    public void testInverse() {
+        var perm = Algorithm.parse("R U2 F' D L2 B").permutation();
+        assertTrue(perm.then(perm.inverse()).isIdentity());
+        assertEquals(Algorithm.parse("R U2 F' D L2 B").inverse().permutation(), perm.inverse());
+        assertEquals(CubePermutation.move(Move._F.index()), CubePermutation.move(Move.F.index()).inverse());
+    }
+
+    @Test
+    public void testPower() {
+        var perm = Algorithm.parse("R U").permutation();
+        var repeated = CubePermutation.identity();
+        for (int i = 0; i < 17; i++)
+            repeated = repeated.then(perm);
+        assertEquals(repeated, perm.power(17));
+        assertEquals(perm.inverse().power(3), perm.power(-3));
+        assertTrue(perm.power(0).isIdentity());
+    }
+
+    @Test
+    public void testOrder() {
+        assertEquals(1, CubePermutation.identity().order());
+        assertEquals(4, CubePermutation.move(Move.R.index()).order());
+        assertEquals(2, CubePermutation.move(Move.F2.index()).order());
+        assertEquals(6, Algorithm.parse("R U R' U'").permutation().order());
+        assertEquals(105, Algorithm.parse("R U").permutation().order());
+        assertEquals(1260, Algorithm.parse("R U2 D' B D'").permutation().order());
+
+        var perm = Algorithm.parse("R U").permutation();
+        assertTrue(perm.power(perm.order()).isIdentity());
+        assertFalse(perm.power(perm.order() / 3).isIdentity());
+    }
+
+    @Test
+    public void testCycleLengths() {
+        int[] lengths = CubePermutation.move(Move.U.index()).cycleLengths();
+        // Eight stickers of U and twelve of the sides in 4-cycles, the rest fixed.
+        assertEquals(4, lengths[0]);
+        assertEquals(4, lengths[4]);
+        assertEquals(1, lengths[5]);
+        assertEquals(5 + 34, lengths.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotAPermutation() {
+        int[] perm = CubePermutation.identity().toArray();
+        perm[0] = 1;
+        CubePermutation.of(perm);
+    }
+
+    @Test
+    public void testOf() {
+        int[] array = CubePermutation.move(Move.L.index()).toArray();
+        assertArrayEquals(array, CubePermutation.of(array).toArray());
+    }
+}
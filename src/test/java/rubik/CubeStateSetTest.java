@@ -0,0 +1,113 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CubeStateSetTest {
+    private final Cube cube = Cube.fromResource("/cube2/base.txt");
+
+    public CubeStateSetTest() throws IOException {}
+
+    private Cube[] randomWalk(int n, long seed) {
+        var rnd = new Random(seed);
+        var cubes = new Cube[n];
+        var c = cube;
+        for (int i = 0; i < n; i++) {
+            c = Move.of(rnd.nextInt(Move.COUNT)).apply(c);
+            cubes[i] = c;
+        }
+        return cubes;
+    }
+
+    @Test
+    public void testHashCode() {
+        var copy = MoveEngine.cube(MoveEngine.state(cube));
+        assertEquals(cube, copy);
+        assertEquals(cube.hashCode(), copy.hashCode());
+
+        var set = new HashSet<Cube>();
+        for (var move: Move.values())
+            set.add(move.apply(cube));
+        assertTrue(set.contains(cube.U().U_().U()));
+        assertFalse(set.contains(cube));
+    }
+
+    @Test
+    public void testPack() {
+        long word = Cube.pack(cube.top, cube.left);
+        assertEquals(cube.top, Cube.unpackHigh(word));
+        assertEquals(cube.left, Cube.unpackLow(word));
+    }
+
+    @Test
+    public void testSameAsHashSet() {
+        var cubes = randomWalk(20_000, 1);
+        var expected = new HashSet<Cube>();
+        var set = new CubeStateSet();
+        for (var c: cubes)
+            assertEquals(expected.add(c), set.add(c));
+        assertEquals(expected.size(), set.size());
+        for (var c: randomWalk(20_000, 2))
+            assertEquals(expected.contains(c), set.contains(c));
+
+        var visited = new HashSet<Cube>();
+        set.forEach(visited::add);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testStatesAndMutableCubes() {
+        var set = new CubeStateSet(4);
+        var mutable = new MutableCube(cube);
+        assertTrue(set.add(mutable));
+        mutable.apply(Move.R.index());
+        assertTrue(set.add(MoveEngine.state(cube.R().U())));
+        assertTrue(set.contains(cube));
+        assertFalse(set.contains(mutable));
+        assertTrue(set.contains(cube.R().U()));
+        assertFalse(set.add(cube));
+    }
+
+    @Test
+    public void testCapacity() {
+        var set = new CubeStateSet(1000);
+        assertEquals(2048, set.capacity());
+        assertEquals(CubeStateSet.memoryBytesFor(1000), set.memoryBytes());
+        for (var c: randomWalk(1000, 3))
+            set.add(c);
+        assertEquals(2048, set.capacity());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(cube.R()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyState() {
+        new CubeStateSet().add(new Cube(0, 0, 1, 1, 1, 1));
+    }
+
+    @Test
+    public void testMap() {
+        var cubes = randomWalk(10_000, 4);
+        var expected = new HashMap<Cube, Integer>();
+        var map = new CubeStateMap();
+        for (int i = 0; i < cubes.length; i++) {
+            var old = expected.put(cubes[i], i);
+            assertEquals(old == null ? -1 : old, map.put(cubes[i], i, -1));
+        }
+        assertEquals(expected.size(), map.size());
+        for (var e: expected.entrySet())
+            assertEquals((int) e.getValue(), map.get(e.getKey(), -1));
+        assertEquals((int) expected.getOrDefault(cube, -1), map.get(cube, -1));
+        assertEquals(28L * map.capacity(), map.memoryBytes());
+    }
+}
@@ -3,6 +3,8 @@ package rubik;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -273,4 +275,88 @@ public class CubeTest {
 
         assertFalse(Cube.equivalent(cube, notEquiv));
     }
+
+    private static int randomFace(Random rnd) {
+        int face = 0;
+        for (int cell = 0; cell < 9; cell++)
+            face = face << 3 | (1 + rnd.nextInt(7));
+        return face;
+    }
+
+    @Test
+    public void testFaceEquivalentMatchesCellLoop() {
+        var rnd = new Random(9);
+        for (int i = 0; i < 100_000; i++) {
+            int face1 = randomFace(rnd), face2 = randomFace(rnd);
+            // Mostly equal cells, so both answers come up.
+            if (rnd.nextBoolean()) face2 = face1 ^ (rnd.nextInt(8) << 3 * rnd.nextInt(9));
+            if (!validCells(face2)) continue;
+            assertEquals(Cube.faceEquivalentByCell(face1, face2), Cube.faceEquivalent(face1, face2));
+        }
+    }
+
+    private static boolean validCells(int face) {
+        for (int cell = 0; cell < 9; cell++)
+            if ((face >>> 3 * cell & 0b111) == 0) return false;
+        return true;
+    }
+
+    @Test
+    public void testPackedEquivalentMatchesFaces() {
+        var rnd = new Random(10);
+        for (int i = 0; i < 20_000; i++) {
+            int[] faces1 = new int[Cube.N_FACES], faces2 = new int[Cube.N_FACES];
+            for (int f = 0; f < Cube.N_FACES; f++) {
+                faces1[f] = randomFace(rnd);
+                faces2[f] = rnd.nextInt(4) == 0 ? randomFace(rnd) : faces1[f];
+            }
+            boolean expected = true;
+            for (int f = 0; f < Cube.N_FACES; f++)
+                expected &= Cube.faceEquivalentByCell(faces1[f], faces2[f]);
+            assertEquals(expected, Cube.equivalent(Cube.fromFaces(faces1), Cube.fromFaces(faces2)));
+        }
+    }
+
+    @Test
+    public void testRotations() throws IOException {
+        var cube = Cube.fromResource("/cube2/base.txt").R().U2()._F();
+        assertEquals(cube.F().x(), cube.x().U());
+        assertEquals(cube.U().y(), cube.y().U());
+        assertEquals(cube.U().z(), cube.z().R());
+        assertEquals(cube.R().x(), cube.x().R());
+        assertEquals(cube, cube.x().x().x().x());
+        assertEquals(cube, cube.y().y().y().y());
+        assertEquals(cube, cube.z().z().z().z());
+    }
+
+    @Test
+    public void testRotateMatchesSymmetries() throws IOException {
+        var cube = Cube.fromResource("/cube2/base.txt").R().U2()._F();
+        var rotated = new HashSet<Cube>();
+        var expected = new HashSet<Cube>();
+        for (int r = 0; r < Cube.N_ROTATIONS; r++)
+            rotated.add(cube.rotate(r));
+        for (int i = 0; i < Symmetry.ROTATIONS; i++)
+            expected.add(Symmetry.of(i).permutation().apply(cube));
+        assertEquals(Cube.N_ROTATIONS, rotated.size());
+        assertEquals(expected, rotated);
+        assertEquals(cube, cube.rotate(0));
+        assertTrue(rotated.contains(cube.x()));
+        assertTrue(rotated.contains(cube.y()));
+        assertTrue(rotated.contains(cube.z()));
+    }
+
+    @Test
+    public void testEquivalentUpToRotation() throws IOException {
+        var cube = Cube.fromResource("/equiv/base.txt");
+        var equiv = Cube.fromResource("/equiv/equiv.txt");
+        var notEquiv = Cube.fromResource("/equiv/not-equiv.txt");
+        for (int r = 0; r < Cube.N_ROTATIONS; r++) {
+            var rotated = equiv.rotate(r);
+            assertTrue(Cube.equivalentUpToRotation(cube, rotated));
+            assertTrue(Cube.equivalent(cube.rotate(Cube.rotationTo(cube, rotated).getAsInt()), rotated));
+            assertFalse(Cube.equivalentUpToRotation(cube, notEquiv.rotate(r)));
+        }
+        assertFalse(Cube.equivalentUpToRotation(cube1, cube1.R()));
+    }
 }
@@ -0,0 +1,142 @@
+package rubik;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class CubieCubeTest {
+    @Parameterized.Parameters(name="{0}")
+    public static Collection<String> baseDirs() {
+        return Arrays.asList(
+            "/cube1",
+            "/cube2"
+        );
+    }
+
+    private final Cube cube;
+
+    public CubieCubeTest(String baseDir) throws IOException {
+        cube = Cube.fromResource(baseDir + "/base.txt");
+    }
+
+    @Test
+    public void testRoundTrip() {
+        var cubie = CubieCube.fromCube(cube);
+        assertEquals(cube, cubie.toCube());
+    }
+
+    @Test
+    public void testInvariants() throws IOException {
+        var solved = CubieCube.fromCube(Cube.fromResource("/cube1/base.txt"));
+        assertTrue(solved.isSolved());
+
+        // The second cube has a single twisted corner; it cannot be solved.
+        var twisted = CubieCube.fromCube(Cube.fromResource("/cube2/base.txt"));
+        assertEquals(2, twisted.cornerTwist());
+        assertEquals(0, twisted.edgeFlip());
+        assertEquals(twisted.cornerParity(), twisted.edgeParity());
+    }
+
+    @Test
+    public void testEachMove() {
+        for (var move: Move.values()) {
+            var cubie = CubieCube.fromCube(cube).apply(move.index());
+            assertEquals(move.name(), move.apply(cube), cubie.toCube());
+            assertEquals(move.name(), CubieCube.fromCube(move.apply(cube)), cubie);
+        }
+    }
+
+    @Test
+    public void testRandomSequence() {
+        var rnd = new Random(5);
+        var cubie = CubieCube.fromCube(cube);
+        int twist = cubie.cornerTwist(), flip = cubie.edgeFlip();
+        var c = cube;
+        for (int i = 0; i < 300; i++) {
+            int move = rnd.nextInt(Move.COUNT);
+            c = Move.of(move).apply(c);
+            cubie.apply(move);
+            assertEquals(twist, cubie.cornerTwist());
+            assertEquals(flip, cubie.edgeFlip());
+            assertEquals(cubie.cornerParity(), cubie.edgeParity());
+        }
+        assertEquals(c, cubie.toCube());
+    }
+
+    @Test
+    public void testSolved() {
+        var solved = new CubieCube();
+        assertTrue(solved.isSolved());
+        assertEquals(solved, CubieCube.fromCube(CubieCube.solvedCube(CubieCube.DEFAULT_COLORS)));
+        assertTrue(solved.apply(Move.R.index()).apply(Move._R.index()).isSolved());
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testTwoCentersOfOneColor() {
+        int[] faces = cube.faces();
+        faces[Cube.TOP] = faces[Cube.BOTTOM];
+        CubieCube.fromCube(Cube.fromFaces(faces));
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testImpossibleCorner() {
+        int[] faces = cube.faces();
+        // Paint the R sticker of the corner URF with the color of U: a corner with two U stickers.
+        int sticker = CubieCube.CORNER_STICKERS[CubieCube.URF][1];
+        int offset = StickerProgram.offset(sticker);
+        int topColor = StickerProgram.color(faces, 9 * Cube.TOP + 4);
+        faces[Cube.RIGHT] = faces[Cube.RIGHT] & ~(0b111 << offset) | topColor << offset;
+        CubieCube.fromCube(Cube.fromFaces(faces));
+    }
+
+    @Test
+    public void testCheckSolvable() throws IOException {
+        var solved = Cube.fromResource("/cube1/base.txt");
+        solved.validateSolvable();
+        solved.R().U2()._F().validateSolvable();
+        // cube2 has a twisted corner.
+        var reason = unsolvableReason(cube);
+        assertTrue(cube.equals(solved) ? reason == null : reason.contains("twisted"));
+
+        var cubie = CubieCube.fromCube(solved);
+        cubie.eo[CubieCube.UF] = 1;
+        assertTrue(unsolvableReason(cubie.toCube()).contains("edge is flipped"));
+
+        cubie = CubieCube.fromCube(solved);
+        cubie.ep[CubieCube.UF] = CubieCube.UR;
+        cubie.ep[CubieCube.UR] = CubieCube.UF;
+        assertTrue(unsolvableReason(cubie.toCube()).contains("swapped"));
+
+        // Pieces DFR and ULB replaced with URF and DBL: the colors still count 9 each.
+        cubie = CubieCube.fromCube(solved);
+        cubie.cp[CubieCube.DFR] = CubieCube.URF;
+        cubie.cp[CubieCube.ULB] = CubieCube.DBL;
+        assertEquals("Unsolvable cube: two URF corners, at URF and DFR", unsolvableReason(cubie.toCube()));
+
+        // Wildcards make a pattern, which no turns solve.
+        int[] faces = solved.faces();
+        faces[Cube.TOP] = Cube.makeFace(7, 7, 7, 7, 1, 7, 7, 7, 7);
+        assertTrue(unsolvableReason(Cube.fromFaces(faces)).contains("wildcards"));
+    }
+
+    /**
+     * @return the message of the check, or null if the cube is solvable.
+     */
+    private static String unsolvableReason(Cube cube) {
+        try {
+            cube.validateSolvable();
+            return null;
+        } catch (Cube.InvalidCubeException ex) {
+            return ex.getMessage();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HashedMutableCubeTest {
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public HashedMutableCubeTest() throws IOException {}
+
+    @Test
+    public void testEachMove() throws IOException {
+        for (var base: new Cube[] { solved, Cube.fromResource("/cube2/base.txt"), Cube.fromResource("/equiv/equiv.txt") }) {
+            for (var move: Move.values()) {
+                var cube = new HashedMutableCube(base).apply(move);
+                assertTrue(move.name(), cube.sameAs(move.apply(base)));
+                assertEquals(move.name(), Zobrist.hash(move.apply(base)), cube.hash());
+            }
+        }
+    }
+
+    /**
+     * The hash kept move by move is the hash of the faces.
+     */
+    @Test
+    public void testIncremental() {
+        var rnd = new Random(34);
+        var cube = new HashedMutableCube(solved);
+        for (int i = 0; i < 200; i++) {
+            int[] moves = rnd.ints(1 + rnd.nextInt(30), 0, Move.COUNT).toArray();
+            cube.apply(moves);
+            assertEquals(cube.cube().hash(), cube.hash());
+            if (i % 3 == 0) {
+                CubePermutation.ofMoves(moves).apply(cube);
+                assertEquals(cube.cube().hash(), cube.hash());
+            }
+            if (i % 5 == 0) {
+                cube.undo(moves);
+                assertEquals(cube.cube().hash(), cube.hash());
+            }
+        }
+        assertEquals(cube.hash(), new HashedMutableCube(cube).hash());
+        assertEquals(cube.hash(), new HashedMutableCube(solved).set(cube.toCube()).hash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMove() {
+        new HashedMutableCube(solved).apply(Move.COUNT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMove() {
+        new HashedMutableCube(solved).apply(-1);
+    }
+}
@@ -0,0 +1,94 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IdaStarSolverTest {
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public IdaStarSolverTest() throws IOException {}
+
+    private static boolean isSolved(Cube cube) {
+        return StickerHeuristic.isSolved(cube.faces());
+    }
+
+    @Test
+    public void testSolved() {
+        var solution = new IdaStarSolver(Heuristic.STICKERS).solve(solved);
+        assertTrue(solution.isPresent());
+        assertEquals(0, solution.get().length);
+    }
+
+    @Test
+    public void testSingleMove() {
+        var solver = new IdaStarSolver(Heuristic.STICKERS);
+        for (var move: Move.values()) {
+            var solution = solver.solve(move.apply(solved)).orElseThrow();
+            assertArrayEquals(move.name(), new int[] { move.inverse().index() }, solution);
+        }
+    }
+
+    @Test
+    public void testRandomScrambles() {
+        var rnd = new Random(3);
+        var solver = new IdaStarSolver(Heuristic.STICKERS);
+        for (int i = 0; i < 10; i++) {
+            var cube = new MutableCube(solved);
+            int length = 1 + rnd.nextInt(4);
+            for (int k = 0; k < length; k++)
+                cube.apply(rnd.nextInt(Move.COUNT));
+
+            int[] solution = solver.solve(cube.toCube()).orElseThrow();
+            assertTrue(solution.length <= length);
+            assertTrue(isSolved(cube.apply(solution).toCube()));
+        }
+    }
+
+    @Test
+    public void testOptimalAgainstPlainDeepening() {
+        var cube = solved.R().U().F2()._L();
+        int[] withHeuristic = new IdaStarSolver(Heuristic.STICKERS).solve(cube).orElseThrow();
+        int[] without = new IdaStarSolver(Heuristic.ZERO).solve(cube).orElseThrow();
+        assertEquals(4, withHeuristic.length);
+        assertEquals(without.length, withHeuristic.length);
+    }
+
+    @Test
+    public void testMaxDepth() {
+        var cube = solved.R().U().F();
+        var solver = new IdaStarSolver(Heuristic.STICKERS);
+        assertFalse(solver.solve(cube, 2).isPresent());
+        assertTrue(solver.nodes() > 0);
+    }
+
+    /**
+     * A wildcard never matches its center, so the search would never end.
+     */
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testWildcards() throws IOException {
+        new IdaStarSolver(Heuristic.STICKERS).solve(Cube.fromResource("/equiv/equiv.txt"), 6);
+    }
+
+    @Test
+    public void testStickerHeuristic() {
+        assertEquals(0, Heuristic.STICKERS.estimate(new MutableCube(solved)));
+        assertEquals(1, Heuristic.STICKERS.estimate(new MutableCube(solved.F())));
+        assertEquals(2, Heuristic.STICKERS.max(Heuristic.ZERO).estimate(new MutableCube(solved.F().R())));
+    }
+
+    @Test
+    public void testCanFollow() {
+        int u = Move.U.index(), d = Move.D.index(), u2 = Move.U2.index();
+        assertTrue(Move.canFollow(-1, u));
+        assertFalse(Move.canFollow(u, u2));
+        assertTrue(Move.canFollow(u, d));
+        assertFalse(Move.canFollow(d, u));
+    }
+}
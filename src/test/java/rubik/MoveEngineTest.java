@@ -0,0 +1,107 @@
+package rubik;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class MoveEngineTest {
+    @Parameterized.Parameters(name="{0}")
+    public static Collection<String> baseDirs() {
+        return Arrays.asList(
+            "/cube1",
+            "/cube2"
+        );
+    }
+
+    private final Cube cube;
+
+    public MoveEngineTest(String baseDir) throws IOException {
+        cube = Cube.fromResource(baseDir + "/base.txt");
+    }
+
+    @Test
+    public void testEachMove() {
+        for (var move: Move.values()) {
+            int[] state = MoveEngine.state(cube);
+            MoveEngine.apply(state, move.index());
+            assertEquals(move.name(), move.apply(cube), MoveEngine.cube(state));
+            assertEquals(move.name(), move.apply(cube), MoveEngine.apply(cube, move.index()));
+        }
+    }
+
+    @Test
+    public void testApplyFromTo() {
+        int[] from = MoveEngine.state(cube);
+        int[] to = new int[6];
+        MoveEngine.apply(from, to, Move.F.index());
+        assertEquals(cube.F(), MoveEngine.cube(to));
+        assertEquals(cube, MoveEngine.cube(from));
+    }
+
+    @Test
+    public void testRandomSequence() {
+        var rnd = new Random(11);
+        int[] moves = new int[500];
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = rnd.nextInt(Move.COUNT);
+
+        var expected = cube;
+        for (int move: moves)
+            expected = Move.of(move).apply(expected);
+
+        int[] state = MoveEngine.state(cube);
+        MoveEngine.apply(state, moves);
+        assertEquals(expected, MoveEngine.cube(state));
+    }
+
+    @Test
+    public void testPermutations() {
+        for (var move: Move.values()) {
+            int[] perm = MoveEngine.permutation(move.index());
+            int[] inverse = MoveEngine.permutation(move.inverse().index());
+            for (int s = 0; s < perm.length; s++)
+                assertEquals(s, perm[inverse[s]]);
+            // Centers never move.
+            for (int face = 0; face < 6; face++)
+                assertEquals(9 * face + 4, perm[9 * face + 4]);
+        }
+    }
+
+    @Test
+    public void testProgramsAreSmall() {
+        for (var move: Move.values())
+            assertTrue(move.name(), MoveEngine.program(move.index()).size() <= 18);
+    }
+
+    @Test
+    public void testCompileIdentity() {
+        int[] identity = new int[StickerProgram.N_STICKERS];
+        for (int s = 0; s < identity.length; s++)
+            identity[s] = s;
+        var program = StickerProgram.compile(identity);
+        assertEquals(6, program.size());
+        int[] state = MoveEngine.state(cube);
+        program.apply(state);
+        assertArrayEquals(MoveEngine.state(cube), state);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMove() {
+        MoveEngine.apply(MoveEngine.state(cube), Move.COUNT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNotPermutation() {
+        StickerProgram.compile(new int[StickerProgram.N_STICKERS]);
+    }
+}
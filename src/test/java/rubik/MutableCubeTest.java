@@ -0,0 +1,79 @@
+package rubik;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class MutableCubeTest {
+    @Parameterized.Parameters(name="{0}")
+    public static Collection<String> baseDirs() {
+        return Arrays.asList(
+            "/cube1",
+            "/cube2"
+        );
+    }
+
+    private final Cube cube;
+
+    public MutableCubeTest(String baseDir) throws IOException {
+        cube = Cube.fromResource(baseDir + "/base.txt");
+    }
+
+    @Test
+    public void testEachMove() {
+        for (var move: Move.values()) {
+            var mutable = new MutableCube(cube);
+            mutable.apply(move.index());
+            assertEquals(move.name(), move.apply(cube), mutable.toCube());
+        }
+    }
+
+    @Test
+    public void testUndo() {
+        for (var move: Move.values()) {
+            var mutable = new MutableCube(cube);
+            mutable.apply(move.index()).undo(move.index());
+            assertTrue(move.name(), mutable.sameAs(cube));
+        }
+    }
+
+    @Test
+    public void testInverse() {
+        for (var move: Move.values()) {
+            assertEquals(cube, move.inverse().apply(move.apply(cube)));
+            assertEquals(move, move.inverse().inverse());
+        }
+    }
+
+    @Test
+    public void testRandomSequence() {
+        var rnd = new Random(7);
+        int[] moves = new int[200];
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = rnd.nextInt(Move.COUNT);
+
+        var expected = cube;
+        for (int move: moves)
+            expected = Move.of(move).apply(expected);
+
+        var mutable = new MutableCube(cube).apply(moves);
+        assertEquals(expected, mutable.toCube());
+
+        mutable.undo(moves);
+        assertTrue(mutable.sameAs(cube));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMove() {
+        new MutableCube(cube).apply(Move.COUNT);
+    }
+}
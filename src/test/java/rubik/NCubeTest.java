@@ -0,0 +1,151 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NCubeTest {
+    private static final String FACES = "ULFRBD";
+
+    private final Cube cube2 = Cube.fromResource("/cube2/base.txt");
+
+    public NCubeTest() throws IOException {}
+
+    @Test
+    public void testMatchesCube() {
+        for (var move: Move.values()) {
+            char face = move.name().replace("_", "").charAt(0);
+            int turns = move.name().endsWith("2") ? 2 : move.name().contains("_") ? -1 : 1;
+            assertEquals(move.name(), move.apply(cube2), NCube.of(cube2).turn(face, 1, turns).toCube());
+        }
+        assertEquals(cube2, NCube.of(cube2).toCube());
+        assertEquals(Algorithm.parse("R U R' U2 F' B D L2").apply(cube2),
+                     NCube.of(cube2).apply("R U R' U2 F' B D L2").toCube());
+    }
+
+    @Test
+    public void testOppositeLayers() {
+        for (int n = NCube.MIN_SIZE; n <= 7; n++) {
+            var cube = scramble(NCube.solved(n), new Random(n), 30);
+            for (int f = 0; f < FACES.length(); f++) {
+                char face = FACES.charAt(f), opposite = "DRBLFU".charAt(f);
+                for (int layer = 1; layer <= n; layer++)
+                    assertEquals(cube.turn(face, layer, 1), cube.turn(opposite, n + 1 - layer, -1));
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesGeometry() {
+        for (int n = NCube.MIN_SIZE; n <= 7; n++) {
+            var cube = scramble(NCube.solved(n), new Random(200 + n), 50);
+            for (int f = 0; f < FACES.length(); f++) {
+                for (int layer = 1; layer <= n; layer++) {
+                    int[] quarter = NCube.quarterTurn(n, f, layer), perm = quarter;
+                    for (int turns = 1; turns <= 3; turns++) {
+                        var turned = cube.turn(FACES.charAt(f), layer, turns);
+                        for (int s = 0; s < perm.length; s++)
+                            assertEquals(n + " " + FACES.charAt(f) + layer + " " + turns + " " + s,
+                                         at(cube, perm[s]), at(turned, s));
+                        int[] next = new int[perm.length];
+                        for (int s = 0; s < perm.length; s++) next[s] = perm[quarter[s]];
+                        perm = next;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTurnsUndo() {
+        for (int n = NCube.MIN_SIZE; n <= 7; n++) {
+            var cube = NCube.solved(n);
+            var rnd = new Random(100 + n);
+            char[] faces = new char[40];
+            int[] layers = new int[40], turns = new int[40];
+            var turned = cube;
+            for (int i = 0; i < faces.length; i++) {
+                faces[i] = FACES.charAt(rnd.nextInt(6));
+                layers[i] = 1 + rnd.nextInt(n);
+                turns[i] = 1 + rnd.nextInt(3);
+                turned = turned.turn(faces[i], layers[i], turns[i]);
+            }
+            turned.validate();
+            assertNotEquals(cube, turned);
+            for (int i = faces.length - 1; i >= 0; i--)
+                turned = turned.turn(faces[i], layers[i], -turns[i]);
+            assertEquals(cube, turned);
+            assertEquals(cube, cube.turn('F', 1, 4));
+        }
+    }
+
+    @Test
+    public void testNotation() {
+        var cube = scramble(NCube.solved(5), new Random(5), 20);
+        assertEquals(cube.turn('R', 1, 1).turn('R', 2, 1), cube.apply("Rw"));
+        assertEquals(cube.turn('R', 1, 2).turn('R', 2, 2).turn('R', 3, 2), cube.apply("3Rw2"));
+        assertEquals(cube.turn('U', 2, -1), cube.apply("2U'"));
+        assertEquals(cube.turn('F', 1, -1).turn('B', 1, 2), cube.apply("F' B2"));
+        assertEquals(cube, cube.apply("Rw Rw'"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotationLayerTooDeep() {
+        NCube.solved(3).apply("4R");
+    }
+
+    @Test
+    public void testReadAndToString() throws IOException {
+        assertEquals(NCube.of(Cube.fromResource("/cube1/base.txt")), NCube.fromResource("/cube1/base.txt", 3));
+        for (int n = NCube.MIN_SIZE; n <= 6; n++) {
+            var cube = scramble(NCube.solved(n), new Random(n), 25);
+            var text = cube.toString() + cube.turn('R', 1, 1);
+            try (var parser = CubeParser.of(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)))) {
+                assertEquals(cube, NCube.read(parser, n));
+                assertEquals(cube.turn('R', 1, 1), NCube.read(parser, n));
+                assertNull(NCube.read(parser, n));
+            }
+        }
+    }
+
+    @Test
+    public void testEquivalent() throws IOException {
+        var cube = scramble(NCube.solved(4), new Random(4), 25);
+        var text = cube.toString();
+        // a wildcard in the first cell of the top face
+        int first = text.indexOf("| ") + 2;
+        var pattern = text.substring(0, first) + "7" + text.substring(first + 1);
+        var wild = NCube.read(CubeParser.of(ByteBuffer.wrap(pattern.getBytes(StandardCharsets.UTF_8))), 4);
+        assertNotEquals(cube, wild);
+        assertTrue(NCube.equivalent(cube, wild));
+        assertTrue(NCube.equivalent(wild, cube));
+        assertFalse(NCube.equivalent(cube.turn('U', 2, 1), wild));
+        assertFalse(NCube.equivalent(NCube.solved(4), NCube.solved(5)));
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testValidate() throws IOException {
+        var text = NCube.solved(2).toString().replaceFirst("\\| 1 1", "| 1 2");
+        NCube.read(CubeParser.of(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))), 2);
+    }
+
+    private static int at(NCube cube, int sticker) {
+        int n = cube.size();
+        return cube.at(sticker / (n * n), sticker % (n * n) / n + 1, sticker % n + 1);
+    }
+
+    private static NCube scramble(NCube cube, Random rnd, int length) {
+        for (int i = 0; i < length; i++)
+            cube = cube.turn(FACES.charAt(rnd.nextInt(6)), 1 + rnd.nextInt(cube.size()), 1 + rnd.nextInt(3));
+        return cube;
+    }
+}
@@ -0,0 +1,112 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PackedTableTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testGetAndSet() {
+        for (int bits: new int[] { 2, 4 }) {
+            int unknown = (1 << bits) - 1;
+            var table = PackedTable.allocate(1001, bits, unknown);
+            assertEquals(1001, table.size());
+            assertEquals(bits, table.bits());
+            assertEquals(bits == 2 ? 252 : 504, table.memoryBytes());
+            for (int i = 0; i < 1001; i++) assertEquals(unknown, table.get(i));
+            for (int i = 0; i < 1001; i++) assertTrue(table.compareAndSet(i, unknown, i % unknown));
+            for (int i = 0; i < 1001; i++) {
+                assertEquals(i % unknown, table.get(i));
+                assertFalse(table.compareAndSet(i, unknown, 0));
+            }
+            table.set(500, unknown);
+            assertEquals(unknown, table.get(500));
+            assertEquals(499 % unknown, table.get(499));
+            assertEquals(501 % unknown, table.get(501));
+        }
+    }
+
+    @Test
+    public void testChunks() {
+        // 64 bytes per buffer: 128 entries of 4 bits.
+        var table = PackedTable.allocate(1000, 4, 0, 64);
+        for (int i = 0; i < 1000; i++) table.set(i, i % 13);
+        for (int i = 0; i < 1000; i++) assertEquals(i % 13, table.get(i));
+        assertEquals(500, table.memoryBytes());
+    }
+
+    @Test
+    public void testLayout() throws IOException {
+        var table = PackedTable.allocate(16, 2, 0);
+        table.set(0, 1);
+        table.set(1, 2);
+        table.set(15, 3);
+        var path = folder.newFile().toPath();
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            table.write(channel);
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var bytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(bytes, 0);
+            // Lowest bits first: the file format of the tables written before.
+            assertEquals(0b1001 | 3 << 30, bytes.getInt(0));
+        }
+    }
+
+    @Test
+    public void testWriteAndMap() throws IOException {
+        var table = PackedTable.allocate(12345, 4, 15);
+        for (int i = 0; i < 12345; i += 7) table.set(i, i % 15);
+        var path = folder.newFile().toPath();
+        try (var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(10));
+            table.write(channel);
+        }
+        PackedTable mapped;
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            assertEquals(10 + PackedTable.bytes(12345, 4), channel.size());
+            mapped = PackedTable.map(channel, 10, 12345, 4);
+        }
+        for (int i = 0; i < 12345; i++) assertEquals(table.get(i), mapped.get(i));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBits() {
+        PackedTable.allocate(10, 3, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        PackedTable.allocate(10, 2, 4);
+    }
+
+    /**
+     * Threads race to set the entries of the same ints; each entry is set exactly once.
+     */
+    @Test
+    public void testConcurrent() {
+        var table = PackedTable.allocate(1 << 16, 2, 3);
+        var set = new AtomicLong();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 1 << 16; i++)
+                if (table.compareAndSet(i, 3, i % 3)) set.incrementAndGet();
+        });
+        assertEquals(1 << 16, set.get());
+        for (int i = 0; i < 1 << 16; i++) assertEquals(i % 3, table.get(i));
+    }
+}
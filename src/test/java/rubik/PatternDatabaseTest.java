@@ -0,0 +1,101 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PatternDatabaseTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public PatternDatabaseTest() throws IOException {}
+
+    @Test
+    public void testSizes() {
+        assertEquals(88_179_840, PatternDatabase.size(PatternDatabase.Kind.CORNERS, 8));
+        assertEquals(42_577_920, PatternDatabase.size(PatternDatabase.Kind.EDGES, 6));
+        assertEquals(12 * 11 * 10 * 8, PatternDatabase.size(PatternDatabase.Kind.EDGES, 3));
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        var db = PatternDatabase.build(PatternDatabase.Kind.CORNERS, 4, ForkJoinPool.commonPool());
+        int[] places = new int[4], orientations = new int[4];
+        for (long index = 0; index < db.size(); index += 97) {
+            db.decode(index, places, orientations);
+            assertEquals(index, db.encode(places, orientations));
+        }
+    }
+
+    @Test
+    public void testDistances() {
+        var db = PatternDatabase.edges(3);
+        var cubie = new CubieCube();
+        int[] places = new int[3], orientations = new int[3];
+        assertEquals(0, db.distance(db.index(cubie, places, orientations)));
+        for (long index = 0; index < db.size(); index++)
+            assertTrue(db.distance(index) <= db.maxDistance());
+
+        // Moves never change a distance by more than one.
+        var rnd = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int before = db.distance(db.index(cubie, places, orientations));
+            cubie.apply(rnd.nextInt(Move.COUNT));
+            int after = db.distance(db.index(cubie, places, orientations));
+            assertTrue(Math.abs(after - before) <= 1);
+        }
+    }
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        var built = PatternDatabase.build(PatternDatabase.Kind.CORNERS, 4, ForkJoinPool.commonPool());
+        var path = folder.newFile("corners4.pdb").toPath();
+        built.write(path);
+        var loaded = PatternDatabase.load(path);
+        assertEquals(built.kind(), loaded.kind());
+        assertEquals(built.pieces(), loaded.pieces());
+        assertEquals(built.maxDistance(), loaded.maxDistance());
+        for (long index = 0; index < built.size(); index++)
+            assertEquals(built.distance(index), loaded.distance(index));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadNotADatabase() throws IOException {
+        var file = folder.newFile("empty.pdb");
+        PatternDatabase.load(file.toPath());
+    }
+
+    @Test
+    public void testHeuristic() {
+        var heuristic = new PdbHeuristic(
+            PatternDatabase.build(PatternDatabase.Kind.CORNERS, 4, ForkJoinPool.commonPool()),
+            PatternDatabase.edges(3));
+        assertEquals(0, heuristic.estimate(new MutableCube(solved)));
+        assertEquals(1, heuristic.estimate(new MutableCube(solved.F())));
+
+        var cube = solved.R().U().F2()._L();
+        int[] withPdb = new IdaStarSolver(heuristic).solve(cube).orElseThrow();
+        int[] withStickers = new IdaStarSolver(Heuristic.STICKERS).solve(cube).orElseThrow();
+        assertEquals(withStickers.length, withPdb.length);
+        assertTrue(StickerHeuristic.isSolved(new MutableCube(cube).apply(withPdb).faces));
+    }
+
+    @Test
+    public void testReadPieces() {
+        var cube = new MutableCube(solved).apply(new int[] { 0, 4, 8, 12, 16 });
+        var cubie = new CubieCube();
+        assertTrue(cubie.read(cube.faces));
+        assertEquals(CubieCube.fromCube(cube.toCube()), cubie);
+        assertArrayEquals(CubieCube.fromCube(cube.toCube()).colors, cubie.colors);
+    }
+}
@@ -0,0 +1,101 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PocketCubeSolverTest {
+    private static final PocketCubeSolver SOLVER = PocketCubeSolver.build();
+
+    /**
+     * Number of 2x2 states at each distance in the half-turn metric.
+     */
+    private static final long[] DISTANCES = { 1, 9, 54, 321, 1847, 9992, 50136, 227536, 870072, 1887748, 623800, 2644 };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCoordinates() {
+        byte[] cp = new byte[CubieCube.N_CORNERS], co = new byte[CubieCube.N_CORNERS];
+        for (int perm = 0; perm < PocketCubeSolver.N_PERM; perm++) {
+            PocketCubeSolver.setPermutation(cp, perm);
+            assertEquals(perm, PocketCubeSolver.permutation(cp));
+        }
+        for (int twist = 0; twist < PocketCubeSolver.N_TWIST; twist++) {
+            PocketCubeSolver.setTwist(co, twist);
+            assertEquals(twist, PocketCubeSolver.twist(co));
+        }
+    }
+
+    @Test
+    public void testDistances() {
+        assertEquals(11, SOLVER.maxDistance());
+        assertTrue(SOLVER.memoryBytes() < 1 << 20);
+        long[] counts = new long[SOLVER.maxDistance() + 1];
+        for (int index = 0; index < PocketCubeSolver.N_STATES; index++)
+            counts[SOLVER.solve(index).length]++;
+        assertArrayEquals(DISTANCES, counts);
+    }
+
+    @Test
+    public void testSolve() {
+        var rnd = new Random(17);
+        var solved = NCube.solved(2);
+        for (int i = 0; i < 200; i++) {
+            var scramble = randomMoves(rnd, 1 + rnd.nextInt(20));
+            var cube = solved.apply(scramble.toString());
+            var solution = SOLVER.solve(cube);
+            assertTrue(solution.length() <= scramble.length());
+            assertTrue(isSolved(cube.apply(solution.toString())));
+            assertEquals(solution.length(), SOLVER.distance(cube));
+        }
+        assertEquals(0, SOLVER.solve(solved).length());
+        assertEquals(1, SOLVER.distance(solved.apply("R")));
+    }
+
+    /**
+     * Moves of any face: the DBL corner moves, and the colors of the solution follow it.
+     */
+    private static Algorithm randomMoves(Random rnd, int length) {
+        int[] moves = new int[length];
+        for (int i = 0; i < length; i++) moves[i] = rnd.nextInt(Move.COUNT);
+        return Algorithm.of(moves);
+    }
+
+    private static boolean isSolved(NCube cube) {
+        for (int face = 0; face < Cube.N_FACES; face++)
+            for (int cell = 0; cell < 4; cell++)
+                if (cube.at(face, cell / 2 + 1, cell % 2 + 1) != cube.at(face, 1, 1)) return false;
+        return true;
+    }
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        var path = folder.newFile("pocket.table").toPath();
+        SOLVER.write(path);
+        var loaded = PocketCubeSolver.load(path);
+        assertEquals(SOLVER.maxDistance(), loaded.maxDistance());
+        var cube = NCube.solved(2).apply("R U2 F' R U R2 F");
+        assertEquals(SOLVER.solve(cube), loaded.solve(cube));
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testTwistedCorner() throws IOException {
+        // the colors of the URF corner turned in place
+        var lines = NCube.solved(2).toString().split("\n");
+        lines[2] = lines[2].replace("| 1 1 |", "| 1 3 |");
+        lines[4] = lines[4].replace("| 3 3 | 4 4 |", "| 3 4 | 1 4 |");
+        var text = String.join("\n", lines);
+        PocketCubeSolver.index(NCube.read(CubeParser.of(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))), 2));
+    }
+}
@@ -0,0 +1,86 @@
+package rubik;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScramblerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLegal() {
+        var scrambler = new Scrambler();
+        var rnd = new SplittableRandom(18);
+        for (int i = 0; i < 10_000; i++) {
+            var cube = CubieCube.fromCube(scrambler.next(rnd));
+            assertEquals(0, cube.cornerTwist());
+            assertEquals(0, cube.edgeFlip());
+            assertEquals(cube.cornerParity(), cube.edgeParity());
+        }
+    }
+
+    @Test
+    public void testUniform() {
+        // where each corner and edge goes, and how it is turned, over many cubes
+        var rnd = new SplittableRandom(19);
+        var cube = new CubieCube();
+        int n = 240_000;
+        int[] corners = new int[CubieCube.N_CORNERS * 3], edges = new int[CubieCube.N_EDGES * 2];
+        for (int i = 0; i < n; i++) {
+            Scrambler.randomize(cube, rnd);
+            corners[3 * cube.cp[0] + cube.co[0]]++;
+            edges[2 * cube.ep[CubieCube.N_EDGES - 1] + cube.eo[CubieCube.N_EDGES - 1]]++;
+        }
+        assertTrue(chiSquare(corners, n) < 60);    // 23 degrees of freedom
+        assertTrue(chiSquare(edges, n) < 60);      // 23 degrees of freedom
+    }
+
+    private static double chiSquare(int[] counts, int n) {
+        double expected = (double) n / counts.length, sum = 0;
+        for (int count: counts) sum += (count - expected) * (count - expected) / expected;
+        return sum;
+    }
+
+    @Test
+    public void testStreamIsReproducible() {
+        var scrambler = new Scrambler();
+        int count = 3 * Scrambler.CHUNK + 17;
+        var parallel = scrambler.stream(count, 42).collect(Collectors.toList());
+        var sequential = scrambler.stream(count, 42).sequential().collect(Collectors.toList());
+        assertEquals(count, parallel.size());
+        assertEquals(sequential, parallel);
+        assertNotEquals(parallel.get(0), scrambler.stream(1, 43).findFirst().orElseThrow());
+        assertEquals(count, parallel.stream().distinct().count());
+    }
+
+    @Test
+    public void testColors() throws IOException {
+        var scheme = Cube.fromResource("/cube2/base.txt");
+        var cube = new Scrambler(scheme).next(new SplittableRandom(1));
+        for (int face = 0; face < Cube.N_FACES; face++)
+            assertEquals(StickerProgram.color(scheme.faces(), 9 * face + 4), StickerProgram.color(cube.faces(), 9 * face + 4));
+    }
+
+    @Test
+    public void testFill() throws IOException {
+        var scrambler = new Scrambler();
+        int count = Scrambler.CHUNK + 5;
+        var path = folder.newFile("random.cubes").toPath();
+        try (var file = CubeFile.create(path, count)) {
+            scrambler.fill(file, 7);
+        }
+        try (var file = CubeFile.open(path)) {
+            assertEquals(scrambler.stream(count, 7).collect(Collectors.toList()),
+                         file.stream().collect(Collectors.toList()));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package rubik;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SolverMetricsTest {
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public SolverMetricsTest() throws IOException {}
+
+    @After
+    public void tearDown() {
+        SolverMetrics.unregister();
+        SolverMetrics.get().reset();
+    }
+
+    @Test
+    public void testDisabled() {
+        SolverMetrics.get().reset();
+        new IdaStarSolver(Heuristic.STICKERS).solve(solved.R());
+        assertEquals(0, SolverMetrics.get().getSolves());
+    }
+
+    @Test
+    public void testCounters() throws Exception {
+        SolverMetrics.register();
+        SolverMetrics.get().reset();
+        var solver = new IdaStarSolver(Heuristic.STICKERS);
+        solver.solve(solved.R().U());
+        long nodes = solver.nodes(), prunes = solver.prunes();
+        assertTrue(prunes > 0 && prunes < nodes);
+        var failing = new IdaStarSolver(Heuristic.STICKERS);
+        assertFalse(failing.solve(solved.R().U().F(), 1).isPresent());
+
+        var metrics = SolverMetrics.get();
+        assertEquals(2, metrics.getSolves());
+        assertEquals(1, metrics.getFailures());
+        assertEquals(nodes + failing.nodes(), metrics.getNodesExpanded());
+        assertTrue(metrics.getPruneRate() > 0 && metrics.getPruneRate() < 1);
+        assertEquals(2, metrics.getMaxDepth());
+        assertTrue(metrics.getMeanDepth() >= 1 && metrics.getMeanDepth() <= 1.5);
+        assertTrue(metrics.getLatencyP50Millis() <= metrics.getLatencyMaxMillis());
+
+        var server = ManagementFactory.getPlatformMBeanServer();
+        var name = new ObjectName(SolverMetrics.OBJECT_NAME);
+        assertEquals(2L, server.getAttribute(name, "Solves"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, metrics.getSolves());
+        SolverMetrics.unregister();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long nanos: new long[] { 0, 3, 4, 7, 8, 1000, 123_456_789, Long.MAX_VALUE }) {
+            double value = SolverMetrics.bucketValue(SolverMetrics.bucket(nanos));
+            assertEquals(nanos, value, nanos / 8.0 + 0.5);
+        }
+        for (long nanos = 1; nanos < 1 << 20; nanos = nanos * 3 / 2 + 1)
+            assertTrue(SolverMetrics.bucket(nanos) >= SolverMetrics.bucket(nanos - 1));
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        var file = folder.newFile("solve.jfr").toPath();
+        try (var recording = new Recording()) {
+            for (var event: new String[] { "rubik.Parse", "rubik.Validate", "rubik.Solve" })
+                recording.enable(event).withoutThreshold();
+            recording.start();
+            var cube = Cube.fromResource("/cube1/base.txt").R();
+            new IdaStarSolver(Heuristic.STICKERS).solve(cube);
+            recording.stop();
+            recording.dump(file);
+        }
+        Map<String, RecordedEvent> events = new HashMap<>();
+        for (var event: RecordingFile.readAllEvents(file))
+            events.put(event.getEventType().getName(), event);
+        assertEquals("/cube1/base.txt", events.get("rubik.Parse").getString("source"));
+        assertEquals(54, events.get("rubik.Parse").getLong("cells"));
+        assertTrue(events.get("rubik.Validate").getBoolean("valid"));
+        assertEquals(1, events.get("rubik.Solve").getInt("length"));
+        assertEquals("IDA*", events.get("rubik.Solve").getString("solver"));
+    }
+}
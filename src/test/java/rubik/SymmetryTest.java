@@ -0,0 +1,119 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SymmetryTest {
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public SymmetryTest() throws IOException {}
+
+    private Cube scramble(Random rnd, int length) {
+        int[] moves = new int[length];
+        for (int i = 0; i < length; i++)
+            moves[i] = rnd.nextInt(Move.COUNT);
+        return MoveEngine.apply(solved, moves);
+    }
+
+    private static Symmetry withMatrix(int... matrix) {
+        for (int i = 0; i < Symmetry.COUNT; i++)
+            if (java.util.Arrays.equals(Symmetry.of(i).matrix(), matrix)) return Symmetry.of(i);
+        throw new AssertionError("No symmetry");
+    }
+
+    @Test
+    public void testGroup() {
+        var permutations = new HashSet<CubePermutation>();
+        for (int i = 0; i < Symmetry.COUNT; i++) {
+            var s = Symmetry.of(i);
+            assertEquals(i, s.index());
+            assertEquals(i >= Symmetry.ROTATIONS, s.isReflection());
+            permutations.add(s.permutation());
+            assertEquals(Symmetry.identity(), s.then(s.inverse()));
+            for (int j = 0; j < Symmetry.COUNT; j++) {
+                var t = Symmetry.of(j);
+                assertEquals(s.permutation().then(t.permutation()), s.then(t).permutation());
+            }
+        }
+        assertEquals(Symmetry.COUNT, permutations.size());
+        assertTrue(Symmetry.identity().permutation().isIdentity());
+    }
+
+    @Test
+    public void testSolvedIsFixed() {
+        for (int i = 0; i < Symmetry.COUNT; i++)
+            assertEquals(solved, Symmetry.of(i).apply(solved));
+    }
+
+    @Test
+    public void testConjugatesMoves() {
+        var rnd = new Random(14);
+        var cube = scramble(rnd, 20);
+        // a quarter turn about U commutes with U; the mirror through the plane of R and L turns U into U'
+        var y = withMatrix(0, 0, -1, 0, 1, 0, 1, 0, 0);
+        var mirror = withMatrix(-1, 0, 0, 0, 1, 0, 0, 0, 1);
+        assertFalse(y.isReflection());
+        assertTrue(mirror.isReflection());
+        assertEquals(y.apply(cube).U(), y.apply(cube.U()));
+        assertEquals(y.apply(cube).D2(), y.apply(cube.D2()));
+        assertEquals(mirror.apply(cube).U_(), mirror.apply(cube.U()));
+        assertEquals(mirror.apply(cube).L(), mirror.apply(cube._R()));
+        assertEquals(cube, mirror.apply(mirror.apply(cube)));
+    }
+
+    @Test
+    public void testKeepsSolvability() {
+        var rnd = new Random(15);
+        for (int n = 0; n < 20; n++) {
+            var cube = scramble(rnd, 25);
+            for (int i = 0; i < Symmetry.COUNT; i++) {
+                var c = CubieCube.fromCube(Symmetry.of(i).apply(cube));
+                assertEquals(0, c.cornerTwist());
+                assertEquals(0, c.edgeFlip());
+                assertEquals(c.cornerParity(), c.edgeParity());
+            }
+        }
+    }
+
+    @Test
+    public void testCanonical() {
+        var rnd = new Random(16);
+        for (int n = 0; n < 20; n++) {
+            var cube = scramble(rnd, 20);
+            var canonical = Symmetry.canonical(cube);
+            assertEquals(canonical.cube(), canonical.symmetry().apply(cube));
+            for (int i = 0; i < Symmetry.COUNT; i++)
+                assertEquals(canonical.cube(), Symmetry.canonical(Symmetry.of(i).apply(cube)).cube());
+        }
+        assertEquals(solved, Symmetry.canonical(solved).cube());
+        assertEquals(Symmetry.identity(), Symmetry.canonical(solved).symmetry());
+        assertNotEquals(Symmetry.canonical(solved.R()).cube(), Symmetry.canonical(solved.R2()).cube());
+        assertEquals(Symmetry.canonical(solved.R()).cube(), Symmetry.canonical(solved._F()).cube());
+    }
+
+    @Test
+    public void testWildcards() {
+        var cube = solved.R();
+        int[] faces = cube.faces();
+        faces[Cube.FRONT] |= 7;
+        var wild = Cube.fromFaces(faces);
+        for (int i = 0; i < Symmetry.COUNT; i++)
+            assertArrayEquals(wild.faces(), Symmetry.of(i).inverse().apply(Symmetry.of(i).apply(wild)).faces());
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testCentersMustDiffer() {
+        int[] faces = solved.faces();
+        faces[Cube.FRONT] = faces[Cube.TOP];
+        Symmetry.canonical(Cube.fromFaces(faces));
+    }
+}
@@ -0,0 +1,98 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TranspositionTableTest {
+    @Test
+    public void testStoreAndProbe() {
+        var table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.capacity());
+        assertEquals(1 << 20, table.memoryBytes());
+        assertEquals(TranspositionTable.MISS, table.probe(0));
+        assertEquals(TranspositionTable.MISS, table.probe(12345));
+
+        assertTrue(table.store(12345, 7, 300, Move.R.index()));
+        long entry = table.probe(12345);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(300, TranspositionTable.value(entry));
+        assertEquals(Move.R.index(), TranspositionTable.move(entry));
+        assertTrue(table.store(0, 0, 0, TranspositionTable.NO_MOVE));
+        assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.move(table.probe(0)));
+
+        assertEquals(2, table.hits());
+        assertEquals(2, table.misses());
+        assertEquals(0, table.overwrites());
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(12345));
+        assertEquals(0, table.hits());
+    }
+
+    @Test
+    public void testReplacement() {
+        var table = new TranspositionTable(1);
+        long step = table.capacity();    // hashes in the same bucket
+        assertTrue(table.store(4, 5, 1, TranspositionTable.NO_MOVE));
+        assertFalse("shallower result of the same state", table.store(4, 4, 2, TranspositionTable.NO_MOVE));
+        assertTrue(table.store(4, 6, 3, TranspositionTable.NO_MOVE));
+        assertEquals(3, TranspositionTable.value(table.probe(4)));
+
+        assertTrue(table.store(4 + step, 2, 4, TranspositionTable.NO_MOVE));
+        assertEquals(0, table.overwrites());
+        // The bucket is full: the shallower entry goes.
+        assertTrue(table.store(4 + 2 * step, 3, 5, TranspositionTable.NO_MOVE));
+        assertEquals(1, table.overwrites());
+        assertEquals(TranspositionTable.MISS, table.probe(4 + step));
+        assertEquals(6, TranspositionTable.depth(table.probe(4)));
+
+        // Entries of an older search go first, however deep.
+        table.newSearch();
+        assertTrue(table.store(4 + 3 * step, 1, 6, TranspositionTable.NO_MOVE));
+        assertEquals(TranspositionTable.MISS, table.probe(4 + 2 * step));
+        assertTrue(table.store(4 + 4 * step, 1, 7, TranspositionTable.NO_MOVE));
+        assertEquals(TranspositionTable.MISS, table.probe(4));
+        // A shallower result replaces a deeper one of an older search.
+        assertFalse(table.store(4 + 3 * step, 0, 8, TranspositionTable.NO_MOVE));
+        table.newSearch();
+        assertTrue(table.store(4 + 3 * step, 0, 8, TranspositionTable.NO_MOVE));
+        assertEquals(8, TranspositionTable.value(table.probe(4 + 3 * step)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBudget() {
+        new TranspositionTable(0);
+    }
+
+    /**
+     * Threads store and probe the same states; every hit must carry the data of its own hash.
+     */
+    @Test
+    public void testConcurrent() {
+        var table = new TranspositionTable(1);
+        var found = new AtomicLong();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            var rnd = new SplittableRandom(thread);
+            for (int i = 0; i < 200_000; i++) {
+                long hash = rnd.nextLong(1 << 20) * 0x9e37_79b9_7f4a_7c15L;
+                int value = (int) (hash >>> 48), depth = (int) (hash >>> 40) & 0x1f;
+                long entry = table.probe(hash);
+                if (entry != TranspositionTable.MISS) {
+                    assertEquals(value, TranspositionTable.value(entry));
+                    assertTrue(TranspositionTable.depth(entry) >= depth);
+                    found.incrementAndGet();
+                } else {
+                    table.store(hash, depth, value, TranspositionTable.NO_MOVE);
+                }
+            }
+        });
+        assertTrue(found.get() > 0);
+        assertEquals(8 * 200_000, table.hits() + table.misses());
+    }
+}
@@ -0,0 +1,120 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TwoPhaseSolverTest {
+    private static final Duration BUDGET = Duration.ofSeconds(30);
+
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public TwoPhaseSolverTest() throws IOException {}
+
+    private static boolean isSolved(Cube cube) {
+        return StickerHeuristic.isSolved(cube.faces());
+    }
+
+    @Test
+    public void testCoordinates() {
+        var cube = new CubieCube();
+        for (int twist = 0; twist < CubieCube.N_TWIST; twist += 7) {
+            cube.setTwist(twist);
+            assertEquals(twist, cube.twist());
+            assertEquals(0, cube.cornerTwist());
+        }
+        for (int flip = 0; flip < CubieCube.N_FLIP; flip += 5) {
+            cube.setFlip(flip);
+            assertEquals(flip, cube.flip());
+            assertEquals(0, cube.edgeFlip());
+        }
+        for (int slice = 0; slice < CubieCube.N_SLICE; slice++) {
+            cube.setSlice(slice);
+            assertEquals(slice, cube.slice());
+        }
+        for (int perm = 0; perm < CubieCube.N_CORNER_PERM; perm += 11) {
+            cube.setCornerPermutation(perm);
+            assertEquals(perm, cube.cornerPermutation());
+            cube.setUdEdgePermutation(perm);
+            assertEquals(perm, cube.udEdgePermutation());
+        }
+        for (int perm = 0; perm < CubieCube.N_SLICE_PERM; perm++) {
+            cube.setSlicePermutation(perm);
+            assertEquals(perm, cube.slicePermutation());
+        }
+
+        var solvedCubie = new CubieCube();
+        assertEquals(0, solvedCubie.twist() + solvedCubie.flip() + solvedCubie.slice());
+        assertEquals(0, solvedCubie.cornerPermutation() + solvedCubie.udEdgePermutation() + solvedCubie.slicePermutation());
+    }
+
+    @Test
+    public void testSolved() {
+        int[] solution = new TwoPhaseSolver().solve(solved).orElseThrow();
+        assertEquals(0, solution.length);
+    }
+
+    @Test
+    public void testSingleMove() {
+        var solver = new TwoPhaseSolver();
+        for (var move: Move.values()) {
+            int[] solution = solver.solve(move.apply(solved), 1, BUDGET).orElseThrow();
+            assertEquals(move.name(), 1, solution.length);
+            assertEquals(move.name(), move.inverse().index(), solution[0]);
+        }
+    }
+
+    @Test
+    public void testRandomScrambles() {
+        var rnd = new Random(7);
+        var solver = new TwoPhaseSolver();
+        for (int i = 0; i < 20; i++) {
+            var cube = new MutableCube(solved);
+            for (int k = 0; k < 30; k++)
+                cube.apply(rnd.nextInt(Move.COUNT));
+
+            int[] solution = solver.solve(cube.toCube(), 22, BUDGET).orElseThrow();
+            assertTrue(solution.length <= 22);
+            assertTrue(isSolved(cube.apply(solution).toCube()));
+        }
+    }
+
+    @Test
+    public void testTimeBudget() {
+        var cube = new MutableCube(solved);
+        var rnd = new Random(11);
+        for (int k = 0; k < 30; k++)
+            cube.apply(rnd.nextInt(Move.COUNT));
+        var solver = new TwoPhaseSolver();
+        // Far too short for any solution of this scramble.
+        assertTrue(solver.solve(cube.toCube(), 10, Duration.ofMillis(50)).isEmpty());
+    }
+
+    @Test(expected = Cube.InvalidCubeException.class)
+    public void testUnsolvable() throws IOException {
+        // A single corner is twisted.
+        new TwoPhaseSolver().solve(Cube.fromResource("/cube2/base.txt"));
+    }
+
+    @Test
+    public void testTables() {
+        assertTrue(TwoPhaseSolver.tableBuildMillis() >= 0);
+        assertTrue(TwoPhaseSolver.tableMemoryBytes() > 3_000_000);
+        var tables = TwoPhaseTables.get();
+        assertEquals(0, tables.twistSlicePrune.get(0));
+        assertEquals(0, tables.cornerSlicePrune.get(0));
+        for (long i = 0; i < tables.flipSlicePrune.size(); i++) {
+            int distance = tables.flipSlicePrune.get(i);
+            assertTrue(distance >= 0 && distance <= TwoPhaseSolver.MAX_PHASE1_LENGTH);
+        }
+        for (long i = 0; i < tables.edgeSlicePrune.size(); i++) {
+            int distance = tables.edgeSlicePrune.get(i);
+            assertTrue(distance >= 0 && distance <= TwoPhaseSolver.MAX_PHASE2_LENGTH);
+        }
+    }
+}
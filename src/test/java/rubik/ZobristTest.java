@@ -0,0 +1,55 @@
+package rubik;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ZobristTest {
+    private final Cube solved = Cube.fromResource("/cube1/base.txt");
+
+    public ZobristTest() throws IOException {}
+
+    @Test
+    public void testStickerKeys() throws IOException {
+        for (var cube: new Cube[] { solved, Cube.fromResource("/cube2/base.txt"), Cube.fromResource("/equiv/equiv.txt") }) {
+            long hash = Zobrist.hash(cube);
+            assertEquals(Zobrist.hashByStickers(cube.faces()), hash);
+            for (var move: Move.values()) {
+                var turned = move.apply(cube);
+                assertEquals(move.name(), Zobrist.hashByStickers(turned.faces()), Zobrist.hash(turned));
+                assertNotEquals(move.name(), hash, Zobrist.hash(turned));
+            }
+        }
+    }
+
+    @Test
+    public void testMutableCube() {
+        var rnd = new Random(21);
+        var cube = new MutableCube(solved);
+        for (int i = 0; i < 1000; i++) {
+            cube.apply(rnd.nextInt(Move.COUNT));
+            assertEquals(Zobrist.hash(cube.toCube()), cube.hash());
+        }
+        long hash = cube.hash();
+        int[] moves = { Move.R.index(), Move.U2.index(), Move._F.index() };
+        assertNotEquals(hash, cube.apply(moves).hash());
+        assertEquals(hash, cube.undo(moves).hash());
+    }
+
+    @Test
+    public void testNoCollisions() {
+        var rnd = new Random(5);
+        var seen = new HashMap<Long, Cube>();
+        var cube = new MutableCube(solved);
+        for (int i = 0; i < 100_000; i++) {
+            cube.apply(rnd.nextInt(Move.COUNT));
+            var previous = seen.put(cube.hash(), cube.toCube());
+            if (previous != null) assertEquals(previous, cube.toCube());
+        }
+    }
+}
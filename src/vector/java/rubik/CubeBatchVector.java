@@ -0,0 +1,47 @@
+package rubik;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import static rubik.Cube.CELL_LOW_BITS;
+import static rubik.Cube.N_FACES;
+
+/**
+ * Comparisons of {@link CubeBatch} on SIMD lanes, with the incubating Vector API.
+ *
+ * Only compiled by the {@code vector} profile of the build, and only looked up by
+ *  {@link CubeBatch} when the {@code jdk.incubator.vector} module is resolved, which the JVM
+ *  does only on request. It handles the states that fill whole vectors and returns where the
+ *  scalar loop of {@link CubeBatch} takes over.
+ */
+final class CubeBatchVector {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private CubeBatchVector() {}
+
+    /**
+     * @see CubeBatch#equivalent(int[][], int[], int, int, long[])
+     * @return the number of states done.
+     */
+    static int equivalent(int[][] columns, int[] target, int size, long[] words) {
+        int[] targetWild = new int[N_FACES];
+        for (int f = 0; f < N_FACES; f++) targetWild[f] = CubeBatch.wild(target[f]);
+        int bound = SPECIES.loopBound(size);
+        for (int i = 0; i < bound; i += SPECIES.length()) {
+            var mismatches = IntVector.zero(SPECIES);
+            for (int f = 0; f < N_FACES; f++) {
+                var face = IntVector.fromArray(SPECIES, columns[f], i);
+                var x = face.lanewise(VectorOperators.XOR, target[f]);
+                var differ = x.or(x.lanewise(VectorOperators.LSHR, 1)).or(x.lanewise(VectorOperators.LSHR, 2));
+                var wild = face.and(face.lanewise(VectorOperators.LSHR, 1)).and(face.lanewise(VectorOperators.LSHR, 2))
+                    .or(targetWild[f]);
+                mismatches = mismatches.or(differ.and(wild.not()));
+            }
+            // Lane counts are powers of two up to 16, so the lanes of a vector share a word.
+            long equal = mismatches.and(CELL_LOW_BITS).eq(0).toLong();
+            words[i >>> 6] |= equal << i;
+        }
+        return bound;
+    }
+}